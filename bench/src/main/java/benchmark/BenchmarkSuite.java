@@ -0,0 +1,39 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON, so runs of different releases can be compared.
+ *
+ * Usage: {@code java -jar bench/target/benchmarks.jar [benchmarkRegex] [resultFile]}. By default all benchmarks
+ * of this module are run and the results are written to {@code bench-results/jmh-<date>.json}. The jar is built by
+ * {@code mvn -pl bench -am -DskipTests package}; {@code mvn -pl bench -am -P bench -DskipTests verify} builds and runs
+ * it, with {@code -Dbench.include} and {@code -Dbench.result} as the two arguments.
+ */
+public class BenchmarkSuite {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : "benchmark\\..*Benchmark";
+        Path resultFile = args.length > 1 ? Path.of(args[1]) : Path.of("bench-results", "jmh-" + LocalDate.now() + ".json");
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results: " + resultFile.toAbsolutePath());
+    }
+}
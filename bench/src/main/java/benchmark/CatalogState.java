@@ -0,0 +1,47 @@
+package benchmark;
+
+import model.Assortment;
+import model.Product;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A catalog of generated products and a cart of selected products, shared by the core path benchmarks.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"10", "100"})
+    public int cartSize;
+
+    public Assortment catalog;
+    public Assortment cart;
+
+    @Setup
+    public void setUpCatalog() {
+        catalog = new Assortment();
+        for (int id = 0; id < catalogSize; id++) {
+            catalog.addProduct(new Product(id, productName(id), 0.99 + id % 500), 1_000_000);
+        }
+
+        cart = new Assortment();
+        int step = Math.max(1, catalogSize / cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            cart.addProduct(catalog.getProductById(i * step), 1 + i % 5);
+        }
+    }
+
+    /**
+     * Returns the generated name of a product.
+     *
+     * @param id the ID of the product
+     * @return the product name
+     */
+    public static String productName(int id) {
+        return "Product " + id + (id % 3 == 0 ? " cotton" : id % 3 == 1 ? " linen" : " silk");
+    }
+}
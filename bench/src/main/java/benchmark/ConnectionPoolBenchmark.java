@@ -0,0 +1,85 @@
+package benchmark;
+
+import database.AssortmentQueries;
+import database.PooledDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares read throughput of one shared connection with a {@link PooledDataSource}.
+ *
+ * Every thread repeatedly runs the assortment version probe. With a single connection the threads
+ * have to take turns; with the pool each thread borrows its own connection and reuses the cached
+ * prepared statement.
+ *
+ * Usage: {@code java benchmark.ConnectionPoolBenchmark <jdbcUrl> <user> <password> [threads] [seconds]}
+ */
+public class ConnectionPoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Usage: ConnectionPoolBenchmark <jdbcUrl> <user> <password> [threads] [seconds]");
+            return;
+        }
+        String url = args[0];
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+        try (Connection shared = DriverManager.getConnection(url, args[1], args[2])) {
+            double throughput = run(threads, seconds, () -> {
+                synchronized (shared) {
+                    AssortmentQueries.probeVersion(shared);
+                }
+            });
+            System.out.printf("%-20s %8d threads %12.0f queries/s%n", "single connection", threads, throughput);
+        }
+
+        try (PooledDataSource pool = PooledDataSource.forUrl(url, args[1], args[2], threads)) {
+            double throughput = run(threads, seconds, () -> {
+                try (Connection connection = pool.getConnection()) {
+                    AssortmentQueries.probeVersion(connection);
+                }
+            });
+            System.out.printf("%-20s %8d threads %12.0f queries/s%n", "pooled", threads, throughput);
+        }
+    }
+
+    private interface Query {
+        void run() throws SQLException;
+    }
+
+    private static double run(int threads, int seconds, Query query) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder queries = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        query.run();
+                        queries.increment();
+                    }
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        done.await();
+        return queries.sum() * 1e9 / (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,148 @@
+package benchmark;
+
+import controller.AssortmentRowSorter;
+import controller.AssortmentTableModel;
+import controller.OrderController;
+import controller.ProductComboBoxModel;
+import controller.SelectProductController;
+import controller.TableController;
+import model.Assortment;
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the core paths of the till: changing the catalog, building and filtering the table model,
+ * selecting products, pricing the cart and writing the check, for every catalog and cart size of
+ * {@link CatalogState}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true"})
+public class CorePathsBenchmark {
+    private static final String ORDER_NUMBER = "19700101000000";
+
+    private Product extraProduct;
+    private JComboBox<Object> comboBox;
+    private ProductComboBoxModel pickerModel;
+    private DefaultTableModel tableModel;
+    private AssortmentTableModel liveTableModel;
+    private Assortment selection;
+
+    @Setup
+    public void setUp(CatalogState state) throws IOException {
+        extraProduct = new Product(state.catalogSize, CatalogState.productName(state.catalogSize), 9.99);
+        comboBox = new JComboBox<>(new Object[]{CatalogState.productName(state.catalogSize / 2)});
+        pickerModel = new ProductComboBoxModel(state.catalog);
+        tableModel = TableController.loadAssortment(state.catalog, 1);
+        liveTableModel = TableController.loadLiveAssortment(state.catalog, 1);
+        state.catalog.getSearchIndex();
+        Files.createDirectories(Path.of("checks"));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetSelection() {
+        selection = new Assortment();
+    }
+
+    /**
+     * Adds a product to the catalog and removes it again. The removal uses {@link Assortment#removeProduct(int)},
+     * the silent core of {@code removeProductByProductID}, so console output does not dominate the result.
+     */
+    @Benchmark
+    public boolean addAndRemoveProduct(CatalogState state) {
+        state.catalog.addProduct(extraProduct, 1);
+        return state.catalog.removeProduct(extraProduct.getId());
+    }
+
+    @Benchmark
+    public DefaultTableModel loadAssortment(CatalogState state) {
+        return TableController.loadAssortment(state.catalog, 1);
+    }
+
+    @Benchmark
+    public DefaultTableModel filterTable(CatalogState state) {
+        return TableController.filterTable("ct 12", state.catalog);
+    }
+
+    /**
+     * Searches the product names through the n-gram index alone, without building a table model.
+     * The index is built in {@link #setUp(CatalogState)}; at 100,000 products a search should stay well under a millisecond.
+     */
+    @Benchmark
+    public int[] searchProductNames(CatalogState state) {
+        return state.catalog.getSearchIndex().search("ct 12");
+    }
+
+    /**
+     * Adds a product to the search index and removes it again, which updates every posting list of its name.
+     */
+    @Benchmark
+    public boolean addAndRemoveSearchIndexEntry(CatalogState state) {
+        state.catalog.getSearchIndex().add(extraProduct.getId(), extraProduct.getName());
+        return state.catalog.getSearchIndex().remove(extraProduct.getId());
+    }
+
+    /**
+     * Sorts the copied table rows by price with the default sorter, which compares boxed cell values.
+     */
+    @Benchmark
+    public RowSorter<?> sortTableByPrice() {
+        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(tableModel);
+        sorter.toggleSortOrder(3);
+        return sorter;
+    }
+
+    @Benchmark
+    public RowSorter<?> sortLiveTableByPrice() {
+        AssortmentRowSorter sorter = new AssortmentRowSorter(liveTableModel);
+        sorter.toggleSortOrder(3);
+        return sorter;
+    }
+
+    @Benchmark
+    public Assortment fillAssortmentWithSelectedProduct(CatalogState state) {
+        return SelectProductController.fillAssortmentWithSelectedProduct(comboBox, 1, state.catalog, selection);
+    }
+
+    @Benchmark
+    public ProductComboBoxModel reloadProductPicker(CatalogState state) {
+        pickerModel.reload(state.catalog);
+        return pickerModel;
+    }
+
+    @Benchmark
+    public int pickerPrefixLookup() {
+        return pickerModel.indexOfPrefix("product 4");
+    }
+
+    @Benchmark
+    public String getOrderPrice(CatalogState state) {
+        return OrderController.getOrderPrice(state.cart);
+    }
+
+    @Benchmark
+    public void createOrderCheck(CatalogState state) {
+        OrderController.createOrderCheck(state.cart, ORDER_NUMBER);
+    }
+}
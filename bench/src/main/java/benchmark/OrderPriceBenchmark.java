@@ -0,0 +1,74 @@
+package benchmark;
+
+import controller.OrderController;
+import model.Assortment;
+import model.Money;
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the order total of {@link OrderController} with the earlier implementation, which copied the
+ * products into a list, looked each amount up in the map, summed doubles and formatted with
+ * {@code String.format}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPriceBenchmark {
+    @Param({"10", "100", "1000"})
+    public int cartSize;
+
+    private Assortment cart;
+
+    @Setup
+    public void setUp() {
+        cart = new Assortment();
+        for (int id = 0; id < cartSize; id++) {
+            cart.addProduct(new Product(id, "Product " + id, 0.99 + id % 500), 1 + id % 7);
+        }
+    }
+
+    @Benchmark
+    public String mapBasedDoubleTotal() {
+        Map<Product, Integer> assortment = cart.getAssortment();
+        List<Product> products = new ArrayList<>(assortment.keySet());
+        double totalPrice = 0;
+        for (Product product : products) {
+            totalPrice += product.getPrice() * assortment.get(product);
+        }
+        return String.format("%.2f", totalPrice);
+    }
+
+    @Benchmark
+    public String formattedTotal() {
+        return OrderController.getOrderPrice(cart);
+    }
+
+    @Benchmark
+    public long minorUnitsTotal() {
+        return OrderController.getOrderPriceMinor(cart);
+    }
+
+    @Benchmark
+    public String formatOnly() {
+        return Money.format(OrderController.getOrderPriceMinor(cart));
+    }
+}
@@ -0,0 +1,98 @@
+package benchmark;
+
+import model.Assortment;
+import model.OrderIdGenerator;
+import model.Product;
+import service.OrderHttpServer;
+import service.OrderService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures requests per second of {@link OrderHttpServer} on the local machine.
+ *
+ * Every simulated terminal runs a loop on its own virtual thread: search the catalog, open a cart, add three
+ * products, read the cart and check out. Checks are not written, so the result shows the cost of the HTTP
+ * layer and the order service. Nagle's algorithm is switched off on the server's sockets, as it should be in
+ * production; otherwise every keep-alive response waits for a delayed acknowledgement.
+ *
+ * Usage: {@code java benchmark.OrderServiceLoadTest [terminals] [seconds] [catalogSize]}
+ */
+public class OrderServiceLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int catalogSize = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        Assortment catalog = new Assortment();
+        for (int id = 0; id < catalogSize; id++) {
+            catalog.addProduct(new Product(id, CatalogState.productName(id), 0.99 + id % 500), Integer.MAX_VALUE / 2);
+        }
+        OrderService orderService = new OrderService(catalog, new OrderIdGenerator(0), null);
+
+        LongAdder requests = new LongAdder();
+        LongAdder failures = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        try (OrderHttpServer server = new OrderHttpServer(orderService, 0);
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             ExecutorService terminalThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            String base = "http://localhost:" + server.getPort();
+            for (int t = 0; t < terminals; t++) {
+                int terminal = t;
+                terminalThreads.submit(() -> {
+                    int next = terminal;
+                    while (running.get()) {
+                        try {
+                            send(client, "GET", base + "/catalog?q=ct+" + next % 100, requests, failures);
+                            String cart = send(client, "POST", base + "/carts", requests, failures);
+                            String cartId = cart.substring(cart.indexOf(':') + 2, cart.lastIndexOf('"'));
+                            for (int i = 0; i < 3; i++) {
+                                int productID = (next + i * 7919) % catalogSize;
+                                send(client, "POST", base + "/carts/" + cartId + "/items?productId=" + productID + "&quantity=1",
+                                        requests, failures);
+                            }
+                            send(client, "GET", base + "/carts/" + cartId, requests, failures);
+                            send(client, "POST", base + "/carts/" + cartId + "/checkout", requests, failures);
+                            next += terminals;
+                        } catch (Exception e) {
+                            failures.increment();
+                        }
+                    }
+                });
+            }
+
+            long start = System.nanoTime();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            running.set(false);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("terminals=%d catalog=%d requests=%d failures=%d throughput=%.0f req/s%n",
+                    terminals, catalogSize, requests.sum(), failures.sum(), requests.sum() / elapsedSeconds);
+        }
+    }
+
+    private static String send(HttpClient client, String method, String uri, LongAdder requests, LongAdder failures)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        requests.increment();
+        if (response.statusCode() != 200) failures.increment();
+        return response.body();
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import model.Assortment;
+import model.Product;
+import model.StockEngine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures reserve/release throughput of {@link StockEngine} for a growing number of threads.
+ *
+ * In the "disjoint" scenario every thread works on its own products, which should scale with the
+ * number of threads. In the "shared" scenario all threads hit one product, which shows the cost of
+ * contention on a single counter.
+ *
+ * Usage: {@code java benchmark.StockEngineContentionBenchmark [secondsPerRun]}
+ */
+public class StockEngineContentionBenchmark {
+    private static final int PRODUCTS_PER_THREAD = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%-10s %8s %16s%n", "scenario", "threads", "ops/s");
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            System.out.printf("%-10s %8d %16.0f%n", "disjoint", threads, run(threads, seconds, false));
+        }
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            System.out.printf("%-10s %8d %16.0f%n", "shared", threads, run(threads, seconds, true));
+        }
+    }
+
+    private static double run(int threads, int seconds, boolean shared) throws InterruptedException {
+        Assortment assortment = new Assortment();
+        for (int id = 0; id < threads * PRODUCTS_PER_THREAD; id++) {
+            assortment.addProduct(new Product(id, "Product " + id, 1.00), Integer.MAX_VALUE / 2);
+        }
+        StockEngine stockEngine = new StockEngine(assortment);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder operations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int firstProduct = shared ? 0 : t * PRODUCTS_PER_THREAD;
+            int productCount = shared ? 1 : PRODUCTS_PER_THREAD;
+            Thread worker = new Thread(() -> {
+                long count = 0;
+                int next = 0;
+                while (running.get()) {
+                    int productID = firstProduct + next;
+                    stockEngine.reserve(productID, 1);
+                    stockEngine.release(productID, 1);
+                    next = next + 1 == productCount ? 0 : next + 1;
+                    count += 2;
+                }
+                operations.add(count);
+                done.countDown();
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        return operations.sum() * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,119 @@
+package controller;
+
+import database.AssortmentLoader;
+import database.QueryCancellation;
+import model.Assortment;
+
+import javax.swing.*;
+import javax.swing.table.TableModel;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static controller.TableController.filterTable;
+
+/**
+ * Loads and filters the assortment off the Swing event dispatch thread.
+ *
+ * Each call to {@link #submit(String)} supersedes the previous one: a query that is still waiting for
+ * its debounce delay is dropped, a query that is already loading is cancelled through its
+ * {@link QueryCancellation}, which cancels the running JDBC statement and stops reading rows, and only the
+ * result of the latest query is ever set on the table. Running queries are never interrupted: interrupting
+ * a virtual thread blocked in socket I/O closes the socket, which would break the JDBC connection.
+ * Loading and filtering run on virtual threads; the table is only touched on the event dispatch thread.
+ */
+public class AssortmentFilterPipeline implements AutoCloseable {
+    private final JTable table;
+    private final AssortmentLoader loader;
+    private final long debounceMillis;
+    private final ScheduledExecutorService debouncer;
+    private final ExecutorService workers;
+    private final AtomicLong latestQuery;
+
+    private Future<?> pendingQuery;
+    private QueryCancellation runningCancellation;
+
+    /**
+     * Constructs a filter pipeline for the table.
+     *
+     * @param table the JTable to show the filtered assortment in
+     * @param loader the source of the assortment to filter
+     * @param debounceMillis how long the input must be quiet before a query starts, in milliseconds
+     * @throws IllegalArgumentException if the table or loader is null or the delay is negative
+     */
+    public AssortmentFilterPipeline(JTable table, AssortmentLoader loader, long debounceMillis) {
+        if (table == null) throw new IllegalArgumentException("Table cannot be null");
+        if (loader == null) throw new IllegalArgumentException("Loader cannot be null");
+        if (debounceMillis < 0) throw new IllegalArgumentException("Debounce delay cannot be negative");
+
+        this.table = table;
+        this.loader = loader;
+        this.debounceMillis = debounceMillis;
+        this.debouncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "assortment-filter-debouncer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = Executors.newVirtualThreadPerTaskExecutor();
+        this.latestQuery = new AtomicLong();
+    }
+
+    /**
+     * Schedules filtering of the assortment by the product name and cancels any earlier query.
+     * Can be called from any thread, typically from a document listener on the search field.
+     *
+     * @param productName the name of the product to filter the assortment by
+     * @throws IllegalArgumentException if the product name is null
+     */
+    public synchronized void submit(String productName) {
+        if (productName == null) throw new IllegalArgumentException("Product name cannot be null");
+
+        long query = latestQuery.incrementAndGet();
+        if (pendingQuery != null) pendingQuery.cancel(false);
+        if (runningCancellation != null) runningCancellation.cancel();
+
+        pendingQuery = debouncer.schedule(() -> start(productName, query), debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the pipeline. Queries that are still waiting are dropped; a query that is already loading
+     * is cancelled and its result is discarded.
+     */
+    @Override
+    public synchronized void close() {
+        latestQuery.incrementAndGet();
+        if (runningCancellation != null) runningCancellation.cancel();
+        debouncer.shutdownNow();
+        workers.shutdown();
+    }
+
+    private synchronized void start(String productName, long query) {
+        if (query != latestQuery.get()) return;
+
+        QueryCancellation cancellation = new QueryCancellation();
+        runningCancellation = cancellation;
+        workers.submit(() -> filter(productName, query, cancellation));
+    }
+
+    private void filter(String productName, long query, QueryCancellation cancellation) {
+        try {
+            Assortment availableAssortment = loader.load(cancellation);
+            if (query != latestQuery.get()) return;
+
+            TableModel tableModel = filterTable(productName, availableAssortment);
+            SwingUtilities.invokeLater(() -> {
+                if (query == latestQuery.get()) {
+                    table.setModel(tableModel);
+                }
+            });
+        } catch (SQLException sqle) {
+            if (query == latestQuery.get()) {
+                System.out.println(sqle.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package controller;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A row sorter for an {@link AssortmentTableModel} that sorts on the model's primitive values.
+ *
+ * For every column the table has been sorted by, the sorter keeps a permutation of the model rows in
+ * ascending order as an {@code int[]}. Rows are compared by the id, amount or price of the model without
+ * boxing, and names ignoring case; ties are broken by product id. A descending sort reads the same
+ * permutation backwards. When the model inserts, deletes or updates a few rows, as it does on every stock
+ * change, each permutation is patched by removing and re-inserting those rows with a binary search instead of
+ * being sorted again. Only the primary sort key is used. The sorter must be used on the Swing event dispatch
+ * thread.
+ */
+public class AssortmentRowSorter extends RowSorter<AssortmentTableModel> {
+    private static final int NAME_COLUMN = 1;
+    private static final int AMOUNT_COLUMN = 2;
+    private static final int PRICE_COLUMN = 3;
+    private static final int COLUMN_COUNT = 4;
+    private static final int MAX_INCREMENTAL_ROWS = 32;
+
+    private final AssortmentTableModel model;
+    private final int[][] permutations;
+    private List<SortKey> sortKeys;
+    private int modelRowCount;
+    private int[] modelToView;
+    private int[] mergeBuffer;
+
+    /**
+     * Constructs an unsorted sorter for the model.
+     *
+     * @param model the model to sort
+     * @throws IllegalArgumentException if the model is null
+     */
+    public AssortmentRowSorter(AssortmentTableModel model) {
+        if (model == null) throw new IllegalArgumentException("Model must not be null.");
+
+        this.model = model;
+        this.permutations = new int[COLUMN_COUNT][];
+        this.sortKeys = Collections.emptyList();
+        this.modelRowCount = model.getRowCount();
+    }
+
+    @Override
+    public AssortmentTableModel getModel() {
+        return model;
+    }
+
+    /**
+     * Sorts by the column, ascending first and then reversing the order on every call for the same column.
+     *
+     * @param column the model column to sort by
+     * @throws IndexOutOfBoundsException if the column is out of range
+     */
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+
+        SortOrder order = SortOrder.ASCENDING;
+        if (!sortKeys.isEmpty() && sortKeys.get(0).getColumn() == column
+                && sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING) {
+            order = SortOrder.DESCENDING;
+        }
+        setSortKeys(List.of(new SortKey(column, order)));
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> newKeys = keys == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(keys));
+        for (SortKey key : newKeys) {
+            checkColumn(key.getColumn());
+        }
+        if (newKeys.equals(sortKeys)) return;
+
+        int[] previousViewToModel = viewToModel();
+        sortKeys = newKeys;
+        fireSortOrderChanged();
+        if (isSorted()) {
+            permutation(sortKeys.get(0).getColumn());
+        }
+        modelToView = null;
+        fireRowSorterChanged(previousViewToModel);
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (index < 0 || index >= modelRowCount) throw new IndexOutOfBoundsException("Invalid index " + index);
+        if (!isSorted()) return index;
+
+        int[] permutation = permutation(sortKeys.get(0).getColumn());
+        return isAscending() ? permutation[index] : permutation[modelRowCount - 1 - index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (index < 0 || index >= modelRowCount) throw new IndexOutOfBoundsException("Invalid index " + index);
+        if (!isSorted()) return index;
+
+        if (modelToView == null) {
+            int[] permutation = permutation(sortKeys.get(0).getColumn());
+            modelToView = new int[modelRowCount];
+            for (int i = 0; i < modelRowCount; i++) {
+                modelToView[permutation[i]] = isAscending() ? i : modelRowCount - 1 - i;
+            }
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return modelRowCount;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return modelRowCount;
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        allRowsChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        modelRowCount = model.getRowCount();
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            permutations[column] = null;
+        }
+        sorted();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        checkRange(firstRow, endRow, model.getRowCount());
+        int count = endRow - firstRow + 1;
+        modelRowCount = model.getRowCount();
+
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            int[] permutation = permutations[column];
+            if (permutation == null) continue;
+            if (count > MAX_INCREMENTAL_ROWS) {
+                permutations[column] = null;
+                continue;
+            }
+
+            int size = modelRowCount - count;
+            if (permutation.length < modelRowCount) {
+                permutation = Arrays.copyOf(permutation, Math.max(modelRowCount, permutation.length << 1));
+                permutations[column] = permutation;
+            }
+            for (int i = 0; i < size; i++) {
+                if (permutation[i] >= firstRow) permutation[i] += count;
+            }
+            for (int row = firstRow; row <= endRow; row++) {
+                insertInOrder(permutation, size++, row, column);
+            }
+        }
+        sorted();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        checkRange(firstRow, endRow, modelRowCount);
+        int count = endRow - firstRow + 1;
+
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            int[] permutation = permutations[column];
+            if (permutation == null) continue;
+
+            int kept = 0;
+            for (int i = 0; i < modelRowCount; i++) {
+                int row = permutation[i];
+                if (row < firstRow) {
+                    permutation[kept++] = row;
+                } else if (row > endRow) {
+                    permutation[kept++] = row - count;
+                }
+            }
+        }
+        modelRowCount = model.getRowCount();
+        sorted();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        checkRange(firstRow, endRow, modelRowCount);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            reposition(column, firstRow, endRow);
+        }
+        sorted();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        checkRange(firstRow, endRow, modelRowCount);
+        checkColumn(column);
+        reposition(column, firstRow, endRow);
+        sorted();
+    }
+
+    /**
+     * Moves the updated rows to their new places in the permutation of the column, or drops the permutation
+     * when too many rows changed, so it is sorted again when it is next needed.
+     */
+    private void reposition(int column, int firstRow, int endRow) {
+        int[] permutation = permutations[column];
+        if (permutation == null) return;
+        if (endRow - firstRow + 1 > MAX_INCREMENTAL_ROWS) {
+            permutations[column] = null;
+            return;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < modelRowCount; i++) {
+            int row = permutation[i];
+            if (row < firstRow || row > endRow) permutation[kept++] = row;
+        }
+        for (int row = firstRow; row <= endRow; row++) {
+            insertInOrder(permutation, kept++, row, column);
+        }
+    }
+
+    /**
+     * Inserts the row into the first size entries of the sorted permutation.
+     */
+    private void insertInOrder(int[] permutation, int size, int row, int column) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(permutation[middle], row, column) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        System.arraycopy(permutation, low, permutation, low + 1, size - low);
+        permutation[low] = row;
+    }
+
+    /**
+     * Returns the ascending permutation of the column, sorting it first if it is not kept yet.
+     */
+    private int[] permutation(int column) {
+        int[] permutation = permutations[column];
+        if (permutation == null) {
+            permutation = new int[modelRowCount];
+            for (int i = 0; i < modelRowCount; i++) {
+                permutation[i] = i;
+            }
+            if (mergeBuffer == null || mergeBuffer.length < modelRowCount) {
+                mergeBuffer = new int[modelRowCount];
+            }
+            mergeSort(permutation, 0, modelRowCount, column);
+            permutations[column] = permutation;
+        }
+        return permutation;
+    }
+
+    private void mergeSort(int[] rows, int from, int to, int column) {
+        if (to - from < 2) return;
+
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, from, middle, column);
+        mergeSort(rows, middle, to, column);
+        if (compare(rows[middle - 1], rows[middle], column) <= 0) return;
+
+        System.arraycopy(rows, from, mergeBuffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(mergeBuffer[left], mergeBuffer[right], column) <= 0)) {
+                rows[i] = mergeBuffer[left++];
+            } else {
+                rows[i] = mergeBuffer[right++];
+            }
+        }
+    }
+
+    private int compare(int firstRow, int secondRow, int column) {
+        int result;
+        switch (column) {
+            case NAME_COLUMN:
+                result = String.CASE_INSENSITIVE_ORDER.compare(model.getNameAt(firstRow), model.getNameAt(secondRow));
+                break;
+            case AMOUNT_COLUMN:
+                result = Integer.compare(model.getAmountAt(firstRow), model.getAmountAt(secondRow));
+                break;
+            case PRICE_COLUMN:
+                result = Double.compare(model.getPriceAt(firstRow), model.getPriceAt(secondRow));
+                break;
+            default:
+                result = 0;
+                break;
+        }
+        return result != 0 ? result : Integer.compare(model.getProductIdAt(firstRow), model.getProductIdAt(secondRow));
+    }
+
+    /**
+     * Forgets the model-to-view mapping after the rows changed and tells the table if the order may have changed.
+     */
+    private void sorted() {
+        modelToView = null;
+        if (isSorted()) {
+            permutation(sortKeys.get(0).getColumn());
+            fireRowSorterChanged(null);
+        }
+    }
+
+    private boolean isSorted() {
+        return !sortKeys.isEmpty() && sortKeys.get(0).getSortOrder() != SortOrder.UNSORTED;
+    }
+
+    private boolean isAscending() {
+        return sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING;
+    }
+
+    private int[] viewToModel() {
+        if (!isSorted()) return null;
+
+        int[] viewToModel = new int[modelRowCount];
+        for (int i = 0; i < modelRowCount; i++) {
+            viewToModel[i] = convertRowIndexToModel(i);
+        }
+        return viewToModel;
+    }
+
+    private static void checkColumn(int column) {
+        if (column < 0 || column >= COLUMN_COUNT) throw new IndexOutOfBoundsException("Column " + column + " out of bounds");
+    }
+
+    private static void checkRange(int firstRow, int endRow, int rowCount) {
+        if (firstRow < 0 || endRow < firstRow || endRow >= rowCount) {
+            throw new IndexOutOfBoundsException("Invalid range " + firstRow + ".." + endRow);
+        }
+    }
+}
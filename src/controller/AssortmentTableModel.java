@@ -0,0 +1,334 @@
+package controller;
+
+import model.Assortment;
+import model.IntIntHashMap;
+import model.Product;
+import model.StockChangeEvent;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A table model that shows the products of an {@link Assortment} without copying them into per-row object arrays.
+ *
+ * The model keeps the product id, name, amount and price shown in each row in primitive column arrays.
+ * When the assortment changes, {@link #productChanged(int)} or {@link #refresh()} compare the assortment
+ * with the rows shown and fire row insert, update and delete events only for the rows that actually changed.
+ * Removing a row shifts the rows below it up, so the remaining rows keep their order and a single delete
+ * event describes the change. Cells are only boxed when the table reads them, so a table renders just the
+ * rows in its viewport; {@link AssortmentRowSorter} sorts the rows on the primitive values. The model must
+ * be used on the Swing event dispatch thread. Cells are read from the rows rather than from the assortment,
+ * so an assortment changed by other threads can be followed with {@link #applyStockChanges(List)}.
+ */
+public class AssortmentTableModel extends AbstractTableModel {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NOT_FOUND = -1;
+
+    private final String[] columnNames;
+    private Assortment assortment;
+    private final IntIntHashMap rowsById;
+    private int[] rowIds;
+    private int[] rowAmounts;
+    private double[] rowPrices;
+    private String[] rowNames;
+    private int rowCount;
+
+    /**
+     * Constructs a table model showing all products of the assortment.
+     *
+     * @param assortment the assortment to show
+     * @param type Selected type. 1 - for the table of available products 2 - for selected products.
+     * @throws IllegalArgumentException if the assortment is null or the type is unknown
+     */
+    public AssortmentTableModel(Assortment assortment, int type) {
+        if (assortment == null) throw new IllegalArgumentException("Assortment must not be null.");
+
+        this.columnNames = TableController.getColumnNames(type);
+        this.assortment = assortment;
+        this.rowsById = new IntIntHashMap(assortment.size());
+        int capacity = Math.max(INITIAL_CAPACITY, assortment.size());
+        this.rowIds = new int[capacity];
+        this.rowAmounts = new int[capacity];
+        this.rowPrices = new double[capacity];
+        this.rowNames = new String[capacity];
+
+        for (int i = 0; i < assortment.size(); i++) {
+            appendRow(assortment.getProductAt(i), assortment.getAmountAt(i));
+        }
+    }
+
+    /**
+     * Returns the assortment shown by this model.
+     *
+     * @return the assortment
+     */
+    public Assortment getAssortment() {
+        return assortment;
+    }
+
+    /**
+     * Replaces the assortment shown by this model, for example after reloading it from the database.
+     * Rows are matched by product id, so only products whose amount or price differs, and products
+     * that were added or removed, produce table events.
+     *
+     * @param assortment the new assortment to show
+     * @throws IllegalArgumentException if the assortment is null
+     */
+    public void setAssortment(Assortment assortment) {
+        if (assortment == null) throw new IllegalArgumentException("Assortment must not be null.");
+
+        this.assortment = assortment;
+        refresh();
+    }
+
+    /**
+     * Compares all rows with the assortment and fires events for the rows that changed.
+     * Reads the assortment, so it must only be used while the assortment is changed on the event dispatch thread.
+     */
+    public void refresh() {
+        for (int row = rowCount - 1; row >= 0; row--) {
+            if (!assortment.containsProduct(rowIds[row])) {
+                removeRowInternal(row);
+            }
+        }
+
+        int firstUpdated = NOT_FOUND;
+        for (int row = 0; row < rowCount; row++) {
+            if (updateRowInternal(row)) {
+                if (firstUpdated == NOT_FOUND) firstUpdated = row;
+            } else if (firstUpdated != NOT_FOUND) {
+                fireTableRowsUpdated(firstUpdated, row - 1);
+                firstUpdated = NOT_FOUND;
+            }
+        }
+        if (firstUpdated != NOT_FOUND) {
+            fireTableRowsUpdated(firstUpdated, rowCount - 1);
+        }
+
+        int firstInserted = rowCount;
+        for (int i = 0; i < assortment.size(); i++) {
+            Product product = assortment.getProductAt(i);
+            if (!rowsById.containsKey(product.getId())) {
+                appendRow(product, assortment.getAmountAt(i));
+            }
+        }
+        if (firstInserted < rowCount) {
+            fireTableRowsInserted(firstInserted, rowCount - 1);
+        }
+    }
+
+    /**
+     * Updates the row of a single product after it was added, changed or removed in the assortment.
+     * Reads the assortment, so it must only be used while the assortment is changed on the event dispatch thread.
+     *
+     * @param productID the ID of the product that changed
+     */
+    public void productChanged(int productID) {
+        int row = rowsById.get(productID, NOT_FOUND);
+
+        if (row == NOT_FOUND) {
+            Product product = assortment.getProductById(productID);
+            if (product == null) return;
+
+            appendRow(product, assortment.getAmount(productID));
+            fireTableRowsInserted(rowCount - 1, rowCount - 1);
+        } else if (!assortment.containsProduct(productID)) {
+            removeRowInternal(row);
+        } else if (updateRowInternal(row)) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    /**
+     * Updates the rows of a batch of stock changes, for example one delivered by {@link StockChangeCoalescer}.
+     * Each row is taken from its event alone; the assortment itself is not read, so it may be changed by other
+     * threads while the batch is applied.
+     *
+     * @param events the changes of the assortment shown by this model
+     */
+    public void applyStockChanges(List<StockChangeEvent> events) {
+        for (StockChangeEvent event : events) {
+            if (event.getSource() != assortment) continue;
+
+            int row = rowsById.get(event.getProductId(), NOT_FOUND);
+            if (event.getType() == StockChangeEvent.Type.REMOVED) {
+                if (row != NOT_FOUND) removeRowInternal(row);
+            } else if (row == NOT_FOUND) {
+                appendRow(event.getProductId(), event.getProductName(), event.getNewAmount(), event.getPrice());
+                fireTableRowsInserted(rowCount - 1, rowCount - 1);
+            } else {
+                rowNames[row] = event.getProductName();
+                rowAmounts[row] = event.getNewAmount();
+                rowPrices[row] = event.getPrice();
+                fireTableRowsUpdated(row, row);
+            }
+        }
+    }
+
+    /**
+     * Returns the ID of the product shown in the given row.
+     *
+     * @param row the model row index
+     * @return the product ID
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public int getProductIdAt(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount);
+
+        return rowIds[row];
+    }
+
+    /**
+     * Returns the amount shown in the given row, without boxing it.
+     *
+     * @param row the model row index
+     * @return the amount
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public int getAmountAt(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount);
+
+        return rowAmounts[row];
+    }
+
+    /**
+     * Returns the price shown in the given row, without boxing it.
+     *
+     * @param row the model row index
+     * @return the price
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public double getPriceAt(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount);
+
+        return rowPrices[row];
+    }
+
+    /**
+     * Returns the product name shown in the given row.
+     *
+     * @param row the model row index
+     * @return the product name
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public String getNameAt(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rowCount);
+
+        return rowNames[row];
+    }
+
+    /**
+     * Returns the model row showing the product with the specified ID.
+     *
+     * @param productID the ID of the product
+     * @return the row index, or -1 if the product is not shown
+     */
+    public int getRowOfProduct(int productID) {
+        return rowsById.get(productID, NOT_FOUND);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0:
+            case 2:
+                return Integer.class;
+            case 3:
+                return Double.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0:
+                return rowIds[row];
+            case 1:
+                return rowNames[row];
+            case 2:
+                return rowAmounts[row];
+            case 3:
+                return rowPrices[row];
+            default:
+                throw new IndexOutOfBoundsException("Column " + column + " out of bounds");
+        }
+    }
+
+    private void appendRow(Product product, int amount) {
+        appendRow(product.getId(), product.getName(), amount, product.getPrice());
+    }
+
+    private void appendRow(int productID, String name, int amount, double price) {
+        if (rowCount == rowIds.length) {
+            int capacity = rowCount << 1;
+            rowIds = Arrays.copyOf(rowIds, capacity);
+            rowAmounts = Arrays.copyOf(rowAmounts, capacity);
+            rowPrices = Arrays.copyOf(rowPrices, capacity);
+            rowNames = Arrays.copyOf(rowNames, capacity);
+        }
+
+        rowIds[rowCount] = productID;
+        rowNames[rowCount] = name;
+        rowAmounts[rowCount] = amount;
+        rowPrices[rowCount] = price;
+        rowsById.put(productID, rowCount);
+        rowCount++;
+    }
+
+    /**
+     * Copies the current name, amount and price of the row's product from the assortment.
+     *
+     * @return true if the row changed
+     */
+    private boolean updateRowInternal(int row) {
+        int productID = rowIds[row];
+        Product product = assortment.getProductById(productID);
+        int amount = assortment.getAmount(productID);
+        double price = product.getPrice();
+        String name = product.getName();
+        if (amount == rowAmounts[row] && Double.compare(price, rowPrices[row]) == 0 && name.equals(rowNames[row])) return false;
+
+        rowNames[row] = name;
+        rowAmounts[row] = amount;
+        rowPrices[row] = price;
+        return true;
+    }
+
+    /**
+     * Removes a row by shifting the rows below it up and fires the matching event.
+     */
+    private void removeRowInternal(int row) {
+        rowsById.remove(rowIds[row]);
+
+        int moved = rowCount - row - 1;
+        if (moved > 0) {
+            System.arraycopy(rowIds, row + 1, rowIds, row, moved);
+            System.arraycopy(rowAmounts, row + 1, rowAmounts, row, moved);
+            System.arraycopy(rowPrices, row + 1, rowPrices, row, moved);
+            System.arraycopy(rowNames, row + 1, rowNames, row, moved);
+            for (int i = row; i < row + moved; i++) {
+                rowsById.put(rowIds[i], i);
+            }
+        }
+        rowNames[--rowCount] = null;
+        fireTableRowsDeleted(row, row);
+    }
+}
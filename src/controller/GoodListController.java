@@ -1,30 +1,46 @@
 package controller;
 
-import database.DatabaseUtils;
+import database.AssortmentLoader;
+import database.AssortmentPager;
+import database.CatalogSnapshot;
 import model.Assortment;
 
+import javax.sql.DataSource;
 import javax.swing.*;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static controller.TableController.filterTable;
-import static controller.TableController.loadAssortment;
+import static controller.TableController.loadLiveAssortment;
 
 public class GoodListController {
+    private static final long FILTER_DEBOUNCE_MILLIS = 250;
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_RESIDENT_PAGES = 8;
+
+    /**
+     * The default location of the local catalog snapshot.
+     */
+    public static final Path CATALOG_SNAPSHOT_FILE = Path.of("cache", "catalog.snapshot");
+
     /**
      * Updates the available assortment table with the latest data from the database.
      *
      * This method retrieves the current available assortment from the database using the provided
-     * connection and updates the specified JTable with the retrieved data. If a SQL exception occurs,
-     * the error message is printed to the console.
+     * connection and updates the specified JTable with the retrieved data. If the table already shows a live
+     * {@link AssortmentTableModel}, only the rows that changed since the last update are refreshed.
+     * If a SQL exception occurs, the error message is printed to the console.
      *
      * @param table the JTable to be updated with the available assortment data
      * @param connection the database connection used to retrieve the available assortment
      */
     static public void updateAvaibleAssortmentTable(JTable table, Connection connection) {
         try {
-            Assortment availableAssortment = DatabaseUtils.loadAllAssortment(connection);
-            table.setModel(loadAssortment(availableAssortment, 1));
+            Assortment availableAssortment = AssortmentLoader.loadAll(connection);
+            showAssortment(table, availableAssortment);
         } catch (SQLException sqle) {
             System.out.println(sqle.getMessage());
         }
@@ -44,11 +60,175 @@ public class GoodListController {
      */
     static public void showFilteredAssortmentTable(JTable table, String productName, Connection connection) {
         try {
-            Assortment availableAssortment = DatabaseUtils.loadAllAssortment(connection);
+            Assortment availableAssortment = AssortmentLoader.loadAll(connection);
             table.setModel(filterTable(productName, availableAssortment));
         } catch (SQLException sqle) {
             System.out.println(sqle.getMessage());
         }
     }
 
+    /**
+     * Updates the available assortment table with a connection borrowed from the data source.
+     *
+     * @param table the JTable to be updated with the available assortment data
+     * @param dataSource the data source, typically a {@link database.PooledDataSource}, to borrow a connection from
+     */
+    static public void updateAvaibleAssortmentTable(JTable table, DataSource dataSource) {
+        updateAvaibleAssortmentTable(table, AssortmentLoader.fromDataSource(dataSource));
+    }
+
+    /**
+     * Displays a filtered assortment table with a connection borrowed from the data source.
+     *
+     * @param table the JTable to be updated with the filtered assortment data
+     * @param productName the name of the product to filter the assortment by
+     * @param dataSource the data source, typically a {@link database.PooledDataSource}, to borrow a connection from
+     */
+    static public void showFilteredAssortmentTable(JTable table, String productName, DataSource dataSource) {
+        showFilteredAssortmentTable(table, productName, AssortmentLoader.fromDataSource(dataSource));
+    }
+
+    /**
+     * Updates the available assortment table with the assortment supplied by the loader.
+     *
+     * Used with a {@link database.CachedAssortmentLoader}, most refreshes are answered from the cached
+     * snapshot without querying the database. If a SQL exception occurs, the error message is printed
+     * to the console.
+     *
+     * @param table the JTable to be updated with the available assortment data
+     * @param loader the source of the available assortment
+     */
+    static public void updateAvaibleAssortmentTable(JTable table, AssortmentLoader loader) {
+        try {
+            showAssortment(table, loader.load());
+        } catch (SQLException sqle) {
+            System.out.println(sqle.getMessage());
+        }
+    }
+
+    /**
+     * Displays a filtered assortment table with the assortment supplied by the loader.
+     *
+     * @param table the JTable to be updated with the filtered assortment data
+     * @param productName the name of the product to filter the assortment by
+     * @param loader the source of the available assortment
+     */
+    static public void showFilteredAssortmentTable(JTable table, String productName, AssortmentLoader loader) {
+        try {
+            table.setModel(filterTable(productName, loader.load()));
+        } catch (SQLException sqle) {
+            System.out.println(sqle.getMessage());
+        }
+    }
+
+    /**
+     * Shows the catalog from the local snapshot right away and reconciles it with the database in the background.
+     *
+     * The snapshot, if there is one, is read and shown in the table on the calling thread, so the
+     * catalog appears without waiting for the database. A background thread then reads the rows changed since
+     * the snapshot, rewrites the snapshot and shows the up-to-date assortment on the Swing event dispatch thread;
+     * the live table model only refreshes the rows that changed. Without a snapshot, the table is filled when
+     * the first sync completes. If the sync fails, the error message is printed to the console and the
+     * snapshot stays on screen.
+     *
+     * @param table the JTable to show the available assortment in
+     * @param snapshotFile the snapshot file, typically {@link #CATALOG_SNAPSHOT_FILE}
+     * @param dataSource the data source, typically a {@link database.PooledDataSource}, to borrow a connection from
+     * @return a future completed with the up-to-date assortment once the sync has finished
+     */
+    static public CompletableFuture<Assortment> showCatalogFromSnapshot(JTable table, Path snapshotFile, DataSource dataSource) {
+        CatalogSnapshot snapshot = CatalogSnapshot.readIfPresent(snapshotFile);
+        if (snapshot != null) {
+            showAssortment(table, snapshot.getAssortment());
+        }
+
+        CompletableFuture<Assortment> synced = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return CatalogSnapshot.reconcile(snapshotFile, snapshot, connection).getAssortment();
+            } catch (SQLException sqle) {
+                throw new CompletionException(sqle);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-sync");
+            thread.setDaemon(true);
+            thread.start();
+        });
+
+        synced.whenComplete((assortment, error) -> {
+            if (error != null) {
+                System.out.println(error.getCause() == null ? error.getMessage() : error.getCause().getMessage());
+            } else {
+                SwingUtilities.invokeLater(() -> showAssortment(table, assortment));
+            }
+        });
+        return synced;
+    }
+
+    /**
+     * Shows the available assortment in the table page by page.
+     *
+     * Unlike {@link #updateAvaibleAssortmentTable(JTable, DataSource)}, the catalog is never loaded as a whole:
+     * pages of rows are read with a keyset query while the user scrolls, and only a bounded number of pages
+     * is kept in memory. The previous paged model of the table, if any, is closed.
+     *
+     * @param table the JTable to show the available assortment in
+     * @param dataSource the data source, typically a {@link database.PooledDataSource}, to read the pages from
+     * @return the paged model set on the table
+     */
+    static public PagedAssortmentTableModel showPagedAssortmentTable(JTable table, DataSource dataSource) {
+        if (table.getModel() instanceof PagedAssortmentTableModel) {
+            ((PagedAssortmentTableModel) table.getModel()).close();
+        }
+
+        PagedAssortmentTableModel tableModel =
+                new PagedAssortmentTableModel(new AssortmentPager(dataSource, PAGE_SIZE), MAX_RESIDENT_PAGES, 1);
+        table.setModel(tableModel);
+        return tableModel;
+    }
+
+    /**
+     * Creates an asynchronous filter pipeline for the table.
+     *
+     * Unlike {@link #showFilteredAssortmentTable(JTable, String, Connection)}, the pipeline loads and filters
+     * the assortment on background threads, waits until the user stops typing, and drops queries that
+     * were superseded by newer input. It is meant to be fed from the search field on every keystroke
+     * and closed together with the window.
+     *
+     * Every load borrows its own connection from the data source, so a superseded query that is still
+     * being cancelled never shares a connection with the query that replaced it.
+     *
+     * @param table the JTable to be updated with the filtered assortment data
+     * @param dataSource the data source, typically a {@link database.PooledDataSource}, to read the assortment from
+     * @return a new filter pipeline for the table
+     */
+    static public AssortmentFilterPipeline createFilterPipeline(JTable table, DataSource dataSource) {
+        return createFilterPipeline(table, AssortmentLoader.fromDataSource(dataSource));
+    }
+
+    /**
+     * Creates an asynchronous filter pipeline for the table that takes the assortment from the loader.
+     *
+     * @param table the JTable to be updated with the filtered assortment data
+     * @param loader the source of the available assortment, typically a {@link database.CachedAssortmentLoader}
+     * @return a new filter pipeline for the table
+     */
+    static public AssortmentFilterPipeline createFilterPipeline(JTable table, AssortmentLoader loader) {
+        return new AssortmentFilterPipeline(table, loader, FILTER_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Shows the assortment in the table, reusing the table's live model when it has one.
+     *
+     * @param table the JTable to show the assortment in
+     * @param assortment the assortment to show
+     */
+    private static void showAssortment(JTable table, Assortment assortment) {
+        if (table.getModel() instanceof AssortmentTableModel) {
+            ((AssortmentTableModel) table.getModel()).setAssortment(assortment);
+        } else if (table.getRowSorter() instanceof AssortmentRowSorter) {
+            TableController.loadSortedLiveAssortment(table, assortment, 1);
+        } else {
+            table.setModel(loadLiveAssortment(assortment, 1));
+        }
+    }
 }
@@ -1,17 +1,51 @@
 package controller;
 
+import database.CachedAssortmentLoader;
+import database.ReceiptExporter;
+import database.ReceiptFileStore;
+import database.ReceiptJournal;
+import database.ReceiptSink;
+import database.TerminalIdLease;
+import metrics.Metrics;
 import model.Assortment;
-import model.Product;
+import model.Cart;
+import model.CartSessionStore;
+import model.Money;
+import model.OrderIdGenerator;
+import model.Receipt;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 public class OrderController {
+    private static final Path CHECKS_DIRECTORY = Path.of("checks");
+    private static final int RECEIPT_QUEUE_CAPACITY = 256;
+    private static final int RECEIPT_BATCH_SIZE = 64;
+
+    /**
+     * Holds the order number generator, so the terminal ID is only claimed when the first order number is needed.
+     */
+    private static class OrderNumbers {
+        // kept reachable, so the lock on the terminal ID is held until the application exits
+        private static final TerminalIdLease TERMINAL_ID_LEASE = claimTerminalId();
+        private static final OrderIdGenerator GENERATOR = new OrderIdGenerator(TERMINAL_ID_LEASE.getTerminalId());
+
+        private static TerminalIdLease claimTerminalId() {
+            Path directory = CHECKS_DIRECTORY.resolve("terminals");
+            String configured = System.getProperty("terminal.id");
+            try {
+                if (configured == null) return TerminalIdLease.claimFree(directory, OrderIdGenerator.MAX_NODE_ID);
+                return TerminalIdLease.claim(directory, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("terminal.id must be a number: " + configured);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Terminal ID could not be claimed", e);
+            }
+        }
+    }
+
     /**
      * Calculates the total price of the selected assortment.
      *
@@ -22,31 +56,62 @@ public class OrderController {
      * @return the formatted total price of the selected assortment
      */
     public static String getOrderPrice(Assortment selectedAssortment){
-        ArrayList<Product> productArrayList = new ArrayList<>(selectedAssortment.getAssortment().keySet());
+        return Money.format(getOrderPriceMinor(selectedAssortment));
+    }
+
+    /**
+     * Calculates the exact total price of the selected assortment in minor units.
+     *
+     * Every price is rounded to whole minor units before it is multiplied by the quantity, so the total
+     * is exact however large the order is. The products are read straight from the assortment's storage
+     * without allocating. The running total of a {@link Cart} is returned in constant time.
+     *
+     * @param selectedAssortment the assortment of selected products
+     * @return the total price in minor units
+     * @throws ArithmeticException if the total overflows
+     */
+    public static long getOrderPriceMinor(Assortment selectedAssortment) {
+        if (selectedAssortment instanceof Cart) return ((Cart) selectedAssortment).getTotalMinor();
 
-        double totalPrice = 0;
+        long totalMinor = 0;
 
-        for(Product product: productArrayList){
-            totalPrice += product.getPrice() * selectedAssortment.getAssortment().get(product);
+        for (int i = 0; i < selectedAssortment.size(); i++) {
+            long lineMinor = Math.multiplyExact(selectedAssortment.getProductAt(i).getPriceMinor(), selectedAssortment.getAmountAt(i));
+            totalMinor = Math.addExact(totalMinor, lineMinor);
         }
-        String formattedSummary = String.format("%.2f", totalPrice);
+        return totalMinor;
+    }
 
-        return formattedSummary;
+    /**
+     * Returns the formatted total price of the cart of a session.
+     *
+     * @param cartStore the store holding the cart
+     * @param sessionId the session ID of the cart
+     * @return the formatted total price of the cart
+     * @throws IllegalArgumentException if the store is null
+     * @throws java.util.NoSuchElementException if the session does not exist or has expired
+     */
+    public static String getOrderPrice(CartSessionStore cartStore, long sessionId) {
+        if (cartStore == null) throw new IllegalArgumentException("CartSessionStore cannot be null");
+
+        return Money.format(cartStore.getTotalMinor(sessionId));
     }
 
     /**
      * Generates a unique order number based on the current date and time.
      *
-     * This method retrieves the current date and time, formats it as a string in the pattern "yyyyMMddHHmmss",
-     * and returns the formatted string as the order number.
+     * The order number starts with the current date and time in the pattern "yyyyMMddHHmmssSSS",
+     * followed by the terminal ID and a sequence number, so checkouts in the same millisecond,
+     * on any thread or on another terminal, never get the same number. The terminal ID is taken
+     * from the "terminal.id" system property; without it, the lowest ID that no other terminal
+     * writing to the same checks directory is using is claimed. Either way the ID is locked in the
+     * checks directory for as long as the application runs, so two terminals can never share it.
      *
      * @return a unique order number based on the current date and time
+     * @throws IllegalStateException if the configured terminal ID is invalid or used by another terminal
      */
     public static String getOrderNumber() {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-
-        return formatter.format(now);
+        return OrderNumbers.GENERATOR.nextOrderNumber();
     }
 
     /**
@@ -54,64 +119,149 @@ public class OrderController {
      *
      * This method validates the order number and selected assortment, generates a file path based on the order number,
      * writes the order details to a file, and handles any IO exceptions that may occur.
+     * The file is written on the caller's thread; the UI should use
+     * {@link #createOrderCheckAsync(Assortment, String, ReceiptWriter)} instead.
      *
      * @param selectedAssortment the assortment of selected products
      * @param orderNumber the order number to use for the file name
      * @throws IllegalArgumentException if the selected assortment is null or the order number is invalid
      */
     public static void createOrderCheck(Assortment selectedAssortment, String orderNumber) {
-        validateOrderNumber(orderNumber);
-        if (selectedAssortment.isEmpty()) throw new IllegalArgumentException("Selected assortment is empty");
-        if (selectedAssortment == null) throw new IllegalArgumentException("Assortment cannot be null");
+        Receipt receipt = takeReceipt(selectedAssortment, orderNumber);
 
-        String numberOnly = orderNumber.replaceAll("[^0-9]", "");
-        if (numberOnly.isEmpty()) throw new IllegalArgumentException("Order number contains no digits");
-
-        String filePath = "checks/"+ numberOnly + ".txt";
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writeOrderDetails(selectedAssortment, writer, orderNumber);
+        long start = System.nanoTime();
+        try (ReceiptFileStore store = new ReceiptFileStore(CHECKS_DIRECTORY)) {
+            store.write(receipt);
+            Metrics.RECEIPTS_WRITTEN.increment();
+            System.out.println("Чек: " + orderNumber + " записано в файл");
         } catch (IOException e) {
+            Metrics.RECEIPTS_FAILED.increment();
             System.err.println("Error writing to file: " + e.getMessage());
+        } finally {
+            Metrics.RECEIPT_WRITE.recordSince(start);
         }
     }
 
     /**
-     * Validates the order number.
+     * Queues an order check for the selected assortment on a receipt writer.
      *
-     * This method checks if the order number is null or empty and throws an IllegalArgumentException if it is.
+     * The assortment is copied into a receipt on the caller's thread, so it can be cleared for the next
+     * order as soon as this method returns. Writing happens on the writer's thread.
      *
-     * @param orderNumber the order number to validate
-     * @throws IllegalArgumentException if the order number is null or empty
+     * @param selectedAssortment the assortment of selected products
+     * @param orderNumber the order number to use for the file name
+     * @param receiptWriter the writer to queue the receipt on
+     * @return a future completed with the receipt once it has been written
+     * @throws IllegalArgumentException if the selected assortment or writer is null or the order number is invalid
      */
-    private static void validateOrderNumber(String orderNumber) {
-        if (orderNumber == null || orderNumber.trim().isEmpty()) {
-            throw new IllegalArgumentException("Order number cannot be null or empty");
-        }
+    public static CompletableFuture<Receipt> createOrderCheckAsync(Assortment selectedAssortment, String orderNumber,
+                                                                   ReceiptWriter receiptWriter) {
+        if (receiptWriter == null) throw new IllegalArgumentException("Receipt writer cannot be null");
+        Receipt receipt = takeReceipt(selectedAssortment, orderNumber);
+
+        return receiptWriter.submit(receipt).whenComplete((written, error) -> {
+            if (error == null) {
+                System.out.println("Чек: " + orderNumber + " записано в файл");
+            } else {
+                System.err.println("Error writing to file: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Sells the cart of a session and queues its order check on a receipt writer.
+     *
+     * The reserved stock of the cart is committed and the session is closed before the check is queued,
+     * and caching assortment loaders are told to revalidate.
+     *
+     * @param cartStore the store holding the cart
+     * @param sessionId the session ID of the cart
+     * @param orderNumber the order number to use for the file name
+     * @param receiptWriter the writer to queue the receipt on
+     * @return a future completed with the receipt once it has been written
+     * @throws IllegalArgumentException if the store or writer is null, the cart is empty or the order number is invalid
+     * @throws java.util.NoSuchElementException if the session does not exist or has expired
+     */
+    public static CompletableFuture<Receipt> createOrderCheckAsync(CartSessionStore cartStore, long sessionId,
+                                                                   String orderNumber, ReceiptWriter receiptWriter) {
+        if (cartStore == null) throw new IllegalArgumentException("CartSessionStore cannot be null");
+        if (receiptWriter == null) throw new IllegalArgumentException("Receipt writer cannot be null");
+        validateOrderNumber(orderNumber);
+        if (orderNumber.replaceAll("[^0-9]", "").isEmpty()) throw new IllegalArgumentException("Order number contains no digits");
+
+        Cart sold = cartStore.checkout(sessionId);
+        CachedAssortmentLoader.localWriteCommitted();
+        return createOrderCheckAsync(sold, orderNumber, receiptWriter);
+    }
+
+    /**
+     * Creates a receipt writer that stores order checks in the given sink,
+     * for example the journal from {@link #openReceiptJournal()}.
+     *
+     * @param sink the sink to store the checks in
+     * @param fsyncPolicy when to force the checks to the disk
+     * @return a new receipt writer
+     */
+    public static ReceiptWriter createReceiptWriter(ReceiptSink sink, ReceiptWriter.FsyncPolicy fsyncPolicy) {
+        ReceiptWriter receiptWriter = new ReceiptWriter(sink, RECEIPT_QUEUE_CAPACITY, RECEIPT_BATCH_SIZE, fsyncPolicy);
+        Metrics.RECEIPT_QUEUE_DEPTH.bind(receiptWriter::getQueueDepth);
+        return receiptWriter;
     }
 
     /**
-     * Writes the order details to the provided BufferedWriter.
+     * Opens the receipt journal in the checks directory, recovering it after a crash if necessary.
      *
-     * This method writes the order number, product details, and total price of the selected assortment to the provided writer.
+     * @return the opened journal
+     * @throws IOException if the journal cannot be opened
+     */
+    public static ReceiptJournal openReceiptJournal() throws IOException {
+        return ReceiptJournal.open(CHECKS_DIRECTORY.resolve("journal"));
+    }
+
+    /**
+     * Returns the check text of an earlier order for reprinting.
+     *
+     * @param journal the journal holding the receipts
+     * @param orderNumber the order number of the check
+     * @return the check text, or null if the journal has no check with this order number
+     * @throws IllegalArgumentException if the journal is null or the order number is null or empty
+     */
+    public static String getOrderCheckText(ReceiptJournal journal, String orderNumber) {
+        if (journal == null) throw new IllegalArgumentException("Journal cannot be null");
+        validateOrderNumber(orderNumber);
+
+        return ReceiptExporter.renderText(journal, orderNumber);
+    }
+
+    /**
+     * Validates the order and takes a receipt of the selected assortment.
      *
      * @param selectedAssortment the assortment of selected products
-     * @param writer the BufferedWriter to write the order details to
-     * @param orderNumber the order number to include in the order details
-     * @throws IOException if an I/O error occurs
+     * @param orderNumber the order number
+     * @return the receipt of the order
+     * @throws IllegalArgumentException if the selected assortment is null or empty or the order number is invalid
      */
-    private static void writeOrderDetails(Assortment selectedAssortment, BufferedWriter writer, String orderNumber) throws IOException {
-        writer.write(orderNumber + "\n");
-        writer.newLine();
-
-        for (Map.Entry<Product, Integer> entry : selectedAssortment.getAssortment().entrySet()) {
-            Product product = entry.getKey();
-            Integer quantity = entry.getValue();
-            writer.write(product.getName() + "\n" + quantity + " x " + product.getPrice() + "\n----------------------\n");
-        }
+    private static Receipt takeReceipt(Assortment selectedAssortment, String orderNumber) {
+        validateOrderNumber(orderNumber);
+        if (selectedAssortment == null) throw new IllegalArgumentException("Assortment cannot be null");
+        if (selectedAssortment.isEmpty()) throw new IllegalArgumentException("Selected assortment is empty");
+        if (orderNumber.replaceAll("[^0-9]", "").isEmpty()) throw new IllegalArgumentException("Order number contains no digits");
 
-        String total = getOrderPrice(selectedAssortment);
-        writer.write("Всього: " + total + "\n");
-        System.out.println("Чек: " + orderNumber + " записано в файл");
+        return Receipt.of(orderNumber, selectedAssortment);
+    }
+
+    /**
+     * Validates the order number.
+     *
+     * This method checks if the order number is null or empty and throws an IllegalArgumentException if it is.
+     *
+     * @param orderNumber the order number to validate
+     * @throws IllegalArgumentException if the order number is null or empty
+     */
+    private static void validateOrderNumber(String orderNumber) {
+        if (orderNumber == null || orderNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Order number cannot be null or empty");
+        }
     }
 
 }
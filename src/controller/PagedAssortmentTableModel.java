@@ -0,0 +1,238 @@
+package controller;
+
+import database.AssortmentPage;
+import database.AssortmentPageSource;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A table model that loads the assortment page by page while the user scrolls.
+ *
+ * Only the row count is known up front. When the table asks for a row whose page is not resident,
+ * the model returns empty cells, loads the page on a background thread and repaints the page's rows
+ * once it arrives. At most {@code maxResidentPages} pages are kept; the least recently used page is
+ * dropped first. Memory use and the time until the first rows appear therefore do not depend on the
+ * size of the catalog. A page whose load is skipped because the user has already scrolled far away is
+ * repainted when a later load finishes and it is near the wanted page again, so the table asks for it
+ * once more if it is still visible. The model must be used on the Swing event dispatch thread.
+ */
+public class PagedAssortmentTableModel extends AbstractTableModel implements AutoCloseable {
+    private final AssortmentPageSource source;
+    private final int pageSize;
+    private final int maxResidentPages;
+    private final String[] columnNames;
+    private final ExecutorService pageLoader;
+    private final Map<Integer, AssortmentPage> residentPages;
+    private final Set<Integer> requestedPages;
+    private final Set<Integer> skippedPages;
+
+    private volatile int wantedPage;
+    private volatile long generation;
+    private int rowCount;
+
+    /**
+     * Constructs a paged table model and starts loading the row count and the first page.
+     *
+     * @param source the source of the pages
+     * @param maxResidentPages the maximum number of pages kept in memory
+     * @param type Selected type. 1 - for the table of available products 2 - for selected products.
+     * @throws IllegalArgumentException if the source is null, maxResidentPages is not positive or the type is unknown
+     */
+    public PagedAssortmentTableModel(AssortmentPageSource source, int maxResidentPages, int type) {
+        if (source == null) throw new IllegalArgumentException("Page source cannot be null");
+        if (maxResidentPages < 1) throw new IllegalArgumentException("At least one page must be resident");
+
+        this.source = source;
+        this.pageSize = source.getPageSize();
+        this.maxResidentPages = maxResidentPages;
+        this.columnNames = TableController.getColumnNames(type);
+        this.pageLoader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "assortment-page-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.residentPages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, AssortmentPage> eldest) {
+                return size() > PagedAssortmentTableModel.this.maxResidentPages;
+            }
+        };
+        this.requestedPages = new HashSet<>();
+        this.skippedPages = new HashSet<>();
+        reload();
+    }
+
+    /**
+     * Drops all resident pages and loads the row count and the first page again.
+     */
+    public void reload() {
+        long reloadGeneration = ++generation;
+        residentPages.clear();
+        requestedPages.clear();
+        skippedPages.clear();
+        requestedPages.add(0);
+        wantedPage = 0;
+
+        pageLoader.execute(() -> {
+            try {
+                source.reset();
+                int count = source.countRows();
+                AssortmentPage firstPage = source.loadPage(0);
+                SwingUtilities.invokeLater(() -> {
+                    if (reloadGeneration != generation) return;
+
+                    rowCount = count;
+                    requestedPages.remove(0);
+                    residentPages.put(0, firstPage);
+                    fireTableDataChanged();
+                });
+            } catch (SQLException sqle) {
+                System.out.println(sqle.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Returns the number of pages currently kept in memory.
+     *
+     * @return the number of resident pages
+     */
+    public int getResidentPageCount() {
+        return residentPages.size();
+    }
+
+    /**
+     * Stops the background page loader.
+     */
+    @Override
+    public void close() {
+        generation++;
+        pageLoader.shutdownNow();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case 0:
+            case 2:
+                return Integer.class;
+            case 3:
+                return Double.class;
+            default:
+                return String.class;
+        }
+    }
+
+    /**
+     * Returns the cell value, or null while the row's page is being loaded.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / pageSize;
+        AssortmentPage page = residentPages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+
+        int pageRow = row - pageIndex * pageSize;
+        if (pageRow >= page.size()) return null;
+
+        switch (column) {
+            case 0:
+                return page.getId(pageRow);
+            case 1:
+                return page.getName(pageRow);
+            case 2:
+                return page.getAmount(pageRow);
+            case 3:
+                return page.getPrice(pageRow);
+            default:
+                throw new IndexOutOfBoundsException("Column " + column + " out of bounds");
+        }
+    }
+
+    private void requestPage(int pageIndex) {
+        wantedPage = pageIndex;
+        if (!requestedPages.add(pageIndex)) return;
+
+        long requestGeneration = generation;
+        pageLoader.execute(() -> {
+            AssortmentPage page = null;
+            boolean skipped = !isNearWantedPage(pageIndex);
+            if (!skipped) {
+                try {
+                    page = source.loadPage(pageIndex);
+                } catch (SQLException sqle) {
+                    System.out.println(sqle.getMessage());
+                }
+            }
+
+            AssortmentPage loadedPage = page;
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration != generation) return;
+
+                requestedPages.remove(pageIndex);
+                if (skipped) skippedPages.add(pageIndex);
+                if (loadedPage != null) {
+                    residentPages.put(pageIndex, loadedPage);
+                    firePageUpdated(pageIndex);
+                }
+                retrySkippedPages();
+            });
+        });
+    }
+
+    /**
+     * Repaints the skipped pages that are near the wanted page again, so the table requests the visible ones.
+     * A failed load is not retried here, otherwise a broken connection would be queried in a loop.
+     */
+    private void retrySkippedPages() {
+        Iterator<Integer> pages = skippedPages.iterator();
+        while (pages.hasNext()) {
+            int pageIndex = pages.next();
+            if (!isNearWantedPage(pageIndex)) continue;
+
+            pages.remove();
+            if (!residentPages.containsKey(pageIndex)) {
+                firePageUpdated(pageIndex);
+            }
+        }
+    }
+
+    private boolean isNearWantedPage(int pageIndex) {
+        return Math.abs(pageIndex - wantedPage) < maxResidentPages;
+    }
+
+    private void firePageUpdated(int pageIndex) {
+        int firstRow = pageIndex * pageSize;
+        int lastRow = Math.min(firstRow + pageSize, rowCount) - 1;
+        if (firstRow <= lastRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+}
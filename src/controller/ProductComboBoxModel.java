@@ -0,0 +1,299 @@
+package controller;
+
+import model.Assortment;
+import model.IntIntHashMap;
+import model.Product;
+import model.ProductSearchIndex;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A combo box model listing the products of an {@link Assortment} sorted by name.
+ *
+ * The items are filled in bulk by {@link #reload(Assortment)}, which fires a single change event instead of
+ * one event per product. Names are normalized with {@link ProductSearchIndex#normalize(String)} and kept in a
+ * sorted array, so {@link #indexOfPrefix(String)} finds the first product starting with the typed text by
+ * binary search; {@link #createKeySelectionManager()} uses it for type-ahead. Each item is a
+ * {@link ProductItem} that carries the product ID and shows the product name, so a selection resolves straight
+ * to the product through {@link #getSelectedProductId()}. Names are ordered by code point, not by
+ * the rules of a language. The model must be used on the Swing event dispatch thread.
+ */
+public class ProductComboBoxModel extends AbstractListModel<Object> implements ComboBoxModel<Object> {
+    private static final int NOT_FOUND = -1;
+    private static final long TYPE_AHEAD_TIMEOUT_MILLIS = 1000;
+    private static final ProductItem[] NO_ITEMS = new ProductItem[0];
+    private static final String[] NO_NAMES = new String[0];
+
+    private ProductItem[] items;
+    private String[] normalizedNames;
+    private IntIntHashMap indexesById;
+    private ProductItem selectedItem;
+
+    /**
+     * An item of the model: the ID of a product together with the name shown in the combo box.
+     * Items are equal when their product IDs are equal.
+     */
+    public static final class ProductItem {
+        private final int productId;
+        private final String name;
+
+        ProductItem(int productId, String name) {
+            this.productId = productId;
+            this.name = name;
+        }
+
+        /**
+         * Returns the ID of the product.
+         *
+         * @return the product ID
+         */
+        public int getProductId() {
+            return productId;
+        }
+
+        /**
+         * Returns the name of the product.
+         *
+         * @return the product name
+         */
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ProductItem && ((ProductItem) o).productId == productId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(productId);
+        }
+    }
+
+    /**
+     * Constructs an empty model.
+     */
+    public ProductComboBoxModel() {
+        items = NO_ITEMS;
+        normalizedNames = NO_NAMES;
+        indexesById = new IntIntHashMap(0);
+    }
+
+    /**
+     * Constructs a model listing the products of the assortment.
+     *
+     * @param assortment the assortment to list
+     * @throws IllegalArgumentException if the assortment is null
+     */
+    public ProductComboBoxModel(Assortment assortment) {
+        this();
+        reload(assortment);
+    }
+
+    /**
+     * Replaces the items with the products of the assortment and fires one change event.
+     * The selected product stays selected if it is still in the assortment.
+     *
+     * @param assortment the assortment to list
+     * @throws IllegalArgumentException if the assortment is null
+     */
+    public void reload(Assortment assortment) {
+        if (assortment == null) throw new IllegalArgumentException("Assortment is null");
+
+        int size = assortment.size();
+        ProductItem[] unsortedItems = new ProductItem[size];
+        String[] unsortedNames = new String[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            Product product = assortment.getProductAt(i);
+            unsortedItems[i] = new ProductItem(product.getId(), product.getName());
+            unsortedNames[i] = ProductSearchIndex.normalize(product.getName());
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer, String>comparing(i -> unsortedNames[i])
+                .thenComparingInt(i -> unsortedItems[i].productId));
+
+        ProductItem[] sortedItems = new ProductItem[size];
+        String[] sortedNames = new String[size];
+        IntIntHashMap indexes = new IntIntHashMap(size);
+        for (int i = 0; i < size; i++) {
+            sortedItems[i] = unsortedItems[order[i]];
+            sortedNames[i] = unsortedNames[order[i]];
+            indexes.put(sortedItems[i].productId, i);
+        }
+
+        int changedRows = Math.max(items.length, size);
+        items = sortedItems;
+        normalizedNames = sortedNames;
+        indexesById = indexes;
+        if (selectedItem != null) {
+            int index = indexesById.get(selectedItem.productId, NOT_FOUND);
+            selectedItem = index == NOT_FOUND ? null : items[index];
+        }
+        if (changedRows > 0) {
+            fireContentsChanged(this, 0, changedRows - 1);
+        }
+    }
+
+    /**
+     * Returns the index of the first item whose name starts with the prefix, ignoring case.
+     *
+     * @param prefix the typed text
+     * @return the index of the first matching item, or -1 if no name starts with the prefix
+     * @throws IllegalArgumentException if the prefix is null
+     */
+    public int indexOfPrefix(String prefix) {
+        if (prefix == null) throw new IllegalArgumentException("Prefix cannot be null");
+
+        String normalizedPrefix = ProductSearchIndex.normalize(prefix);
+        int index = lowerBound(normalizedPrefix);
+        return index < normalizedNames.length && normalizedNames[index].startsWith(normalizedPrefix) ? index : NOT_FOUND;
+    }
+
+    /**
+     * Returns the index of the item of a product.
+     *
+     * @param productID the ID of the product
+     * @return the index of the item, or -1 if the product is not listed
+     */
+    public int indexOfProduct(int productID) {
+        return indexesById.get(productID, NOT_FOUND);
+    }
+
+    /**
+     * Returns the ID of the product of the item at the index.
+     *
+     * @param index the index of the item
+     * @return the product ID
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getProductIdAt(int index) {
+        return items[index].productId;
+    }
+
+    /**
+     * Returns the ID of the selected product.
+     *
+     * @return the product ID, or -1 if nothing is selected
+     */
+    public int getSelectedProductId() {
+        return selectedItem == null ? NOT_FOUND : selectedItem.productId;
+    }
+
+    /**
+     * Selects the item of a product.
+     *
+     * @param productID the ID of the product
+     * @return true if the product is listed and was selected, false otherwise
+     */
+    public boolean setSelectedProductId(int productID) {
+        int index = indexesById.get(productID, NOT_FOUND);
+        if (index == NOT_FOUND) return false;
+
+        setSelectedItem(items[index]);
+        return true;
+    }
+
+    /**
+     * Creates a key selection manager that selects the first product starting with the characters typed
+     * in quick succession, using {@link #indexOfPrefix(String)}.
+     *
+     * @return a new key selection manager for a combo box showing this model
+     */
+    public JComboBox.KeySelectionManager createKeySelectionManager() {
+        return new TypeAheadKeySelectionManager();
+    }
+
+    /**
+     * Selects an item. A {@link ProductItem} is matched by product ID and a string by the exact product name;
+     * anything else, or null, clears the selection.
+     *
+     * @param anItem the item to select
+     */
+    @Override
+    public void setSelectedItem(Object anItem) {
+        ProductItem item = null;
+        if (anItem instanceof ProductItem) {
+            int index = indexesById.get(((ProductItem) anItem).productId, NOT_FOUND);
+            if (index != NOT_FOUND) item = items[index];
+        } else if (anItem != null) {
+            int index = indexOfName(anItem.toString());
+            if (index != NOT_FOUND) item = items[index];
+        }
+
+        if (item != selectedItem) {
+            selectedItem = item;
+            fireContentsChanged(this, NOT_FOUND, NOT_FOUND);
+        }
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selectedItem;
+    }
+
+    @Override
+    public int getSize() {
+        return items.length;
+    }
+
+    @Override
+    public Object getElementAt(int index) {
+        return items[index];
+    }
+
+    private int indexOfName(String name) {
+        String normalizedName = ProductSearchIndex.normalize(name);
+        for (int i = lowerBound(normalizedName); i < items.length && normalizedNames[i].equals(normalizedName); i++) {
+            if (items[i].name.equals(name)) return i;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Returns the index of the first normalized name that is not less than the key.
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = normalizedNames.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (normalizedNames[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects the characters typed within the timeout into a prefix and selects the first matching product.
+     */
+    private class TypeAheadKeySelectionManager implements JComboBox.KeySelectionManager {
+        private final StringBuilder typedPrefix = new StringBuilder();
+        private long lastKeyTime;
+
+        @Override
+        public int selectionForKey(char aKey, ComboBoxModel<?> model) {
+            long now = System.currentTimeMillis();
+            if (now - lastKeyTime > TYPE_AHEAD_TIMEOUT_MILLIS) {
+                typedPrefix.setLength(0);
+            }
+            lastKeyTime = now;
+            typedPrefix.append(aKey);
+
+            int index = indexOfPrefix(typedPrefix.toString());
+            if (index == NOT_FOUND && typedPrefix.length() > 1) {
+                typedPrefix.setLength(0);
+                typedPrefix.append(aKey);
+                index = indexOfPrefix(typedPrefix.toString());
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package controller;
+
+import database.ReceiptSink;
+import metrics.Metrics;
+import model.Receipt;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes receipts to a {@link ReceiptSink} on a dedicated writer thread.
+ *
+ * Submitted receipts wait in a bounded queue. The writer takes all receipts that are waiting, up to the
+ * maximum batch size, writes them and flushes the sink once for the whole batch (group commit). With a sink
+ * that appends to a single log, such as {@link database.ReceiptJournal}, a burst of checkouts costs one disk
+ * sync instead of one per receipt. When the queue is full, {@link #submit(Receipt)}
+ * blocks the caller until the writer catches up, and {@link #trySubmit(Receipt, long, TimeUnit)} gives up after
+ * a timeout. The future returned for each receipt completes once the receipt is as durable as the
+ * {@link FsyncPolicy} requires, or completes exceptionally if it could not be written. Receipts are queued
+ * under a lock that {@link #close()} takes before the writer drains the queue for the last time, so a receipt
+ * is either written or rejected, never left with a future that does not complete.
+ */
+public class ReceiptWriter implements AutoCloseable {
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * When the writer forces written receipts to the storage device.
+     */
+    public enum FsyncPolicy {
+        /** Never force; receipts are complete once the operating system has them. */
+        NEVER,
+        /** Force once after every batch. */
+        EVERY_BATCH,
+        /** Force after every single receipt. */
+        EVERY_RECEIPT
+    }
+
+    private final ReceiptSink sink;
+    private final FsyncPolicy fsyncPolicy;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingReceipt> queue;
+    private final Thread writerThread;
+    private final ReadWriteLock closeLock;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a receipt writer and starts its writer thread.
+     *
+     * @param sink the sink to write receipts to
+     * @param queueCapacity the maximum number of receipts waiting to be written
+     * @param maxBatchSize the maximum number of receipts written per flush
+     * @param fsyncPolicy when to force receipts to the storage device
+     * @throws IllegalArgumentException if the sink or policy is null or a size is not positive
+     */
+    public ReceiptWriter(ReceiptSink sink, int queueCapacity, int maxBatchSize, FsyncPolicy fsyncPolicy) {
+        if (sink == null) throw new IllegalArgumentException("Receipt sink cannot be null");
+        if (fsyncPolicy == null) throw new IllegalArgumentException("Fsync policy cannot be null");
+        if (queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be positive");
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+
+        this.sink = sink;
+        this.fsyncPolicy = fsyncPolicy;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.closeLock = new ReentrantReadWriteLock();
+        this.writerThread = new Thread(this::writeLoop, "receipt-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a receipt for writing, waiting while the queue is full.
+     *
+     * @param receipt the receipt to write
+     * @return a future completed with the receipt once it has been written
+     * @throws IllegalArgumentException if the receipt is null
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Receipt> submit(Receipt receipt) {
+        if (receipt == null) throw new IllegalArgumentException("Receipt cannot be null");
+
+        PendingReceipt pending = new PendingReceipt(receipt);
+        closeLock.readLock().lock();
+        try {
+            if (closed) throw new IllegalStateException("Receipt writer is closed");
+
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Queues a receipt for writing, waiting at most the given time while the queue is full.
+     *
+     * @param receipt the receipt to write
+     * @param timeout how long to wait for space in the queue
+     * @param unit the unit of the timeout
+     * @return a future completed with the receipt once it has been written, or completed with a
+     *         {@link RejectedExecutionException} if the queue stayed full
+     * @throws IllegalArgumentException if the receipt is null
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Receipt> trySubmit(Receipt receipt, long timeout, TimeUnit unit) {
+        if (receipt == null) throw new IllegalArgumentException("Receipt cannot be null");
+
+        PendingReceipt pending = new PendingReceipt(receipt);
+        closeLock.readLock().lock();
+        try {
+            if (closed) throw new IllegalStateException("Receipt writer is closed");
+
+            if (!queue.offer(pending, timeout, unit)) {
+                pending.future.completeExceptionally(new RejectedExecutionException("Receipt queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Returns the number of receipts waiting to be written.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting receipts, writes the receipts already queued and closes the sink.
+     * Callers blocked in {@link #submit(Receipt)} on a full queue are queued and written before the writer stops.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        PendingReceipt late;
+        while ((late = queue.poll()) != null) {
+            late.future.completeExceptionally(new RejectedExecutionException("Receipt writer is closed"));
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            System.out.println("Error closing receipt sink: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingReceipt> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingReceipt first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                if (closed) return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of receipts, flushes the sink according to the policy and completes the futures.
+     */
+    private void writeBatch(List<PendingReceipt> batch) {
+        long start = System.nanoTime();
+        try {
+            writeAndFlush(batch);
+        } finally {
+            Metrics.RECEIPT_BATCH.recordSince(start);
+        }
+    }
+
+    private void writeAndFlush(List<PendingReceipt> batch) {
+        List<PendingReceipt> written = new ArrayList<>(batch.size());
+        for (PendingReceipt pending : batch) {
+            try {
+                sink.write(pending.receipt);
+                if (fsyncPolicy == FsyncPolicy.EVERY_RECEIPT) {
+                    sink.flush(true);
+                    Metrics.RECEIPTS_WRITTEN.increment();
+                    pending.future.complete(pending.receipt);
+                } else {
+                    written.add(pending);
+                }
+            } catch (IOException | RuntimeException e) {
+                Metrics.RECEIPTS_FAILED.increment();
+                pending.future.completeExceptionally(e);
+            }
+        }
+        if (written.isEmpty()) return;
+
+        try {
+            sink.flush(fsyncPolicy == FsyncPolicy.EVERY_BATCH);
+            Metrics.RECEIPTS_WRITTEN.add(written.size());
+            for (PendingReceipt pending : written) {
+                pending.future.complete(pending.receipt);
+            }
+        } catch (IOException | RuntimeException e) {
+            Metrics.RECEIPTS_FAILED.add(written.size());
+            for (PendingReceipt pending : written) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * A queued receipt with the future of its caller.
+     */
+    private static class PendingReceipt {
+        private final Receipt receipt;
+        private final CompletableFuture<Receipt> future;
+
+        PendingReceipt(Receipt receipt) {
+            this.receipt = receipt;
+            this.future = new CompletableFuture<>();
+        }
+    }
+}
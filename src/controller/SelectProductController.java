@@ -1,11 +1,14 @@
 package controller;
 
+import metrics.Metrics;
 import model.Assortment;
+import model.CartSessionStore;
 import model.Product;
+import model.StockEngine;
 
 import javax.swing.*;
-import java.util.ArrayList;
-import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 
 public class SelectProductController {
@@ -13,9 +16,9 @@ public class SelectProductController {
     /**
      * Fills the provided combo box with the names of products from the given assortment.
      *
-     * This method retrieves the list of products from the provided assortment and populates
-     * the combo box with the names of these products. It throws an exception if the assortment
-     * or combo box is null.
+     * The combo box gets a {@link ProductComboBoxModel} filled in bulk, with the names sorted and a type-ahead
+     * prefix lookup; if it already has one, the model is reloaded. Either way only one change event is fired,
+     * however many products there are. It throws an exception if the assortment or combo box is null.
      *
      * @param comboBox the combo box to be filled with product names
      * @param allAssortment the assortment containing the products
@@ -25,11 +28,14 @@ public class SelectProductController {
         if (allAssortment == null) throw new IllegalArgumentException("Assortment is null");
         if (comboBox == null) throw new IllegalArgumentException("ComboBox is null");
 
-        ArrayList<Product> productList = new ArrayList<>(allAssortment.getAssortment().keySet());
-
-        for (Product product : productList) {
-            comboBox.addItem(product.getName());
+        if (comboBox.getModel() instanceof ProductComboBoxModel) {
+            ((ProductComboBoxModel) comboBox.getModel()).reload(allAssortment);
+            return;
         }
+
+        ProductComboBoxModel model = new ProductComboBoxModel(allAssortment);
+        comboBox.setModel(model);
+        comboBox.setKeySelectionManager(model.createKeySelectionManager());
     }
 
     /**
@@ -37,7 +43,8 @@ public class SelectProductController {
      *
      * This method validates the input parameters, retrieves the selected product from the combo box, and
      * updates the selected assortment with the specified amount of the product. If the amount exceeds the
-     * available quantity, an exception is thrown.
+     * available quantity, an exception is thrown. When the selected assortment is a {@link model.Cart},
+     * its totals are updated with the new amount.
      *
      * @param comboBox the combo box containing the product names
      * @param amount the amount of the product to add to the selected assortment
@@ -53,27 +60,93 @@ public class SelectProductController {
         }
         if (amount < 1) throw new IllegalArgumentException("Некоректна кіл-сть");
 
-        String selectedProductName = comboBox.getSelectedItem().toString();
-        Map<Product, Integer> allProducts = allAssortment.getAssortment();
-        Map<Product, Integer> selectedProducts = selectedAssortment.getAssortment();
-
-        for (Map.Entry<Product, Integer> entry : allProducts.entrySet()) {
-            Product product = entry.getKey();
-            int availableAmount = entry.getValue();
-
-            if (product.getName().equals(selectedProductName)) {
-                if (availableAmount < amount) {
-                    throw new IllegalArgumentException("Кількість товару у доступі: " + availableAmount);
-                }
-
-                int currentSelectedAmount = selectedProducts.getOrDefault(product, 0) + amount;
-                if (availableAmount < currentSelectedAmount) {
-                    throw new IllegalArgumentException("Загальна кількість товару у кошику більше доступної (" + availableAmount + ")");
-                }
-                selectedProducts.put(product, currentSelectedAmount);
-                return selectedAssortment;
-            }
+        Product product = selectedProduct(comboBox, allAssortment::getProductById, allAssortment::getProductByName);
+        if (product == null) throw new IllegalArgumentException("Ви не обрали товар");
+
+        int availableAmount = allAssortment.getAmount(product.getId());
+        if (availableAmount < amount) {
+            throw new IllegalArgumentException("Кількість товару у доступі: " + availableAmount);
+        }
+
+        int currentSelectedAmount = selectedAssortment.getAmount(product.getId()) + amount;
+        if (availableAmount < currentSelectedAmount) {
+            throw new IllegalArgumentException("Загальна кількість товару у кошику більше доступної (" + availableAmount + ")");
+        }
+        selectedAssortment.setAmount(product, currentSelectedAmount);
+        Metrics.CART_SIZE.set(selectedAssortment.size());
+        return selectedAssortment;
+    }
+
+    /**
+     * Reserves the specified amount of the selected product in the stock engine and adds it to the selected assortment.
+     *
+     * Unlike {@link #fillAssortmentWithSelectedProduct(JComboBox, int, Assortment, Assortment)}, the availability
+     * check and the reservation are one atomic operation, so several tills sharing the same stock engine
+     * cannot sell more than is available. The reservation must later be committed or released through the engine.
+     *
+     * @param comboBox the combo box containing the product names
+     * @param amount the amount of the product to add to the selected assortment
+     * @param stockEngine the shared stock of all available products
+     * @param selectedAssortment the assortment to be updated with the selected product
+     * @return the updated selected assortment
+     * @throws IllegalArgumentException if any input is invalid or the amount exceeds the available quantity
+     */
+    public static Assortment fillAssortmentWithSelectedProduct(JComboBox<Object> comboBox, int amount,
+                                                               StockEngine stockEngine, Assortment selectedAssortment) {
+        if (comboBox == null || stockEngine == null || selectedAssortment == null || comboBox.getSelectedItem() == null) {
+            throw new IllegalArgumentException("Invalid input");
+        }
+        if (amount < 1) throw new IllegalArgumentException("Некоректна кіл-сть");
+
+        Product product = selectedProduct(comboBox, stockEngine::getProductById, stockEngine::getProductByName);
+        if (product == null) throw new IllegalArgumentException("Ви не обрали товар");
+
+        if (!stockEngine.reserve(product.getId(), amount)) {
+            throw new IllegalArgumentException("Кількість товару у доступі: " + stockEngine.getAvailable(product.getId()));
+        }
+        selectedAssortment.addProduct(product, amount);
+        Metrics.CART_SIZE.set(selectedAssortment.size());
+        return selectedAssortment;
+    }
+
+    /**
+     * Reserves the specified amount of the selected product and adds it to the cart of a session.
+     *
+     * Works like {@link #fillAssortmentWithSelectedProduct(JComboBox, int, StockEngine, Assortment)}, but the cart
+     * is kept in the session store instead of an assortment owned by the caller. Adding to a cart keeps
+     * its session from expiring.
+     *
+     * @param comboBox the combo box containing the product names
+     * @param amount the amount of the product to add to the cart
+     * @param cartStore the store holding the cart
+     * @param sessionId the session ID of the cart
+     * @throws IllegalArgumentException if any input is invalid or the amount exceeds the available quantity
+     * @throws java.util.NoSuchElementException if the session does not exist or has expired
+     */
+    public static void fillAssortmentWithSelectedProduct(JComboBox<Object> comboBox, int amount,
+                                                         CartSessionStore cartStore, long sessionId) {
+        if (comboBox == null || cartStore == null || comboBox.getSelectedItem() == null) {
+            throw new IllegalArgumentException("Invalid input");
+        }
+        if (amount < 1) throw new IllegalArgumentException("Некоректна кіл-сть");
+
+        StockEngine stockEngine = cartStore.getStockEngine();
+        Product product = selectedProduct(comboBox, stockEngine::getProductById, stockEngine::getProductByName);
+        if (product == null) throw new IllegalArgumentException("Ви не обрали товар");
+
+        cartStore.add(sessionId, product.getId(), amount);
+    }
+
+    /**
+     * Resolves the selected item of the combo box to a product: by ID when the combo box shows a
+     * {@link ProductComboBoxModel}, otherwise by the name shown.
+     */
+    private static Product selectedProduct(JComboBox<Object> comboBox, IntFunction<Product> byId,
+                                           Function<String, Product> byName) {
+        if (comboBox.getModel() instanceof ProductComboBoxModel) {
+            int productID = ((ProductComboBoxModel) comboBox.getModel()).getSelectedProductId();
+            return productID == -1 ? null : byId.apply(productID);
         }
-        throw new IllegalArgumentException("Ви не обрали товар");
+        return byName.apply(comboBox.getSelectedItem().toString());
     }
 }
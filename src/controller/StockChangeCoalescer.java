@@ -0,0 +1,165 @@
+package controller;
+
+import model.Assortment;
+import model.StockChangeEvent;
+import model.StockChangeListener;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects the stock changes of an {@link Assortment} and hands them to the Swing event dispatch thread in batches,
+ * at most once per interval.
+ *
+ * Changes of the same product are merged while they wait, so a burst of sales of one product reaches the UI as
+ * a single event from its first old amount to its last new amount, and a product added and removed again in the
+ * same batch is not reported at all. Only one batch is queued on the event dispatch thread at a time, so a slow
+ * UI receives larger batches instead of a growing queue.
+ */
+public class StockChangeCoalescer implements StockChangeListener, AutoCloseable {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-change-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Assortment assortment;
+    private final long minIntervalNanos;
+    private final Consumer<List<StockChangeEvent>> consumer;
+    private final Map<Integer, StockChangeEvent> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean closed;
+    private long lastDeliveryNanos;
+    private long deliveredBatches;
+
+    /**
+     * Constructs a coalescer and registers it on the assortment.
+     *
+     * @param assortment the assortment to follow
+     * @param minInterval the shortest time between two batches
+     * @param consumer receives each batch on the event dispatch thread
+     * @throws IllegalArgumentException if any argument is null or the interval is negative
+     */
+    public StockChangeCoalescer(Assortment assortment, Duration minInterval, Consumer<List<StockChangeEvent>> consumer) {
+        if (assortment == null) throw new IllegalArgumentException("Assortment cannot be null");
+        if (minInterval == null || minInterval.isNegative()) throw new IllegalArgumentException("Invalid interval");
+        if (consumer == null) throw new IllegalArgumentException("Consumer cannot be null");
+
+        this.assortment = assortment;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.consumer = consumer;
+        this.lastDeliveryNanos = System.nanoTime() - minIntervalNanos;
+        assortment.addStockChangeListener(this);
+    }
+
+    @Override
+    public void stockChanged(StockChangeEvent event) {
+        synchronized (this) {
+            if (closed) return;
+
+            StockChangeEvent merged = merge(pending.remove(event.getProductId()), event);
+            if (merged != null) {
+                pending.put(event.getProductId(), merged);
+            }
+            if (scheduled || pending.isEmpty()) return;
+            scheduled = true;
+        }
+        scheduleDelivery();
+    }
+
+    /**
+     * Returns the number of batches handed to the consumer so far.
+     *
+     * @return the number of delivered batches
+     */
+    public synchronized long getDeliveredBatches() {
+        return deliveredBatches;
+    }
+
+    /**
+     * Stops following the assortment. Changes that were not delivered yet are dropped.
+     */
+    @Override
+    public void close() {
+        assortment.removeStockChangeListener(this);
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+        }
+    }
+
+    /**
+     * Merges a waiting change of a product with a newer one.
+     *
+     * @return the merged change, or null if the product neither existed before the first change nor after the last
+     */
+    private StockChangeEvent merge(StockChangeEvent first, StockChangeEvent last) {
+        if (first == null) return last;
+
+        boolean existedBefore = first.getType() != StockChangeEvent.Type.ADDED;
+        boolean existsAfter = last.getType() != StockChangeEvent.Type.REMOVED;
+        StockChangeEvent.Type type;
+        if (existedBefore && existsAfter) {
+            type = StockChangeEvent.Type.CHANGED;
+        } else if (existedBefore) {
+            type = StockChangeEvent.Type.REMOVED;
+        } else if (existsAfter) {
+            type = StockChangeEvent.Type.ADDED;
+        } else {
+            return null;
+        }
+        return last.withStart(type, first.getOldAmount());
+    }
+
+    /**
+     * Schedules the next batch no earlier than one interval after the previous one.
+     */
+    private void scheduleDelivery() {
+        long delay;
+        synchronized (this) {
+            delay = Math.max(0, lastDeliveryNanos + minIntervalNanos - System.nanoTime());
+        }
+        SCHEDULER.schedule(() -> SwingUtilities.invokeLater(this::deliver), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes the waiting changes on the event dispatch thread, so changes made after the batch was scheduled
+     * are still included, and hands them to the consumer.
+     */
+    private void deliver() {
+        List<StockChangeEvent> batch;
+        synchronized (this) {
+            if (closed) return;
+
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            lastDeliveryNanos = System.nanoTime();
+            deliveredBatches++;
+        }
+
+        try {
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Помилка оновлення залишків: " + e.getMessage());
+        } finally {
+            boolean more;
+            synchronized (this) {
+                more = !closed && !pending.isEmpty();
+                scheduled = more;
+            }
+            if (more) {
+                scheduleDelivery();
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package controller;
 
+import metrics.Metrics;
 import model.Assortment;
+import model.CartSessionStore;
 import model.Product;
+import model.StockEngine;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
-import java.util.List;
+import java.time.Duration;
 
 public class TableController{
     private static final String[] COLUMN_NAMES = {"ID", "Назва", "Кількість в наявності", "Ціна"};
@@ -19,13 +22,24 @@ public class TableController{
      */
     private static DefaultTableModel createTableModel(int type) {
         DefaultTableModel tableModel = new DefaultTableModel();
+        tableModel.setColumnIdentifiers(getColumnNames(type));
+
+        return tableModel;
+    }
+
+    /**
+     * Returns the column names used for the given table type.
+     *
+     * @param type Selected type. 1 - for the table of available products 2 - for selected products.
+     * @return the column names of the table type
+     * @throws IllegalArgumentException if the type is unknown
+     */
+    static String[] getColumnNames(int type) {
         if(type == 1) {
-            tableModel.setColumnIdentifiers(COLUMN_NAMES);
+            return COLUMN_NAMES;
         } else if(type == 2) {
-            tableModel.setColumnIdentifiers(ORDER_COLUMN_NAMES);
+            return ORDER_COLUMN_NAMES;
         } else throw new IllegalArgumentException();
-
-        return tableModel;
     }
 
 
@@ -61,16 +75,88 @@ public class TableController{
             throw new IllegalArgumentException("Assortment must not be null.");
         }
 
+        long start = System.nanoTime();
         DefaultTableModel tableModel = createTableModel(type);
-        assortment.getAssortment().forEach((product, amount) -> addRowToTableModel(tableModel, product, amount));
+        assortment.forEachProduct((product, amount) -> addRowToTableModel(tableModel, product, amount));
+        Metrics.TABLE_MODEL_BUILD.recordSince(start);
 
         return tableModel;
 
     }
 
+    /**
+     * Creates a live table model that reads products directly from the given assortment.
+     * Unlike {@link #loadAssortment(Assortment, int)}, no rows are copied; later changes to the assortment
+     * are shown by calling {@link AssortmentTableModel#productChanged(int)} or {@link AssortmentTableModel#refresh()},
+     * which only repaint the rows that changed.
+     *
+     * @param assortment The assortment to be shown.
+     * @param type Selected type. 1 - for the table of available products 2 - for selected products.
+     * @return An AssortmentTableModel backed by the assortment.
+     * @throws IllegalArgumentException if the provided assortment is null.
+     */
+    public static AssortmentTableModel loadLiveAssortment(Assortment assortment, int type) {
+        long start = System.nanoTime();
+        AssortmentTableModel tableModel = new AssortmentTableModel(assortment, type);
+        Metrics.TABLE_MODEL_BUILD.recordSince(start);
+
+        return tableModel;
+    }
+
+    /**
+     * Shows the assortment in the table through a live model sorted by {@link AssortmentRowSorter}.
+     *
+     * Unlike the default {@link javax.swing.table.TableRowSorter}, the sorter compares the model's primitive
+     * values instead of boxed cells and keeps its sorted order up to date on stock changes without sorting
+     * again. If the table is already sorted by an {@link AssortmentRowSorter}, its sort keys are kept.
+     * As with any row sorter, the sorter must be removed or replaced when another model is set on the table.
+     *
+     * @param table the JTable to show the assortment in
+     * @param assortment The assortment to be shown.
+     * @param type Selected type. 1 - for the table of available products 2 - for selected products.
+     * @return the live model set on the table
+     * @throws IllegalArgumentException if the table or assortment is null
+     */
+    public static AssortmentTableModel loadSortedLiveAssortment(JTable table, Assortment assortment, int type) {
+        if (table == null) throw new IllegalArgumentException("Table cannot be null");
+
+        AssortmentTableModel tableModel = loadLiveAssortment(assortment, type);
+        RowSorter<?> previousSorter = table.getRowSorter();
+        AssortmentRowSorter sorter = new AssortmentRowSorter(tableModel);
+        if (previousSorter instanceof AssortmentRowSorter) {
+            sorter.setSortKeys(previousSorter.getSortKeys());
+        }
+
+        table.setAutoCreateRowSorter(false);
+        table.setModel(tableModel);
+        table.setRowSorter(sorter);
+        return tableModel;
+    }
+
+    /**
+     * Keeps a live table model up to date with the changes of its assortment, for example stock sold by other
+     * tills. The changes are merged and applied on the event dispatch thread at most once per interval,
+     * so a burst of changes repaints the table once instead of once per change.
+     *
+     * The returned coalescer must be closed when the table stops showing the assortment,
+     * or when {@link AssortmentTableModel#setAssortment(Assortment)} replaces it.
+     *
+     * @param tableModel the live model to update
+     * @param minInterval the shortest time between two updates of the table
+     * @return the coalescer following the assortment
+     * @throws IllegalArgumentException if the model is null or the interval is null or negative
+     */
+    public static StockChangeCoalescer followStockChanges(AssortmentTableModel tableModel, Duration minInterval) {
+        if (tableModel == null) throw new IllegalArgumentException("Table model cannot be null");
+
+        return new StockChangeCoalescer(tableModel.getAssortment(), minInterval, tableModel::applyStockChanges);
+    }
+
     /**
      * Filters and loads products into a table model based on a search text.
      * Only products whose names contain the specified search text (case-insensitive) are included.
+     * The products are looked up in the assortment's {@link model.ProductSearchIndex}, so only candidate
+     * products sharing the search text's n-grams are checked.
      *
      * @param searchText The text used to filter product names.
      * @param assortment The assortment from which to filter products.
@@ -82,24 +168,27 @@ public class TableController{
             throw new IllegalArgumentException("Assortment must not be null.");
         }
 
+        long start = System.nanoTime();
         DefaultTableModel tableModel = createTableModel(1);
-        List<Product> filteredProducts = assortment.getAssortment().keySet().stream()
-                .filter(product -> product.getName().toLowerCase().contains(searchText.toLowerCase()))
-                .toList();
-
-        filteredProducts.forEach(product -> addRowToTableModel(tableModel, product, assortment.getAssortment().get(product)));
+        for (int productID : assortment.getSearchIndex().search(searchText)) {
+            addRowToTableModel(tableModel, assortment.getProductById(productID), assortment.getAmount(productID));
+        }
+        Metrics.TABLE_MODEL_BUILD.recordSince(start);
 
         return tableModel;
     }
 
     /**
      * Deletes the selected row from the JTable and removes the corresponding product from the selected assortment.
+     * When the table shows an {@link AssortmentTableModel}, only the assortment is changed and the model
+     * removes the row itself.
      *
      * This method first checks that the provided JTable and selected assortment are not null.
      * It then retrieves the index of the selected row in the table and removes the product
      * corresponding to the value in the first column of that row from the selected assortment.
      * If the product ID in the first column is not a valid integer, a NumberFormatException is caught
      * and printed. Finally, the selected row is removed from the table model.
+     * When the selected assortment is a {@link model.Cart}, the removed line is subtracted from its totals.
      *
      * @param table the JTable from which to delete the selected row
      * @param selectedAssortment the assortment from which to remove the selected product
@@ -109,10 +198,19 @@ public class TableController{
         if (table == null) throw new IllegalArgumentException("Table cannot be null");
         if (selectedAssortment == null) throw new IllegalArgumentException("SelectedAssortment cannot be null");
 
-        DefaultTableModel model = (DefaultTableModel) table.getModel();
-
         int selectedRowIndex = table.getSelectedRow();
 
+        if (selectedRowIndex != -1 && table.getModel() instanceof AssortmentTableModel) {
+            AssortmentTableModel liveModel = (AssortmentTableModel) table.getModel();
+            int productID = liveModel.getProductIdAt(table.convertRowIndexToModel(selectedRowIndex));
+            selectedAssortment.removeProductByProductID(productID);
+            liveModel.productChanged(productID);
+            Metrics.CART_SIZE.set(selectedAssortment.size());
+            return;
+        }
+
+        DefaultTableModel model = (DefaultTableModel) table.getModel();
+
         if (selectedRowIndex != -1) {
             try {
                selectedAssortment.removeProductByProductID(Integer.parseInt(table.
@@ -121,6 +219,71 @@ public class TableController{
               System.out.println(e);
             }
             model.removeRow(selectedRowIndex);
+            Metrics.CART_SIZE.set(selectedAssortment.size());
+        }
+    }
+
+    /**
+     * Deletes the selected row from the JTable, removes the corresponding product from the selected assortment
+     * and releases its reserved amount back to the stock engine.
+     *
+     * @param table the JTable from which to delete the selected row
+     * @param selectedAssortment the assortment from which to remove the selected product
+     * @param stockEngine the stock engine holding the reservation of the selected product
+     * @throws IllegalArgumentException if any of the arguments is null
+     */
+    public static void deleteSelectedRow(JTable table, Assortment selectedAssortment, StockEngine stockEngine) {
+        if (table == null) throw new IllegalArgumentException("Table cannot be null");
+        if (selectedAssortment == null) throw new IllegalArgumentException("SelectedAssortment cannot be null");
+        if (stockEngine == null) throw new IllegalArgumentException("StockEngine cannot be null");
+
+        int selectedRowIndex = table.getSelectedRow();
+        if (selectedRowIndex == -1) return;
+
+        try {
+            int productID = Integer.parseInt(table.getValueAt(selectedRowIndex, 0).toString());
+            int reservedAmount = selectedAssortment.getAmount(productID);
+            if (reservedAmount > 0) {
+                stockEngine.release(productID, reservedAmount);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println(e);
+        }
+        deleteSelectedRow(table, selectedAssortment);
+    }
+
+    /**
+     * Deletes the selected row from the JTable and removes the corresponding product from the cart of a session,
+     * releasing its reserved amount.
+     * When the table shows an {@link AssortmentTableModel}, the model is given a fresh copy of the cart
+     * and removes the row itself. If the product ID of the row cannot be read, the row is kept.
+     *
+     * @param table the JTable from which to delete the selected row
+     * @param cartStore the store holding the cart
+     * @param sessionId the session ID of the cart
+     * @throws IllegalArgumentException if the table or store is null
+     * @throws java.util.NoSuchElementException if the session does not exist or has expired
+     */
+    public static void deleteSelectedRow(JTable table, CartSessionStore cartStore, long sessionId) {
+        if (table == null) throw new IllegalArgumentException("Table cannot be null");
+        if (cartStore == null) throw new IllegalArgumentException("CartSessionStore cannot be null");
+
+        int selectedRowIndex = table.getSelectedRow();
+        if (selectedRowIndex == -1) return;
+
+        if (table.getModel() instanceof AssortmentTableModel) {
+            AssortmentTableModel liveModel = (AssortmentTableModel) table.getModel();
+            cartStore.remove(sessionId, liveModel.getProductIdAt(table.convertRowIndexToModel(selectedRowIndex)));
+            liveModel.setAssortment(cartStore.toCart(sessionId));
+            return;
+        }
+
+        try {
+            cartStore.remove(sessionId, Integer.parseInt(table.getValueAt(selectedRowIndex, 0).toString()));
+        } catch (NumberFormatException e) {
+            System.out.println(e);
+            return;
         }
+        ((DefaultTableModel) table.getModel()).removeRow(table.convertRowIndexToModel(selectedRowIndex));
     }
 }
@@ -0,0 +1,98 @@
+package database;
+
+import model.Assortment;
+import model.Product;
+import model.ProductRegistry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Keeps an {@link Assortment} in step with the assortment table by reading only the rows that changed.
+ *
+ * The sync remembers the highest row version it has applied. Each {@link #sync(Connection)} reads the rows
+ * with a newer version and applies them in place: new products are added, changed amounts, prices and
+ * names are updated, and deleted rows are removed. Products are interned in the {@link ProductRegistry},
+ * so a repriced product is updated wherever it is used; a renamed product is replaced by its new canonical
+ * instance through {@link Assortment#replaceProduct(Product)}, which keeps the name index current. A sync must not run concurrently with other
+ * changes of the same assortment.
+ */
+public class AssortmentDeltaSync {
+    private final Assortment assortment;
+    private final ProductRegistry registry;
+    private long watermark;
+
+    /**
+     * Constructs a sync that starts from an empty assortment, so the first sync reads every row.
+     *
+     * @param assortment the assortment to keep up to date
+     */
+    public AssortmentDeltaSync(Assortment assortment) {
+        this(assortment, ProductRegistry.getDefault(), 0);
+    }
+
+    /**
+     * Constructs a sync for an assortment that already contains every row up to the given version.
+     *
+     * @param assortment the assortment to keep up to date
+     * @param registry the registry used to intern products
+     * @param watermark the highest row version already contained in the assortment
+     * @throws IllegalArgumentException if the assortment or registry is null
+     */
+    public AssortmentDeltaSync(Assortment assortment, ProductRegistry registry, long watermark) {
+        if (assortment == null) throw new IllegalArgumentException("Assortment is null");
+        if (registry == null) throw new IllegalArgumentException("Registry is null");
+
+        this.assortment = assortment;
+        this.registry = registry;
+        this.watermark = watermark;
+    }
+
+    /**
+     * Applies every row changed since the last sync to the assortment.
+     *
+     * @param connection the database connection
+     * @return the number of changed rows applied
+     * @throws SQLException if the changes cannot be read; the assortment may then be partially updated,
+     *                      but the watermark is unchanged, so the next sync applies the rows again
+     */
+    public int sync(Connection connection) throws SQLException {
+        int[] applied = new int[1];
+        watermark = AssortmentQueries.readChangesSince(connection, watermark, (id, name, amount, price, deleted) -> {
+            apply(id, name, amount, price, deleted);
+            applied[0]++;
+        });
+        return applied[0];
+    }
+
+    /**
+     * Returns the highest row version applied to the assortment.
+     *
+     * @return the watermark of the last sync
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Returns the assortment kept up to date by this sync.
+     *
+     * @return the assortment
+     */
+    public Assortment getAssortment() {
+        return assortment;
+    }
+
+    private void apply(int id, String name, int amount, double price, boolean deleted) {
+        if (deleted) {
+            assortment.removeProduct(id);
+            return;
+        }
+
+        Product product = registry.intern(id, name, price);
+        if (assortment.containsProduct(id) && assortment.getProductById(id) != product) {
+            assortment.replaceProduct(product);
+        }
+        assortment.setAmount(product, amount);
+    }
+}
@@ -0,0 +1,94 @@
+package database;
+
+import metrics.Metrics;
+import model.Assortment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Supplies the current assortment, for example by loading it from the database.
+ */
+@FunctionalInterface
+public interface AssortmentLoader {
+    /**
+     * Loads the current assortment.
+     *
+     * @return the loaded assortment
+     * @throws SQLException if the assortment cannot be read from the database
+     */
+    Assortment load() throws SQLException;
+
+    /**
+     * Loads the current assortment and stops as soon as the load is cancelled. Loaders that read
+     * from the database override it to cancel the running query; by default the load only checks
+     * the cancellation before it starts.
+     *
+     * @param cancellation the cancellation of the load
+     * @return the loaded assortment
+     * @throws SQLException if the assortment cannot be read from the database or the load is cancelled
+     */
+    default Assortment load(QueryCancellation cancellation) throws SQLException {
+        cancellation.throwIfCancelled();
+        return load();
+    }
+
+    /**
+     * Loads the whole assortment with {@link AssortmentQueries#loadAll(Connection)}, which skips deleted rows,
+     * and records the load time and the catalog size in {@link Metrics}.
+     *
+     * @param connection the database connection
+     * @return the loaded assortment
+     * @throws SQLException if the assortment cannot be read from the database
+     */
+    static Assortment loadAll(Connection connection) throws SQLException {
+        return loadAll(connection, null);
+    }
+
+    /**
+     * Loads the whole assortment like {@link #loadAll(Connection)} and stops as soon as the load is cancelled.
+     *
+     * @param connection the database connection
+     * @param cancellation the cancellation of the load, or null if it cannot be cancelled
+     * @return the loaded assortment
+     * @throws SQLException if the assortment cannot be read from the database or the load is cancelled
+     */
+    static Assortment loadAll(Connection connection, QueryCancellation cancellation) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Assortment assortment = AssortmentQueries.loadAll(connection, cancellation);
+            Metrics.CATALOG_SIZE.set(assortment.size());
+            return assortment;
+        } finally {
+            Metrics.CATALOG_LOAD.recordSince(start);
+        }
+    }
+
+    /**
+     * Creates a loader that borrows a connection from the data source for every
+     * {@link #loadAll(Connection)} call, so concurrent loads do not share one connection.
+     * A cancelled load cancels its query on the borrowed connection.
+     *
+     * @param dataSource the data source, typically a {@link PooledDataSource}
+     * @return a new loader
+     */
+    static AssortmentLoader fromDataSource(DataSource dataSource) {
+        return new AssortmentLoader() {
+            @Override
+            public Assortment load() throws SQLException {
+                try (Connection connection = dataSource.getConnection()) {
+                    return loadAll(connection);
+                }
+            }
+
+            @Override
+            public Assortment load(QueryCancellation cancellation) throws SQLException {
+                cancellation.throwIfCancelled();
+                try (Connection connection = dataSource.getConnection()) {
+                    return loadAll(connection, cancellation);
+                }
+            }
+        };
+    }
+}
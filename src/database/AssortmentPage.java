@@ -0,0 +1,101 @@
+package database;
+
+/**
+ * One page of assortment rows kept in primitive column arrays.
+ */
+public class AssortmentPage {
+    private final int[] ids;
+    private final String[] names;
+    private final int[] amounts;
+    private final double[] prices;
+    private int size;
+
+    /**
+     * Constructs an empty page.
+     *
+     * @param capacity the maximum number of rows of the page
+     */
+    public AssortmentPage(int capacity) {
+        ids = new int[capacity];
+        names = new String[capacity];
+        amounts = new int[capacity];
+        prices = new double[capacity];
+    }
+
+    /**
+     * Appends a row to the page.
+     *
+     * @param id the product id
+     * @param name the product name
+     * @param amount the amount in stock
+     * @param price the product price
+     * @throws IllegalStateException if the page is full
+     */
+    public void add(int id, String name, int amount, double price) {
+        if (size == ids.length) throw new IllegalStateException("Page is full");
+
+        ids[size] = id;
+        names[size] = name;
+        amounts[size] = amount;
+        prices[size] = price;
+        size++;
+    }
+
+    /**
+     * Returns the number of rows on the page.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the product id of a row.
+     *
+     * @param row the row on the page
+     * @return the product id
+     */
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Returns the product name of a row.
+     *
+     * @param row the row on the page
+     * @return the product name
+     */
+    public String getName(int row) {
+        return names[row];
+    }
+
+    /**
+     * Returns the amount in stock of a row.
+     *
+     * @param row the row on the page
+     * @return the amount in stock
+     */
+    public int getAmount(int row) {
+        return amounts[row];
+    }
+
+    /**
+     * Returns the product price of a row.
+     *
+     * @param row the row on the page
+     * @return the product price
+     */
+    public double getPrice(int row) {
+        return prices[row];
+    }
+
+    /**
+     * Returns the id of the last row, used to read the next page by keyset.
+     *
+     * @return the id of the last row, or -1 if the page is empty
+     */
+    public int getLastId() {
+        return size == 0 ? -1 : ids[size - 1];
+    }
+}
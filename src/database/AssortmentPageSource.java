@@ -0,0 +1,37 @@
+package database;
+
+import java.sql.SQLException;
+
+/**
+ * Supplies the assortment one page at a time.
+ */
+public interface AssortmentPageSource {
+    /**
+     * Returns the number of rows per page.
+     *
+     * @return the page size
+     */
+    int getPageSize();
+
+    /**
+     * Counts all rows.
+     *
+     * @return the number of rows
+     * @throws SQLException if the rows cannot be counted
+     */
+    int countRows() throws SQLException;
+
+    /**
+     * Reads one page of rows.
+     *
+     * @param pageIndex the index of the page, starting at 0
+     * @return the page
+     * @throws SQLException if the page cannot be read
+     */
+    AssortmentPage loadPage(int pageIndex) throws SQLException;
+
+    /**
+     * Forgets any state derived from earlier reads, for example after the rows changed.
+     */
+    void reset();
+}
@@ -0,0 +1,89 @@
+package database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the assortment table page by page in id order.
+ *
+ * The pager remembers the id of the last row of every page it has read, so the following page is
+ * read by keyset on the id instead of by offset. Each page borrows its own connection from the data
+ * source. The pager is thread-safe.
+ */
+public class AssortmentPager implements AssortmentPageSource {
+    private static final int UNKNOWN_ID = -1;
+
+    private final DataSource dataSource;
+    private final int pageSize;
+    private final ConcurrentHashMap<Integer, Integer> lastIdByPage;
+
+    /**
+     * Constructs a pager.
+     *
+     * @param dataSource the data source, typically a {@link PooledDataSource}
+     * @param pageSize the number of rows per page, also used as the JDBC fetch size
+     * @throws IllegalArgumentException if the data source is null or the page size is not positive
+     */
+    public AssortmentPager(DataSource dataSource, int pageSize) {
+        if (dataSource == null) throw new IllegalArgumentException("Data source cannot be null");
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.lastIdByPage = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the number of rows per page.
+     *
+     * @return the page size
+     */
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Counts the rows of the assortment table.
+     *
+     * @return the number of rows
+     * @throws SQLException if the query fails
+     */
+    @Override
+    public int countRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return AssortmentQueries.countRows(connection);
+        }
+    }
+
+    /**
+     * Reads one page of rows.
+     *
+     * @param pageIndex the index of the page, starting at 0
+     * @return the page; it has fewer rows than the page size at the end of the table
+     * @throws SQLException if the query fails
+     */
+    @Override
+    public AssortmentPage loadPage(int pageIndex) throws SQLException {
+        int afterId = pageIndex == 0 ? UNKNOWN_ID : lastIdByPage.getOrDefault(pageIndex - 1, UNKNOWN_ID);
+        AssortmentPage page = new AssortmentPage(pageSize);
+
+        try (Connection connection = dataSource.getConnection()) {
+            AssortmentQueries.readPage(connection, pageIndex * pageSize, afterId, pageSize, page);
+        }
+        if (page.size() > 0) {
+            lastIdByPage.put(pageIndex, page.getLastId());
+        }
+        return page;
+    }
+
+    /**
+     * Forgets the remembered page boundaries, for example after rows were inserted or deleted.
+     */
+    @Override
+    public void reset() {
+        lastIdByPage.clear();
+    }
+}
@@ -0,0 +1,246 @@
+package database;
+
+import model.Assortment;
+import model.Product;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SQL queries on the assortment table that complement {@link DatabaseUtils}.
+ *
+ * The queries expect the assortment table to have a {@code version} column that is increased
+ * on every insert and update of a row and an {@code is_deleted} flag that marks deleted rows instead of
+ * removing them, so that deletions can be synchronized too. {@link AssortmentSchema#migrate(Connection)}
+ * adds both columns and the version triggers to an existing table. Until it has run, the full load, the row
+ * count and the pages read every row of the old table, and the version probe reports no fingerprint.
+ */
+public final class AssortmentQueries {
+    static final String TABLE = "avaibleassortment";
+
+    static final String VERSION_PROBE =
+            "SELECT COUNT(*), COALESCE(MAX(version), 0) FROM " + TABLE;
+
+    static final String CHANGES_SINCE =
+            "SELECT id, name, amount, price, version, is_deleted FROM " + TABLE + " WHERE version > ? ORDER BY version";
+
+    static final String COUNT_ROWS =
+            "SELECT COUNT(*) FROM " + TABLE + " WHERE is_deleted = FALSE";
+
+    static final String PAGE_BY_OFFSET =
+            "SELECT id, name, amount, price FROM " + TABLE + " WHERE is_deleted = FALSE ORDER BY id LIMIT ? OFFSET ?";
+
+    static final String PAGE_AFTER_ID =
+            "SELECT id, name, amount, price FROM " + TABLE + " WHERE is_deleted = FALSE AND id > ? ORDER BY id LIMIT ?";
+
+    static final int FULL_LOAD_FETCH_SIZE = 1000;
+
+    static final String ALL_ROWS =
+            "SELECT id, name, amount, price FROM " + TABLE + " WHERE is_deleted = FALSE ORDER BY id";
+
+    static final String LEGACY_COUNT_ROWS =
+            "SELECT COUNT(*) FROM " + TABLE;
+
+    static final String LEGACY_PAGE_BY_OFFSET =
+            "SELECT id, name, amount, price FROM " + TABLE + " ORDER BY id LIMIT ? OFFSET ?";
+
+    static final String LEGACY_PAGE_AFTER_ID =
+            "SELECT id, name, amount, price FROM " + TABLE + " WHERE id > ? ORDER BY id LIMIT ?";
+
+    static final String LEGACY_ALL_ROWS =
+            "SELECT id, name, amount, price FROM " + TABLE + " ORDER BY id";
+
+    /**
+     * Receives the rows read by {@link #readChangesSince(Connection, long, RowHandler)} and
+     * {@link #streamAll(Connection, int, RowHandler)}.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Handles one changed row.
+         *
+         * @param id the product id
+         * @param name the product name
+         * @param amount the amount in stock
+         * @param price the product price
+         * @param deleted true if the row has been deleted
+         */
+        void handle(int id, String name, int amount, double price, boolean deleted);
+    }
+
+    private AssortmentQueries() {
+    }
+
+    /**
+     * Reads a cheap fingerprint of the assortment table made of its row count and highest row version.
+     * The fingerprint changes whenever a row is inserted, updated or deleted.
+     *
+     * @param connection the database connection
+     * @return the fingerprint of the assortment table, or null if the table has not been migrated yet
+     * @throws SQLException if the query fails
+     */
+    public static String probeVersion(Connection connection) throws SQLException {
+        if (!AssortmentSchema.isMigrated(connection)) return null;
+
+        try (PreparedStatement statement = connection.prepareStatement(VERSION_PROBE);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1) + ":" + resultSet.getLong(2);
+        }
+    }
+
+    /**
+     * Reads every assortment row whose version is greater than the given one, in version order.
+     *
+     * @param connection the database connection
+     * @param sinceVersion the highest version that has already been read
+     * @param handler the handler receiving each changed row
+     * @return the highest version read, or sinceVersion if nothing changed
+     * @throws SQLException if the query fails
+     */
+    public static long readChangesSince(Connection connection, long sinceVersion, RowHandler handler) throws SQLException {
+        long maxVersion = sinceVersion;
+        try (PreparedStatement statement = connection.prepareStatement(CHANGES_SINCE)) {
+            statement.setLong(1, sinceVersion);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    handler.handle(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3),
+                            resultSet.getDouble(4), resultSet.getBoolean(6));
+                    maxVersion = Math.max(maxVersion, resultSet.getLong(5));
+                }
+            }
+        }
+        return maxVersion;
+    }
+
+    /**
+     * Counts the rows of the assortment table that are not deleted.
+     *
+     * @param connection the database connection
+     * @return the number of rows
+     * @throws SQLException if the query fails
+     */
+    public static int countRows(Connection connection) throws SQLException {
+        String sql = AssortmentSchema.isMigrated(connection) ? COUNT_ROWS : LEGACY_COUNT_ROWS;
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * Reads one page of rows in id order. When the id of the last row of the previous page is known,
+     * the page is read with a keyset condition on the id, which is fast at any depth; otherwise it
+     * is read by offset.
+     *
+     * @param connection the database connection
+     * @param offset the position of the first row of the page
+     * @param afterId the id of the last row before the page, or -1 if it is not known
+     * @param limit the maximum number of rows to read
+     * @param page the page to fill
+     * @throws SQLException if the query fails
+     */
+    public static void readPage(Connection connection, int offset, int afterId, int limit, AssortmentPage page) throws SQLException {
+        boolean keyset = afterId >= 0 || offset == 0;
+        String sql = AssortmentSchema.isMigrated(connection)
+                ? (keyset ? PAGE_AFTER_ID : PAGE_BY_OFFSET)
+                : (keyset ? LEGACY_PAGE_AFTER_ID : LEGACY_PAGE_BY_OFFSET);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (keyset) {
+                statement.setInt(1, afterId);
+                statement.setInt(2, limit);
+            } else {
+                statement.setInt(1, limit);
+                statement.setInt(2, offset);
+            }
+            statement.setFetchSize(limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    page.add(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3), resultSet.getDouble(4));
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads every row of the assortment table that is not deleted.
+     *
+     * @param connection the database connection
+     * @return the loaded assortment
+     * @throws SQLException if the query fails
+     */
+    public static Assortment loadAll(Connection connection) throws SQLException {
+        return loadAll(connection, null);
+    }
+
+    /**
+     * Loads every row of the assortment table that is not deleted, like {@link #loadAll(Connection)},
+     * and stops as soon as the load is cancelled.
+     *
+     * @param connection the database connection
+     * @param cancellation the cancellation of the load, or null if it cannot be cancelled
+     * @return the loaded assortment
+     * @throws SQLException if the query fails or the load is cancelled
+     */
+    public static Assortment loadAll(Connection connection, QueryCancellation cancellation) throws SQLException {
+        Assortment assortment = new Assortment();
+        streamAll(connection, FULL_LOAD_FETCH_SIZE,
+                (id, name, amount, price, deleted) -> assortment.addProduct(new Product(id, name, price), amount),
+                cancellation);
+        return assortment;
+    }
+
+    /**
+     * Streams every row of the assortment table that is not deleted through a forward-only, read-only cursor, so the rows are
+     * handed over as they arrive instead of being materialized first. With MySQL Connector/J, a fetch size
+     * of {@link Integer#MIN_VALUE} streams row by row; a positive fetch size is used as the batch size when
+     * the connection has {@code useCursorFetch=true}.
+     *
+     * @param connection the database connection
+     * @param fetchSize the JDBC fetch size
+     * @param handler the handler receiving each row; the deleted flag is always false
+     * @return the number of rows read
+     * @throws SQLException if the query fails
+     */
+    public static int streamAll(Connection connection, int fetchSize, RowHandler handler) throws SQLException {
+        return streamAll(connection, fetchSize, handler, null);
+    }
+
+    /**
+     * Streams every row of the assortment table that is not deleted, like
+     * {@link #streamAll(Connection, int, RowHandler)}, and stops as soon as the load is cancelled.
+     * The running query is cancelled with {@link java.sql.Statement#cancel()}, and the cancellation
+     * is checked between rows, so rows that have already arrived are not handled any more either.
+     *
+     * @param connection the database connection
+     * @param fetchSize the JDBC fetch size
+     * @param handler the handler receiving each row; the deleted flag is always false
+     * @param cancellation the cancellation of the load, or null if it cannot be cancelled
+     * @return the number of rows read
+     * @throws SQLException if the query fails or the load is cancelled
+     */
+    public static int streamAll(Connection connection, int fetchSize, RowHandler handler,
+                                QueryCancellation cancellation) throws SQLException {
+        int rows = 0;
+        String sql = AssortmentSchema.isMigrated(connection) ? ALL_ROWS : LEGACY_ALL_ROWS;
+        try (PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            if (cancellation != null) cancellation.register(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (cancellation != null) cancellation.throwIfCancelled();
+                    handler.handle(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3),
+                            resultSet.getDouble(4), false);
+                    rows++;
+                }
+            } finally {
+                if (cancellation != null) cancellation.unregister(statement);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,204 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Migrates the MySQL assortment table to the schema expected by {@link AssortmentQueries}.
+ *
+ * The migration adds a {@code version} column and an {@code is_deleted} tombstone flag to the assortment table,
+ * and installs triggers that give every inserted or updated row the next value of a single-row counter table.
+ * Because each writer updates the counter row, it holds that row's lock until its transaction ends. Writers
+ * of the assortment table therefore commit in version order, and a reader of {@code WHERE version > ?} never
+ * sees a higher version before a lower one has been committed. Without the triggers, for example when versions
+ * are set by the application, a transaction committing after a higher version was read would be skipped.
+ *
+ * Rows must be deleted with {@link #markDeleted(Connection, int)} instead of {@code DELETE}, so the deletion
+ * reaches {@link AssortmentDeltaSync}. The migration can be run on every startup, also while other terminals
+ * write to the table: steps that were already applied are skipped, and installed triggers are never dropped.
+ * Until the table has been migrated, the full load, the row count and the pages of {@link AssortmentQueries}
+ * read the old schema without the tombstone flag.
+ *
+ * On H2, which the tests use in place of MySQL, the triggers are compiled from Java source instead.
+ */
+public final class AssortmentSchema {
+    static final String VERSION_TABLE = AssortmentQueries.TABLE + "_version";
+
+    static final String ADD_VERSION_COLUMN =
+            "ALTER TABLE " + AssortmentQueries.TABLE + " ADD COLUMN version BIGINT NOT NULL DEFAULT 0";
+
+    static final String ADD_DELETED_COLUMN =
+            "ALTER TABLE " + AssortmentQueries.TABLE + " ADD COLUMN is_deleted BOOLEAN NOT NULL DEFAULT FALSE";
+
+    static final String ADD_VERSION_INDEX =
+            "CREATE INDEX " + AssortmentQueries.TABLE + "_version_idx ON " + AssortmentQueries.TABLE + " (version)";
+
+    static final String CREATE_VERSION_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (id TINYINT PRIMARY KEY, last_version BIGINT NOT NULL)";
+
+    static final String SEED_VERSION_TABLE =
+            "INSERT IGNORE INTO " + VERSION_TABLE + " (id, last_version) VALUES (1, 1)";
+
+    // the update trigger replaces the version with the next value of the counter
+    static final String BACKFILL_VERSIONS =
+            "UPDATE " + AssortmentQueries.TABLE + " SET version = 1 WHERE version = 0";
+
+    static final String[] TRIGGER_EVENTS = {"INSERT", "UPDATE"};
+
+    static final String TRIGGER_EXISTS =
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TRIGGERS WHERE UPPER(TRIGGER_SCHEMA) = UPPER(?) "
+                    + "AND UPPER(TRIGGER_NAME) = UPPER(?)";
+
+    static final String MARK_DELETED =
+            "UPDATE " + AssortmentQueries.TABLE + " SET is_deleted = TRUE WHERE id = ? AND is_deleted = FALSE";
+
+    private static final Set<String> MIGRATED_DATABASES = ConcurrentHashMap.newKeySet();
+
+    private AssortmentSchema() {
+    }
+
+    /**
+     * Brings the assortment table up to date. The triggers are installed before the rows without a version
+     * are backfilled, so those rows get their versions from the counter like every later write, and a row
+     * written by another terminal during the migration is never left without a current version.
+     *
+     * @param connection the database connection
+     * @throws SQLException if a step of the migration fails
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (!hasColumn(connection, "version")) {
+                statement.execute(ADD_VERSION_COLUMN);
+                statement.execute(ADD_VERSION_INDEX);
+            }
+            if (!hasColumn(connection, "is_deleted")) {
+                statement.execute(ADD_DELETED_COLUMN);
+            }
+            statement.execute(CREATE_VERSION_TABLE);
+            statement.execute(SEED_VERSION_TABLE);
+
+            boolean h2 = isH2(connection);
+            for (String event : TRIGGER_EVENTS) {
+                if (hasTrigger(connection, event)) continue;
+
+                try {
+                    statement.execute(h2 ? createH2Trigger(event) : createTrigger(event));
+                } catch (SQLException e) {
+                    // another terminal may have created it in the meantime
+                    if (!hasTrigger(connection, event)) throw e;
+                }
+            }
+            statement.execute(BACKFILL_VERSIONS);
+        }
+    }
+
+    /**
+     * Checks whether the assortment table has the version and tombstone columns. Once they are found,
+     * the answer is remembered for the database, so later calls do not read the metadata again.
+     *
+     * @param connection the database connection
+     * @return true if the table has been migrated
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static boolean isMigrated(Connection connection) throws SQLException {
+        String url = connection.getMetaData().getURL();
+        if (url != null && MIGRATED_DATABASES.contains(url)) return true;
+
+        boolean migrated = hasColumn(connection, "version") && hasColumn(connection, "is_deleted");
+        if (migrated && url != null) {
+            MIGRATED_DATABASES.add(url);
+        }
+        return migrated;
+    }
+
+    /**
+     * Marks a row as deleted, keeping it as a tombstone with a new version. In auto-commit mode the caching
+     * loaders are told about the write at once; inside a transaction, call
+     * {@link CachedAssortmentLoader#localWriteCommitted()} after the commit.
+     *
+     * @param connection the database connection
+     * @param productID the ID of the product to delete
+     * @return true if the row was deleted, false if it did not exist or was already deleted
+     * @throws SQLException if the update fails
+     */
+    public static boolean markDeleted(Connection connection, int productID) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(MARK_DELETED)) {
+            statement.setInt(1, productID);
+            boolean deleted = statement.executeUpdate() > 0;
+            if (deleted && connection.getAutoCommit()) {
+                CachedAssortmentLoader.localWriteCommitted();
+            }
+            return deleted;
+        }
+    }
+
+    static String triggerName(String event) {
+        return AssortmentQueries.TABLE + "_version_" + event.toLowerCase();
+    }
+
+    /**
+     * Builds the trigger that gives each row written by the event the next version. {@code LAST_INSERT_ID(expr)}
+     * increments the counter and reads the new value in one statement, like a sequence.
+     */
+    static String createTrigger(String event) {
+        return "CREATE TRIGGER " + triggerName(event) + " BEFORE " + event + " ON " + AssortmentQueries.TABLE
+                + " FOR EACH ROW BEGIN "
+                + "UPDATE " + VERSION_TABLE + " SET last_version = LAST_INSERT_ID(last_version + 1) WHERE id = 1; "
+                + "SET NEW.version = LAST_INSERT_ID(); "
+                + "END";
+    }
+
+    /**
+     * Builds the H2 version of {@link #createTrigger(String)}. H2 compiles the Java source when the trigger
+     * is created; the trigger increments the counter row and copies its value into the version column.
+     */
+    static String createH2Trigger(String event) {
+        return "CREATE TRIGGER " + triggerName(event) + " BEFORE " + event + " ON " + AssortmentQueries.TABLE
+                + " FOR EACH ROW AS $$org.h2.api.Trigger create() { return new org.h2.api.Trigger() {"
+                + " int versionColumn;"
+                + " public void init(java.sql.Connection c, String schema, String trigger, String table,"
+                + " boolean before, int type) throws java.sql.SQLException {"
+                + " try (java.sql.ResultSet r = c.getMetaData().getColumns(null, schema, table, \"VERSION\")) {"
+                + " r.next(); versionColumn = r.getInt(\"ORDINAL_POSITION\") - 1; } }"
+                + " public void fire(java.sql.Connection c, Object[] oldRow, Object[] newRow) throws java.sql.SQLException {"
+                + " try (java.sql.Statement s = c.createStatement()) {"
+                + " s.executeUpdate(\"UPDATE " + VERSION_TABLE + " SET last_version = last_version + 1 WHERE id = 1\");"
+                + " try (java.sql.ResultSet r = s.executeQuery(\"SELECT last_version FROM " + VERSION_TABLE + " WHERE id = 1\")) {"
+                + " r.next(); newRow[versionColumn] = r.getLong(1); } } } }; } $$";
+    }
+
+    private static boolean isH2(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().equals("H2");
+    }
+
+    private static boolean hasTrigger(Connection connection, String event) throws SQLException {
+        String schema = isH2(connection) ? connection.getSchema() : connection.getCatalog();
+        try (PreparedStatement statement = connection.prepareStatement(TRIGGER_EXISTS)) {
+            statement.setString(1, schema);
+            statement.setString(2, triggerName(event));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = AssortmentQueries.TABLE;
+        if (metaData.storesUpperCaseIdentifiers()) {
+            table = table.toUpperCase(Locale.ROOT);
+            column = column.toUpperCase(Locale.ROOT);
+        }
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, column)) {
+            return columns.next();
+        }
+    }
+}
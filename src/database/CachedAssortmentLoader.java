@@ -0,0 +1,202 @@
+package database;
+
+import model.Assortment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches the last assortment loaded by another {@link AssortmentLoader}.
+ *
+ * A cached snapshot younger than the time-to-live is returned without touching the database.
+ * An older snapshot is revalidated with the version probe, if there is one, and only reloaded when
+ * the probe reports a change. Code that writes stock in this process calls {@link #localWriteCommitted()},
+ * which makes every caching loader revalidate on its next load regardless of the time-to-live, so the till
+ * never shows its own sales late; checkout and {@link AssortmentSchema#markDeleted(Connection, int)} do so.
+ * {@link #invalidate()} drops the snapshot of one loader entirely. The returned assortment is shared between
+ * callers and must not be modified. The loader is thread-safe.
+ */
+public class CachedAssortmentLoader implements AssortmentLoader {
+    private static final AtomicLong LOCAL_WRITES = new AtomicLong();
+
+    private final AssortmentLoader delegate;
+    private final VersionProbe versionProbe;
+    private final long ttlNanos;
+    private final ReentrantLock lock;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    private Assortment cachedAssortment;
+    private String cachedVersion;
+    private long validatedAt;
+    private long validatedLocalWrites;
+
+    /**
+     * Reads a fingerprint of the data that changes whenever the data changes.
+     */
+    @FunctionalInterface
+    public interface VersionProbe {
+        /**
+         * Reads the current fingerprint.
+         *
+         * @return the fingerprint
+         * @throws SQLException if the fingerprint cannot be read
+         */
+        String probe() throws SQLException;
+    }
+
+    /**
+     * Constructs a caching loader.
+     *
+     * @param delegate the loader that reads the full assortment
+     * @param versionProbe the probe used to revalidate an expired snapshot, or null to always reload it
+     * @param ttlMillis how long a snapshot is used without revalidation, in milliseconds
+     * @throws IllegalArgumentException if the delegate is null or the time-to-live is negative
+     */
+    public CachedAssortmentLoader(AssortmentLoader delegate, VersionProbe versionProbe, long ttlMillis) {
+        if (delegate == null) throw new IllegalArgumentException("Loader cannot be null");
+        if (ttlMillis < 0) throw new IllegalArgumentException("Time-to-live cannot be negative");
+
+        this.delegate = delegate;
+        this.versionProbe = versionProbe;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.lock = new ReentrantLock();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Creates a caching loader in front of {@link AssortmentLoader#loadAll(Connection)} that revalidates
+     * with {@link AssortmentQueries#probeVersion(Connection)}.
+     *
+     * @param connection the database connection
+     * @param ttlMillis how long a snapshot is used without revalidation, in milliseconds
+     * @return a new caching loader
+     */
+    public static CachedAssortmentLoader forDatabase(Connection connection, long ttlMillis) {
+        return new CachedAssortmentLoader(new AssortmentLoader() {
+            @Override
+            public Assortment load() throws SQLException {
+                return AssortmentLoader.loadAll(connection);
+            }
+
+            @Override
+            public Assortment load(QueryCancellation cancellation) throws SQLException {
+                return AssortmentLoader.loadAll(connection, cancellation);
+            }
+        }, () -> AssortmentQueries.probeVersion(connection), ttlMillis);
+    }
+
+    /**
+     * Creates a caching loader that borrows a connection from the data source for every probe and reload.
+     *
+     * @param dataSource the data source, typically a {@link PooledDataSource}
+     * @param ttlMillis how long a snapshot is used without revalidation, in milliseconds
+     * @return a new caching loader
+     */
+    public static CachedAssortmentLoader forDataSource(DataSource dataSource, long ttlMillis) {
+        return new CachedAssortmentLoader(AssortmentLoader.fromDataSource(dataSource), () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return AssortmentQueries.probeVersion(connection);
+            }
+        }, ttlMillis);
+    }
+
+    /**
+     * Returns the cached assortment, revalidating or reloading it when it has expired.
+     *
+     * @return the current assortment
+     * @throws SQLException if the probe or the reload fails
+     */
+    @Override
+    public Assortment load() throws SQLException {
+        return load(new QueryCancellation());
+    }
+
+    /**
+     * Returns the cached assortment like {@link #load()}. A reload that is cancelled leaves the previous
+     * snapshot in place, so the next load tries again.
+     *
+     * @param cancellation the cancellation of the load
+     * @return the current assortment
+     * @throws SQLException if the probe or the reload fails or the load is cancelled
+     */
+    @Override
+    public Assortment load(QueryCancellation cancellation) throws SQLException {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long localWrites = LOCAL_WRITES.get();
+            if (cachedAssortment != null && localWrites == validatedLocalWrites && now - validatedAt < ttlNanos) {
+                hits.increment();
+                return cachedAssortment;
+            }
+
+            String version = versionProbe == null ? null : versionProbe.probe();
+            if (cachedAssortment != null && version != null && version.equals(cachedVersion)) {
+                validatedAt = now;
+                validatedLocalWrites = localWrites;
+                hits.increment();
+                return cachedAssortment;
+            }
+
+            misses.increment();
+            cancellation.throwIfCancelled();
+            Assortment loaded = delegate.load(cancellation);
+            // Build the lazy search index before the assortment is shared, so readers never build it concurrently.
+            loaded.getSearchIndex();
+            cachedAssortment = loaded;
+            cachedVersion = version;
+            validatedAt = now;
+            validatedLocalWrites = localWrites;
+            return cachedAssortment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that this process has committed a change of the stock, so every caching loader revalidates
+     * its snapshot on the next load instead of waiting for the time-to-live. Call it after the transaction
+     * has been committed; a revalidation before the commit would still see the old data.
+     */
+    public static void localWriteCommitted() {
+        LOCAL_WRITES.incrementAndGet();
+    }
+
+    /**
+     * Drops the cached snapshot, so the next load reads the assortment again.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            cachedAssortment = null;
+            cachedVersion = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many loads were answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many loads had to read the full assortment.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
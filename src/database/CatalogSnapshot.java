@@ -0,0 +1,243 @@
+package database;
+
+import model.Assortment;
+import model.Product;
+import model.ProductRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.zip.CRC32;
+
+/**
+ * A compact binary copy of the last known assortment on the local disk, used to show the catalog at startup
+ * before the database has answered.
+ *
+ * The file starts with a header {@code [int magic][int format version][long watermark][int product count]
+ * [int body length][int crc32 of the body]}, followed by one record per product:
+ * {@code [int id][int amount][double price][short name length][UTF-8 name]}. The watermark is the highest
+ * row version contained in the snapshot, so {@link #reconcile(Path, CatalogSnapshot, Connection)} only has to
+ * read the rows changed since the snapshot was written, through {@link AssortmentDeltaSync}. The file is read
+ * into memory with a single channel read, so it is never held open or mapped, and replaced atomically when it
+ * is written, so a reader never sees a half-written snapshot.
+ * A snapshot with an unknown version or a wrong checksum is rejected.
+ */
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x54434154;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 28;
+    private static final int RECORD_FIXED_SIZE = 18;
+
+    private final Assortment assortment;
+    private final long watermark;
+
+    private CatalogSnapshot(Assortment assortment, long watermark) {
+        this.assortment = assortment;
+        this.watermark = watermark;
+    }
+
+    /**
+     * Returns the assortment stored in the snapshot. Every read returns a new assortment.
+     *
+     * @return the assortment
+     */
+    public Assortment getAssortment() {
+        return assortment;
+    }
+
+    /**
+     * Returns the highest row version contained in the snapshot.
+     *
+     * @return the watermark
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Reads a snapshot file and decodes the assortment from it. The file is closed before this method returns.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws NoSuchFileException if the file does not exist
+     * @throws IOException if the file cannot be read, has an unknown format or version, or its checksum does not match
+     */
+    public static CatalogSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) throw new IOException("Catalog snapshot has an invalid size");
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) throw new IOException("Catalog snapshot is truncated");
+            }
+            if (buffer.getInt(0) != MAGIC) throw new IOException("Not a catalog snapshot: " + file);
+            if (buffer.getInt(4) != FORMAT_VERSION) throw new IOException("Unsupported catalog snapshot version " + buffer.getInt(4));
+
+            long watermark = buffer.getLong(8);
+            int count = buffer.getInt(16);
+            int bodyLength = buffer.getInt(20);
+            if (count < 0 || bodyLength != fileSize - HEADER_SIZE) throw new IOException("Catalog snapshot is truncated");
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(HEADER_SIZE, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(24)) throw new IOException("Catalog snapshot checksum does not match");
+
+            return new CatalogSnapshot(decode(buffer.slice(HEADER_SIZE, bodyLength), count), watermark);
+        }
+    }
+
+    /**
+     * Reads a snapshot file, or returns null if there is no usable snapshot. A damaged snapshot is reported
+     * on the console and ignored, so the caller falls back to loading the full catalog.
+     *
+     * @param file the snapshot file
+     * @return the snapshot, or null if the file is missing or damaged
+     */
+    public static CatalogSnapshot readIfPresent(Path file) {
+        try {
+            return read(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.out.println("Знімок каталогу пошкоджено: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the assortment to a snapshot file, replacing the previous snapshot atomically.
+     *
+     * @param file the snapshot file
+     * @param assortment the assortment to store
+     * @param watermark the highest row version contained in the assortment
+     * @throws IllegalArgumentException if the file or assortment is null
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, Assortment assortment, long watermark) throws IOException {
+        if (file == null) throw new IllegalArgumentException("File cannot be null");
+        if (assortment == null) throw new IllegalArgumentException("Assortment cannot be null");
+
+        int size = assortment.size();
+        byte[][] names = new byte[size][];
+        long bodyLength = 0;
+        for (int i = 0; i < size; i++) {
+            names[i] = assortment.getProductAt(i).getName().getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > Short.MAX_VALUE) throw new IOException("Product name is too long for the snapshot");
+            bodyLength += RECORD_FIXED_SIZE + names[i].length;
+        }
+        if (HEADER_SIZE + bodyLength > Integer.MAX_VALUE) throw new IOException("Assortment is too large for the snapshot");
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (int) bodyLength);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < size; i++) {
+            Product product = assortment.getProductAt(i);
+            buffer.putInt(product.getId())
+                    .putInt(assortment.getAmountAt(i))
+                    .putDouble(product.getPrice())
+                    .putShort((short) names[i].length)
+                    .put(names[i]);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, (int) bodyLength);
+        buffer.putInt(0, MAGIC)
+                .putInt(4, FORMAT_VERSION)
+                .putLong(8, watermark)
+                .putInt(16, size)
+                .putInt(20, (int) bodyLength)
+                .putInt(24, (int) crc.getValue());
+        buffer.flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot file, brings it up to date with the database and rewrites it.
+     *
+     * @param file the snapshot file
+     * @param connection the database connection
+     * @return the up-to-date snapshot
+     * @throws SQLException if the changes cannot be read; the snapshot file is then left unchanged
+     * @see #reconcile(Path, CatalogSnapshot, Connection)
+     */
+    public static CatalogSnapshot reconcile(Path file, Connection connection) throws SQLException {
+        return reconcile(file, readIfPresent(file), connection);
+    }
+
+    /**
+     * Brings a snapshot that was already read up to date with the database and rewrites its file.
+     *
+     * Only the rows changed since the snapshot's watermark are read; without a snapshot every row is read.
+     * The snapshot file is rewritten when anything changed. A snapshot that cannot be written is reported
+     * on the console, and the up-to-date assortment is still returned. The changes are applied to a copy of the
+     * snapshot's assortment, so the snapshot may be shown on the UI while the sync runs on a background thread.
+     *
+     * @param file the snapshot file
+     * @param previous the snapshot read from the file, or null if there is none
+     * @param connection the database connection
+     * @return the up-to-date snapshot
+     * @throws SQLException if the changes cannot be read; the snapshot file is then left unchanged
+     */
+    public static CatalogSnapshot reconcile(Path file, CatalogSnapshot previous, Connection connection) throws SQLException {
+        Assortment assortment = previous == null ? new Assortment() : copyOf(previous.assortment);
+        long previousWatermark = previous == null ? 0 : previous.watermark;
+
+        AssortmentDeltaSync deltaSync = new AssortmentDeltaSync(assortment, new ProductRegistry(), previousWatermark);
+        int changed = deltaSync.sync(connection);
+
+        if (previous == null || changed > 0) {
+            try {
+                write(file, assortment, deltaSync.getWatermark());
+            } catch (IOException e) {
+                System.out.println("Не вдалося записати знімок каталогу: " + e.getMessage());
+            }
+        }
+        return new CatalogSnapshot(assortment, deltaSync.getWatermark());
+    }
+
+    private static Assortment copyOf(Assortment assortment) {
+        Assortment copy = new Assortment();
+        for (int i = 0; i < assortment.size(); i++) {
+            copy.addProduct(new Product(assortment.getProductAt(i)), assortment.getAmountAt(i));
+        }
+        return copy;
+    }
+
+    private static Assortment decode(ByteBuffer body, int count) throws IOException {
+        Assortment assortment = new Assortment();
+        byte[] nameBytes = new byte[64];
+        try {
+            for (int i = 0; i < count; i++) {
+                int id = body.getInt();
+                int amount = body.getInt();
+                double price = body.getDouble();
+                int nameLength = body.getShort();
+                if (nameLength > nameBytes.length) nameBytes = new byte[Math.max(nameLength, nameBytes.length << 1)];
+                body.get(nameBytes, 0, nameLength);
+                assortment.addProduct(new Product(id, new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8), price), amount);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Catalog snapshot is damaged", e);
+        }
+        return assortment;
+    }
+}
@@ -0,0 +1,511 @@
+package database;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * A bounded pool of database connections with a prepared-statement cache per connection.
+ *
+ * {@link #getConnection()} borrows a connection and blocks while all connections are in use, up to the
+ * borrow timeout. The returned connection is a thin wrapper: closing it gives the physical connection
+ * back to the pool, and {@code prepareStatement(String)}, like {@code prepareStatement} with a forward-only,
+ * read-only result set, returns a statement from the connection's cache, whose {@code close()} only clears
+ * its parameters and restores its fetch size, maximum rows and query timeout. A cached statement is only
+ * handed out while it is not in use: preparing the same SQL again before the first statement is closed gives
+ * an uncached statement, so the first one's result set stays open. Closing the connection closes every
+ * statement it handed out, and neither the connection nor its statements unwrap to the physical objects, so
+ * nothing can be used after the connection went back to the pool. Code written against a plain
+ * {@link Connection}, such as {@link DatabaseUtils}, therefore reuses statements without any change.
+ * Connections that were idle for a while are validated before they are handed out, and broken ones are replaced.
+ * The pool is thread-safe.
+ */
+public class PooledDataSource implements DataSource, AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long VALIDATION_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConnectionFactory connectionFactory;
+    private final int statementCacheSize;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PhysicalConnection> idleConnections;
+    private volatile boolean closed;
+    private PrintWriter logWriter;
+
+    /**
+     * Opens new physical connections for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        /**
+         * Opens a new connection.
+         *
+         * @return the new connection
+         * @throws SQLException if the connection cannot be opened
+         */
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Constructs a connection pool.
+     *
+     * @param connectionFactory the factory opening physical connections
+     * @param maxSize the maximum number of connections
+     * @param statementCacheSize the maximum number of prepared statements cached per connection
+     * @param borrowTimeoutMillis how long {@link #getConnection()} waits for a free connection, in milliseconds
+     * @throws IllegalArgumentException if the factory is null or a size or the timeout is out of range
+     */
+    public PooledDataSource(ConnectionFactory connectionFactory, int maxSize, int statementCacheSize, long borrowTimeoutMillis) {
+        if (connectionFactory == null) throw new IllegalArgumentException("Connection factory cannot be null");
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be positive");
+        if (statementCacheSize < 0) throw new IllegalArgumentException("Statement cache size cannot be negative");
+        if (borrowTimeoutMillis < 0) throw new IllegalArgumentException("Borrow timeout cannot be negative");
+
+        this.connectionFactory = connectionFactory;
+        this.statementCacheSize = statementCacheSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.idleConnections = new ConcurrentLinkedDeque<>();
+    }
+
+    /**
+     * Creates a pool of connections to the database at the JDBC URL.
+     *
+     * @param url the JDBC URL
+     * @param user the database user
+     * @param password the user's password
+     * @param maxSize the maximum number of connections
+     * @return a new connection pool
+     */
+    public static PooledDataSource forUrl(String url, String user, String password, int maxSize) {
+        return new PooledDataSource(() -> DriverManager.getConnection(url, user, password), maxSize, 32, 30_000);
+    }
+
+    /**
+     * Borrows a connection from the pool. Closing the returned connection gives it back to the pool.
+     *
+     * @return a pooled connection
+     * @throws SQLException if the pool is closed, no connection is free within the borrow timeout
+     *                      or a new connection cannot be opened
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("No free connection within " + borrowTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PhysicalConnection physicalConnection = takeValidConnection();
+            BorrowedConnection borrowed = new BorrowedConnection(physicalConnection);
+            borrowed.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, borrowed);
+            return borrowed.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Not supported: all pooled connections use the credentials of the connection factory.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the factory credentials");
+    }
+
+    /**
+     * Returns the number of connections that are open but not borrowed.
+     *
+     * @return the number of idle connections
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Returns the number of connections that can still be borrowed without waiting for a return.
+     *
+     * @return the number of free borrow permits
+     */
+    public int getAvailableCount() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Closes the pool and all idle connections. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PhysicalConnection physicalConnection;
+        while ((physicalConnection = idleConnections.pollFirst()) != null) {
+            physicalConnection.closeQuietly();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    private PhysicalConnection takeValidConnection() throws SQLException {
+        PhysicalConnection physicalConnection;
+        while ((physicalConnection = idleConnections.pollFirst()) != null) {
+            if (System.nanoTime() - physicalConnection.returnedAt < VALIDATION_IDLE_NANOS
+                    || physicalConnection.connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return physicalConnection;
+            }
+            physicalConnection.closeQuietly();
+        }
+        return new PhysicalConnection(connectionFactory.create(), statementCacheSize);
+    }
+
+    private void giveBack(PhysicalConnection physicalConnection) {
+        try {
+            if (closed || physicalConnection.connection.isClosed()) {
+                physicalConnection.closeQuietly();
+            } else {
+                if (!physicalConnection.connection.getAutoCommit()) {
+                    physicalConnection.connection.rollback();
+                    physicalConnection.connection.setAutoCommit(true);
+                }
+                physicalConnection.returnedAt = System.nanoTime();
+                idleConnections.offerFirst(physicalConnection);
+            }
+        } catch (SQLException e) {
+            physicalConnection.closeQuietly();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * A physical connection together with its prepared-statement cache.
+     */
+    private static class PhysicalConnection {
+        private final Connection connection;
+        private final Map<String, CacheEntry> statementCache;
+        private long returnedAt;
+
+        PhysicalConnection(Connection connection, int statementCacheSize) {
+            this.connection = connection;
+            this.statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    if (size() <= statementCacheSize) return false;
+
+                    // a statement still in use is closed when it is given back
+                    if (!eldest.getValue().inUse) closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * Takes the cached statement for the SQL, preparing it if needed.
+         *
+         * @return the cache entry, or null if the cached statement is in use
+         */
+        CacheEntry take(String sql) throws SQLException {
+            CacheEntry entry = statementCache.get(sql);
+            if (entry != null && entry.inUse) return null;
+
+            if (entry == null || entry.statement.isClosed()) {
+                entry = new CacheEntry(sql, connection.prepareStatement(sql));
+                statementCache.put(sql, entry);
+            }
+            entry.inUse = true;
+            return entry;
+        }
+
+        /**
+         * Resets a statement taken from the cache and makes it available again.
+         */
+        void release(CacheEntry entry) throws SQLException {
+            entry.inUse = false;
+            if (statementCache.get(entry.sql) != entry) {
+                entry.statement.close();
+                return;
+            }
+            entry.reset();
+        }
+
+        void closeQuietly() {
+            Iterator<CacheEntry> entries = statementCache.values().iterator();
+            while (entries.hasNext()) {
+                closeQuietly(entries.next().statement);
+                entries.remove();
+            }
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // the connection is discarded anyway
+            }
+        }
+
+        private static void closeQuietly(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // the statement is discarded anyway
+            }
+        }
+    }
+
+    /**
+     * A cached prepared statement together with the settings it had when it was prepared.
+     */
+    private static class CacheEntry {
+        private final String sql;
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse;
+
+        CacheEntry(String sql, PreparedStatement statement) throws SQLException {
+            this.sql = sql;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        /**
+         * Clears the parameters and restores the settings a borrower may have changed.
+         */
+        void reset() throws SQLException {
+            statement.clearParameters();
+            if (statement.getFetchSize() != fetchSize) statement.setFetchSize(fetchSize);
+            if (statement.getMaxRows() != maxRows) statement.setMaxRows(maxRows);
+            if (statement.getQueryTimeout() != queryTimeout) statement.setQueryTimeout(queryTimeout);
+        }
+    }
+
+    /**
+     * The connection handed out to a borrower. Routes {@code prepareStatement} with the default result set type
+     * and concurrency through the statement cache, keeps track of every statement it hands out and returns the
+     * physical connection to the pool on {@code close()}, after closing the statements that are still open.
+     */
+    private class BorrowedConnection implements InvocationHandler {
+        private final List<BorrowedStatement> openStatements = new ArrayList<>();
+        private PhysicalConnection physicalConnection;
+        private Connection proxy;
+
+        BorrowedConnection(PhysicalConnection physicalConnection) {
+            this.physicalConnection = physicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            int argumentCount = args == null ? 0 : args.length;
+
+            if (name.equals("close") && argumentCount == 0) {
+                if (physicalConnection != null) {
+                    PhysicalConnection returned = physicalConnection;
+                    try {
+                        for (BorrowedStatement statement : new ArrayList<>(openStatements)) {
+                            statement.close();
+                        }
+                    } catch (SQLException e) {
+                        returned.connection.close();
+                    } finally {
+                        physicalConnection = null;
+                        giveBack(returned);
+                    }
+                }
+                return null;
+            }
+            if (name.equals("isClosed") && argumentCount == 0) {
+                return physicalConnection == null;
+            }
+            if (name.equals("equals") && argumentCount == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && argumentCount == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("isWrapperFor") && argumentCount == 1) {
+                return ((Class<?>) args[0]).isInstance(proxy);
+            }
+            if (name.equals("unwrap") && argumentCount == 1) {
+                return unwrapProxy(proxy, (Class<?>) args[0]);
+            }
+            if (physicalConnection == null) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if (name.equals("prepareStatement") && statementCacheSize > 0 && usesDefaultResultSet(args)) {
+                CacheEntry entry = physicalConnection.take((String) args[0]);
+                if (entry != null) {
+                    return track(PreparedStatement.class, entry.statement, entry);
+                }
+            }
+
+            Object result;
+            try {
+                result = method.invoke(physicalConnection.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return track(method.getReturnType(), (Statement) result, null);
+            }
+            return result;
+        }
+
+        /**
+         * Wraps a statement handed out to the borrower, so it is closed when the connection is returned.
+         */
+        private Object track(Class<?> type, Statement statement, CacheEntry entry) {
+            BorrowedStatement borrowed = new BorrowedStatement(this, statement, entry);
+            openStatements.add(borrowed);
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, borrowed);
+        }
+
+        /**
+         * Checks whether a {@code prepareStatement} call asks for a forward-only, read-only result set, which is
+         * what the one-argument form gives, so that both forms can share the cached statement.
+         */
+        private boolean usesDefaultResultSet(Object[] args) {
+            if (args.length == 1) return true;
+            return args.length == 3 && args[0] instanceof String
+                    && ((Integer) args[1]) == ResultSet.TYPE_FORWARD_ONLY
+                    && ((Integer) args[2]) == ResultSet.CONCUR_READ_ONLY;
+        }
+    }
+
+    /**
+     * A statement handed out by a {@link BorrowedConnection}. Closing a cached statement keeps it open for reuse;
+     * other statements are closed. {@code getConnection()} returns the borrowed connection, never the physical one.
+     */
+    private static class BorrowedStatement implements InvocationHandler {
+        private final BorrowedConnection owner;
+        private final Statement statement;
+        private final CacheEntry entry;
+        private boolean closed;
+
+        BorrowedStatement(BorrowedConnection owner, Statement statement, CacheEntry entry) {
+            this.owner = owner;
+            this.statement = statement;
+            this.entry = entry;
+        }
+
+        void close() throws SQLException {
+            if (closed) return;
+
+            closed = true;
+            owner.openStatements.remove(this);
+            if (entry != null) {
+                owner.physicalConnection.release(entry);
+            } else {
+                statement.close();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            int argumentCount = args == null ? 0 : args.length;
+
+            if (name.equals("close") && argumentCount == 0) {
+                close();
+                return null;
+            }
+            if (name.equals("isClosed") && argumentCount == 0) {
+                return closed;
+            }
+            if (name.equals("equals") && argumentCount == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && argumentCount == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("isWrapperFor") && argumentCount == 1) {
+                return ((Class<?>) args[0]).isInstance(proxy);
+            }
+            if (name.equals("unwrap") && argumentCount == 1) {
+                return unwrapProxy(proxy, (Class<?>) args[0]);
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (name.equals("getConnection") && argumentCount == 0) {
+                return owner.proxy;
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Unwraps a pooled proxy only to the interfaces it implements itself, so a borrower can never reach the
+     * physical connection or statement and keep using it after the connection went back to the pool.
+     */
+    private static Object unwrapProxy(Object proxy, Class<?> iface) throws SQLException {
+        if (iface.isInstance(proxy)) return proxy;
+        throw new SQLException("Pooled objects cannot be unwrapped to " + iface.getName());
+    }
+}
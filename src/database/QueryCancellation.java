@@ -0,0 +1,74 @@
+package database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lets one thread cancel a query that another thread is running.
+ *
+ * The loading code registers its statement while it executes, and {@link #cancel()} stops it with
+ * {@link Statement#cancel()}, which asks the database to abort the query without closing the connection.
+ * The loading code also checks {@link #isCancelled()} between rows, so a query that has already returned its
+ * result set stops reading as well. A cancelled load ends with an {@link SQLException}. The class is thread-safe.
+ */
+public final class QueryCancellation {
+    private boolean cancelled;
+    private Statement statement;
+
+    /**
+     * Cancels the query. The statement that is running, if any, is cancelled right away, and a statement
+     * registered later is cancelled as soon as it is registered.
+     */
+    public synchronized void cancel() {
+        if (cancelled) return;
+
+        cancelled = true;
+        if (statement != null) cancelStatement(statement);
+    }
+
+    /**
+     * Checks whether the query has been cancelled.
+     *
+     * @return true if {@link #cancel()} has been called
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws if the query has been cancelled.
+     *
+     * @throws SQLException if {@link #cancel()} has been called
+     */
+    public void throwIfCancelled() throws SQLException {
+        if (isCancelled()) throw new SQLException("Query was cancelled");
+    }
+
+    /**
+     * Registers the statement that is about to run, so {@link #cancel()} can stop it.
+     *
+     * @param statement the running statement
+     * @throws SQLException if the query has already been cancelled
+     */
+    synchronized void register(Statement statement) throws SQLException {
+        throwIfCancelled();
+        this.statement = statement;
+    }
+
+    /**
+     * Forgets the statement registered by {@link #register(Statement)} once it is done.
+     *
+     * @param statement the statement that has finished
+     */
+    synchronized void unregister(Statement statement) {
+        if (this.statement == statement) this.statement = null;
+    }
+
+    private static void cancelStatement(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException sqle) {
+            // the statement may just have finished; the check between rows stops the load anyway
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package database;
+
+import model.Receipt;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Renders receipts from a {@link ReceiptJournal} in the text format of the check files.
+ */
+public final class ReceiptExporter {
+    private ReceiptExporter() {
+    }
+
+    /**
+     * Renders the receipt with the given order number as check text, for example to reprint it.
+     *
+     * @param journal the journal to read the receipt from
+     * @param orderNumber the order number
+     * @return the check text, or null if the journal has no receipt with this order number
+     */
+    public static String renderText(ReceiptJournal journal, String orderNumber) {
+        Receipt receipt = journal.read(orderNumber);
+        return receipt == null ? null : receipt.toText();
+    }
+
+    /**
+     * Writes the receipt with the given order number as a check file into the directory.
+     *
+     * @param journal the journal to read the receipt from
+     * @param orderNumber the order number
+     * @param directory the directory to write the check file to
+     * @return the path of the check file, or null if the journal has no receipt with this order number
+     * @throws IOException if the file cannot be written
+     */
+    public static Path exportToFile(ReceiptJournal journal, String orderNumber, Path directory) throws IOException {
+        Receipt receipt = journal.read(orderNumber);
+        if (receipt == null) return null;
+
+        try (ReceiptFileStore store = new ReceiptFileStore(directory)) {
+            store.write(receipt);
+            return store.pathOf(orderNumber);
+        }
+    }
+
+    /**
+     * Writes every receipt of the journal as a check file into the directory.
+     *
+     * @param journal the journal to read the receipts from
+     * @param directory the directory to write the check files to
+     * @return the number of receipts written
+     * @throws IOException if a file cannot be written
+     */
+    public static int exportAll(ReceiptJournal journal, Path directory) throws IOException {
+        int[] exported = new int[1];
+        IOException[] failure = new IOException[1];
+        try (ReceiptFileStore store = new ReceiptFileStore(directory)) {
+            journal.forEach(receipt -> {
+                if (failure[0] != null) return;
+                try {
+                    store.write(receipt);
+                    store.flush(false);
+                    exported[0]++;
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+        }
+        if (failure[0] != null) throw failure[0];
+        return exported[0];
+    }
+}
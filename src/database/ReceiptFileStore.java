@@ -0,0 +1,113 @@
+package database;
+
+import model.Receipt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores every receipt as a text check file named after the digits of its order number,
+ * in the format written by {@link controller.OrderController#createOrderCheck}.
+ *
+ * Written files are kept open until the next {@link #flush(boolean)}. A forced flush syncs the data of every
+ * file of the batch and then the directory once, so the new directory entries survive a crash too. Every check
+ * file still costs its own data sync; for one disk sync per batch, write to the single-log
+ * {@link ReceiptJournal} and render the check files from it.
+ */
+public class ReceiptFileStore implements ReceiptSink {
+    private final Path directory;
+    private final List<FileChannel> pendingChannels;
+
+    /**
+     * Constructs a store writing check files to the given directory.
+     *
+     * @param directory the directory of the check files
+     * @throws IllegalArgumentException if the directory is null
+     */
+    public ReceiptFileStore(Path directory) {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+
+        this.directory = directory;
+        this.pendingChannels = new ArrayList<>();
+    }
+
+    /**
+     * Returns the path of the check file for an order number.
+     *
+     * @param orderNumber the order number
+     * @return the path of the check file
+     * @throws IllegalArgumentException if the order number contains no digits
+     */
+    public Path pathOf(String orderNumber) {
+        String numberOnly = orderNumber.replaceAll("[^0-9]", "");
+        if (numberOnly.isEmpty()) throw new IllegalArgumentException("Order number contains no digits");
+
+        return directory.resolve(numberOnly + ".txt");
+    }
+
+    @Override
+    public void write(Receipt receipt) throws IOException {
+        Path path = pathOf(receipt.getOrderNumber());
+        Files.createDirectories(directory);
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        pendingChannels.add(channel);
+
+        ByteBuffer buffer = ByteBuffer.wrap(receipt.toText().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void flush(boolean force) throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : pendingChannels) {
+            try {
+                if (force && failure == null) channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        boolean created = !pendingChannels.isEmpty();
+        pendingChannels.clear();
+        if (failure == null && force && created) {
+            forceDirectory();
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Syncs the directory, so the check files created in it are found after a crash. Some platforms,
+     * such as Windows, cannot open a directory as a channel; there the entries are synced with the files.
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel directoryChannel;
+        try {
+            directoryChannel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (directoryChannel) {
+            directoryChannel.force(true);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush(false);
+    }
+}
@@ -0,0 +1,463 @@
+package database;
+
+import model.Receipt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of receipts stored in memory-mapped segment files.
+ *
+ * Receipts are appended as compact binary records to the active segment; when it is full, a new segment
+ * is started. Every record is {@code [int length][int crc32][payload]}, and the length is written last, so a
+ * record that was only partly written before a crash has a zero length or a wrong checksum. Opening the
+ * journal scans all segments, rebuilds the index from order number to record position and clears such a
+ * torn tail, so appending continues right after the last complete receipt. A receipt can then be found by
+ * its order number in constant time, for example to reprint it with {@link ReceiptExporter}.
+ *
+ * The journal is thread-safe: one writer and any number of readers may use it at the same time.
+ */
+public class ReceiptJournal implements ReceiptSink {
+    /** The default size of a segment file, 8 MiB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+
+    private static final int MAGIC = 0x52435054;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MIN_SEGMENT_SIZE = 1024;
+    private static final String SEGMENT_PREFIX = "receipts-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments;
+    private final Map<String, Long> positionsByOrderNumber;
+    private final CRC32 crc;
+    private ByteBuffer recordBuffer;
+    private int writePosition;
+    private int firstDirtySegment;
+    private boolean closed;
+
+    /**
+     * Opens the journal in the given directory with the default segment size, creating it if necessary.
+     *
+     * @param directory the directory of the segment files
+     * @return the opened journal
+     * @throws IOException if the segments cannot be created or read
+     */
+    public static ReceiptJournal open(Path directory) throws IOException {
+        return new ReceiptJournal(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the journal in the given directory, creating it if necessary, and recovers from an interrupted write.
+     *
+     * @param directory the directory of the segment files
+     * @param segmentSize the size of new segment files in bytes
+     * @throws IllegalArgumentException if the directory is null or the segment size is too small
+     * @throws IOException if the segments cannot be created or read
+     */
+    public ReceiptJournal(Path directory, int segmentSize) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+        if (segmentSize < MIN_SEGMENT_SIZE) throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_SIZE);
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segments = new ArrayList<>();
+        this.positionsByOrderNumber = new HashMap<>();
+        this.crc = new CRC32();
+        this.recordBuffer = ByteBuffer.allocate(256);
+
+        Files.createDirectories(directory);
+        for (Path file : listSegmentFiles()) {
+            segments.add(Segment.map(file, 0));
+        }
+        if (segments.isEmpty()) {
+            segments.add(createSegment(0));
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            writePosition = recover(i, i == segments.size() - 1);
+        }
+        firstDirtySegment = segments.size() - 1;
+    }
+
+    /**
+     * Appends a receipt to the journal. It can be read back at once; it is durable after {@link #flush(boolean)}.
+     *
+     * @param receipt the receipt to append
+     * @throws IllegalArgumentException if the receipt does not fit into a segment
+     * @throws IOException if a new segment cannot be created
+     */
+    @Override
+    public synchronized void write(Receipt receipt) throws IOException {
+        checkOpen();
+        ByteBuffer payload = encode(receipt);
+        int recordSize = RECORD_HEADER_SIZE + payload.remaining();
+        if (SEGMENT_HEADER_SIZE + recordSize > segmentSize) {
+            throw new IllegalArgumentException("Receipt " + receipt.getOrderNumber() + " is too large for a journal segment");
+        }
+
+        if (writePosition + recordSize > segments.get(segments.size() - 1).buffer.capacity()) {
+            segments.add(createSegment(segments.size()));
+            writePosition = SEGMENT_HEADER_SIZE;
+        }
+
+        int segmentIndex = segments.size() - 1;
+        MappedByteBuffer buffer = segments.get(segmentIndex).buffer;
+        crc.reset();
+        crc.update(payload.duplicate());
+        buffer.putInt(writePosition + 4, (int) crc.getValue());
+        buffer.put(writePosition + RECORD_HEADER_SIZE, payload, payload.position(), payload.remaining());
+        buffer.putInt(writePosition, payload.remaining());
+
+        positionsByOrderNumber.put(receipt.getOrderNumber(), location(segmentIndex, writePosition));
+        writePosition += recordSize;
+    }
+
+    /**
+     * Forces the segments written since the last forced flush to the storage device.
+     * Appended receipts are visible to readers without a flush, so nothing is done unless {@code force} is set.
+     *
+     * @param force whether to force the written data to the storage device
+     */
+    @Override
+    public synchronized void flush(boolean force) {
+        if (!force || closed) return;
+
+        for (int i = firstDirtySegment; i < segments.size(); i++) {
+            segments.get(i).buffer.force();
+        }
+        firstDirtySegment = segments.size() - 1;
+    }
+
+    /**
+     * Reads the latest receipt with the given order number.
+     *
+     * @param orderNumber the order number
+     * @return the receipt, or null if the journal has no receipt with this order number
+     */
+    public synchronized Receipt read(String orderNumber) {
+        checkOpen();
+        Long location = positionsByOrderNumber.get(orderNumber);
+        if (location == null) return null;
+
+        return decode(segments.get(segmentOf(location)).buffer, offsetOf(location));
+    }
+
+    /**
+     * Checks if the journal has a receipt with the given order number.
+     *
+     * @param orderNumber the order number
+     * @return true if the receipt is in the journal, false otherwise
+     */
+    public synchronized boolean contains(String orderNumber) {
+        return positionsByOrderNumber.containsKey(orderNumber);
+    }
+
+    /**
+     * Passes every receipt of the journal to the action, in the order they were written.
+     *
+     * @param action the action to be performed for each receipt
+     */
+    public synchronized void forEach(Consumer<Receipt> action) {
+        checkOpen();
+        for (int i = 0; i < segments.size(); i++) {
+            MappedByteBuffer buffer = segments.get(i).buffer;
+            int end = i == segments.size() - 1 ? writePosition : buffer.capacity();
+            int position = SEGMENT_HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= end) {
+                int length = buffer.getInt(position);
+                if (length == 0) break;
+
+                action.accept(decode(buffer, position));
+                position += RECORD_HEADER_SIZE + length;
+            }
+        }
+    }
+
+    /**
+     * Returns the position right after the last receipt written so far. Positions only grow, so the receipts
+     * written later are found with {@link #forEachInRange(long, long, Consumer)} starting from this position.
+     *
+     * @return the end position of the journal
+     */
+    public synchronized long getEndPosition() {
+        checkOpen();
+        return location(segments.size() - 1, writePosition);
+    }
+
+    /**
+     * Returns the segment of a journal position.
+     *
+     * @param position a position returned by {@link #getEndPosition()}, or 0 for the start of the journal
+     * @return the segment index
+     */
+    public static int segmentOfPosition(long position) {
+        return segmentOf(position);
+    }
+
+    /**
+     * Returns the position of the first receipt of a segment.
+     *
+     * @param segmentIndex the segment index
+     * @return the position of the start of the segment
+     */
+    public static long segmentStartPosition(int segmentIndex) {
+        return location(segmentIndex, SEGMENT_HEADER_SIZE);
+    }
+
+    /**
+     * Passes the receipts between two positions to the action, in the order they were written.
+     *
+     * Receipts are never changed once written, so the records are read without holding the journal's lock,
+     * and several ranges can be read in parallel while the journal is being appended to.
+     *
+     * @param fromPosition the position to start at, 0 for the start of the journal
+     * @param toPosition the position to stop at, at most {@link #getEndPosition()}
+     * @param action the action to be performed for each receipt
+     * @return the number of receipts read
+     */
+    public int forEachInRange(long fromPosition, long toPosition, Consumer<Receipt> action) {
+        int firstSegment = segmentOf(fromPosition);
+        int lastSegment = segmentOf(toPosition);
+        MappedByteBuffer[] buffers = new MappedByteBuffer[Math.max(0, lastSegment - firstSegment + 1)];
+        synchronized (this) {
+            checkOpen();
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = segments.get(firstSegment + i).buffer;
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            MappedByteBuffer buffer = buffers[i];
+            int position = i == 0 ? Math.max(offsetOf(fromPosition), SEGMENT_HEADER_SIZE) : SEGMENT_HEADER_SIZE;
+            int end = i == buffers.length - 1 ? offsetOf(toPosition) : buffer.capacity();
+            while (position + RECORD_HEADER_SIZE <= end) {
+                int length = buffer.getInt(position);
+                if (length == 0) break;
+
+                action.accept(decode(buffer, position));
+                position += RECORD_HEADER_SIZE + length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of distinct order numbers in the journal.
+     *
+     * @return the number of indexed receipts
+     */
+    public synchronized int size() {
+        return positionsByOrderNumber.size();
+    }
+
+    /**
+     * Returns the number of segment files of the journal.
+     *
+     * @return the number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces all written receipts to the storage device and closes the segment files.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+
+        flush(true);
+        closed = true;
+        segments.clear();
+        positionsByOrderNumber.clear();
+    }
+
+    /**
+     * Scans a segment, indexes its complete records and, in the last segment, clears a torn tail.
+     *
+     * @return the position after the last complete record
+     */
+    private int recover(int segmentIndex, boolean last) {
+        MappedByteBuffer buffer = segments.get(segmentIndex).buffer;
+        int capacity = buffer.capacity();
+        int position = SEGMENT_HEADER_SIZE;
+
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0) return position;
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > capacity) break;
+
+            crc.reset();
+            crc.update(buffer.slice(position + RECORD_HEADER_SIZE, length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) break;
+
+            positionsByOrderNumber.put(readOrderNumber(buffer, position), location(segmentIndex, position));
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (last && position + RECORD_HEADER_SIZE <= capacity) {
+            System.out.println("Журнал чеків: відкинуто неповний запис у сегменті " + segmentIndex);
+            for (int i = position; i < capacity; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return position;
+    }
+
+    private ByteBuffer encode(Receipt receipt) {
+        byte[] orderNumber = receipt.getOrderNumber().getBytes(StandardCharsets.UTF_8);
+        byte[][] names = new byte[receipt.getLineCount()][];
+        int size = 8 + 2 + orderNumber.length + 4;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = receipt.getName(i).getBytes(StandardCharsets.UTF_8);
+            size += 4 + 4 + 8 + 2 + names[i].length;
+        }
+
+        if (recordBuffer.capacity() < size) {
+            recordBuffer = ByteBuffer.allocate(Math.max(size, recordBuffer.capacity() << 1));
+        }
+        ByteBuffer payload = recordBuffer.clear();
+        payload.putLong(receipt.getCreatedAt());
+        putString(payload, orderNumber);
+        payload.putInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            payload.putInt(receipt.getProductId(i));
+            payload.putInt(receipt.getAmount(i));
+            payload.putDouble(receipt.getPrice(i));
+            putString(payload, names[i]);
+        }
+        return payload.flip();
+    }
+
+    private static void putString(ByteBuffer payload, byte[] bytes) {
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("Text is too long for a receipt record");
+
+        payload.putShort((short) bytes.length);
+        payload.put(bytes);
+    }
+
+    private static Receipt decode(MappedByteBuffer buffer, int recordPosition) {
+        ByteBuffer payload = buffer.slice(recordPosition + RECORD_HEADER_SIZE, buffer.getInt(recordPosition));
+        long createdAt = payload.getLong();
+        String orderNumber = getString(payload);
+        int lineCount = payload.getInt();
+
+        int[] productIds = new int[lineCount];
+        String[] names = new String[lineCount];
+        int[] amounts = new int[lineCount];
+        double[] prices = new double[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            productIds[i] = payload.getInt();
+            amounts[i] = payload.getInt();
+            prices[i] = payload.getDouble();
+            names[i] = getString(payload);
+        }
+        return new Receipt(orderNumber, createdAt, productIds, names, amounts, prices);
+    }
+
+    private static String readOrderNumber(MappedByteBuffer buffer, int recordPosition) {
+        ByteBuffer payload = buffer.slice(recordPosition + RECORD_HEADER_SIZE + 8, buffer.getInt(recordPosition) - 8);
+        return getString(payload);
+    }
+
+    private static String getString(ByteBuffer payload) {
+        byte[] bytes = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Segment createSegment(int number) throws IOException {
+        Segment segment = Segment.map(directory.resolve(segmentFileName(number)), segmentSize);
+        segment.buffer.force();
+        return segment;
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size(); i++) {
+            if (!files.get(i).getFileName().toString().equals(segmentFileName(i))) {
+                throw new IOException("Missing journal segment " + segmentFileName(i));
+            }
+        }
+        return files;
+    }
+
+    private static String segmentFileName(int number) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Receipt journal is closed");
+    }
+
+    private static long location(int segmentIndex, int offset) {
+        return ((long) segmentIndex << 32) | offset;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    /**
+     * A segment file mapped into memory as a whole.
+     */
+    private static class Segment {
+        private final MappedByteBuffer buffer;
+
+        private Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Maps a segment file. A new file is created with the given size; an existing file keeps its size
+         * and must start with the journal header. A header that was never written, because the journal
+         * stopped right after creating the file, is written now.
+         */
+        static Segment map(Path file, int newSize) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                long size = channel.size() == 0 ? newSize : channel.size();
+                if (size < MIN_SEGMENT_SIZE) throw new IOException("Not a receipt journal segment: " + file);
+
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                if (buffer.getInt(0) == 0 && buffer.getInt(4) == 0) {
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, FORMAT_VERSION);
+                }
+                if (buffer.getInt(0) != MAGIC) throw new IOException("Not a receipt journal segment: " + file);
+                if (buffer.getInt(4) != FORMAT_VERSION) throw new IOException("Unsupported receipt journal version in " + file);
+
+                return new Segment(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package database;
+
+import model.Receipt;
+
+import java.io.IOException;
+
+/**
+ * Durable storage for order receipts.
+ *
+ * {@link #write(Receipt)} may buffer a receipt; it becomes visible to readers after the next
+ * {@link #flush(boolean)}, and survives a crash of the machine only after a flush with {@code force} set.
+ * Implementations are used by a single writer thread and need not be thread-safe.
+ */
+public interface ReceiptSink extends AutoCloseable {
+    /**
+     * Writes a receipt.
+     *
+     * @param receipt the receipt to write
+     * @throws IOException if the receipt cannot be written
+     */
+    void write(Receipt receipt) throws IOException;
+
+    /**
+     * Completes all receipts written since the last flush.
+     *
+     * @param force whether to force the written data to the storage device
+     * @throws IOException if the data cannot be flushed
+     */
+    void flush(boolean force) throws IOException;
+
+    /**
+     * Flushes the pending receipts and releases the sink's resources.
+     *
+     * @throws IOException if the pending receipts cannot be flushed
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,117 @@
+package database;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Claims a terminal ID that no other terminal sharing the same directory is using.
+ *
+ * Every ID has a lock file in the directory, and a terminal holds the lock of its ID while the lease is open.
+ * Terminals that write their checks to the same directory therefore never get the same ID, so they never
+ * generate the same order number and overwrite each other's checks. The operating system releases the lock
+ * when the process ends, so the ID of a crashed terminal can be claimed again without any clean-up.
+ */
+public class TerminalIdLease implements AutoCloseable {
+    private static final String LOCK_PREFIX = "terminal-";
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private final int terminalId;
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private TerminalIdLease(int terminalId, FileChannel channel, FileLock lock) {
+        this.terminalId = terminalId;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Claims the given terminal ID.
+     *
+     * @param directory the directory shared by the terminals
+     * @param terminalId the ID to claim
+     * @return the lease of the ID
+     * @throws IllegalArgumentException if the directory is null or the ID is negative
+     * @throws IllegalStateException if another terminal is already using the ID
+     * @throws IOException if the lock file cannot be created
+     */
+    public static TerminalIdLease claim(Path directory, int terminalId) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+        if (terminalId < 0) throw new IllegalArgumentException("Terminal ID cannot be negative");
+
+        Files.createDirectories(directory);
+        TerminalIdLease lease = tryClaim(directory, terminalId);
+        if (lease == null) throw new IllegalStateException("Terminal ID " + terminalId + " is already used by another terminal");
+        return lease;
+    }
+
+    /**
+     * Claims the lowest terminal ID that no other terminal is using.
+     *
+     * @param directory the directory shared by the terminals
+     * @param maxTerminalId the largest allowed ID
+     * @return the lease of the ID
+     * @throws IllegalArgumentException if the directory is null or the largest ID is negative
+     * @throws IllegalStateException if all IDs are in use
+     * @throws IOException if a lock file cannot be created
+     */
+    public static TerminalIdLease claimFree(Path directory, int maxTerminalId) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+        if (maxTerminalId < 0) throw new IllegalArgumentException("Largest terminal ID cannot be negative");
+
+        Files.createDirectories(directory);
+        for (int terminalId = 0; terminalId <= maxTerminalId; terminalId++) {
+            TerminalIdLease lease = tryClaim(directory, terminalId);
+            if (lease != null) return lease;
+        }
+        throw new IllegalStateException("All terminal IDs up to " + maxTerminalId + " are in use");
+    }
+
+    private static TerminalIdLease tryClaim(Path directory, int terminalId) throws IOException {
+        Path file = directory.resolve(LOCK_PREFIX + terminalId + LOCK_SUFFIX);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // the ID is already claimed within this JVM
+            lock = null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            return null;
+        }
+        return new TerminalIdLease(terminalId, channel, lock);
+    }
+
+    /**
+     * Returns the claimed terminal ID.
+     *
+     * @return the terminal ID
+     */
+    public int getTerminalId() {
+        return terminalId;
+    }
+
+    /**
+     * Gives the ID back, so another terminal can claim it.
+     *
+     * @throws IOException if the lock file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free counter of events. Concurrent increments are spread over several cells, so threads
+ * incrementing the same counter do not contend.
+ */
+public class Counter implements CounterMXBean {
+    private final String name;
+    private final LongAdder value;
+
+    /**
+     * Constructs a counter starting at zero.
+     *
+     * @param name the name of the counted event
+     */
+    public Counter(String name) {
+        this.name = name;
+        this.value = new LongAdder();
+    }
+
+    /**
+     * Counts one event.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Counts several events.
+     *
+     * @param events the number of events
+     */
+    public void add(long events) {
+        value.add(events);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return value.sum();
+    }
+}
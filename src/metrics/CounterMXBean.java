@@ -0,0 +1,20 @@
+package metrics;
+
+/**
+ * The JMX view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+    /**
+     * Returns the name of the counted event.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns the number of counted events.
+     *
+     * @return the count
+     */
+    long getCount();
+}
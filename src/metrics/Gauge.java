@@ -0,0 +1,52 @@
+package metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value that is sampled when it is read, such as the size of the catalog or the depth of a queue.
+ *
+ * The value is either set with {@link #set(long)} or read from a supplier bound with {@link #bind(LongSupplier)}.
+ */
+public class Gauge implements GaugeMXBean {
+    private final String name;
+    private volatile long value;
+    private volatile LongSupplier supplier;
+
+    /**
+     * Constructs a gauge with the value 0.
+     *
+     * @param name the name of the measured value
+     */
+    public Gauge(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Sets the value of the gauge.
+     *
+     * @param value the new value
+     */
+    public void set(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Makes the gauge read its value from the supplier, replacing a set value or an earlier supplier.
+     *
+     * @param supplier the supplier of the value, or null to use the set value again
+     */
+    public void bind(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getValue() {
+        LongSupplier current = supplier;
+        return current == null ? value : current.getAsLong();
+    }
+}
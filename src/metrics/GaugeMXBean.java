@@ -0,0 +1,20 @@
+package metrics;
+
+/**
+ * The JMX view of a {@link Gauge}.
+ */
+public interface GaugeMXBean {
+    /**
+     * Returns the name of the measured value.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns the current value.
+     *
+     * @return the value
+     */
+    long getValue();
+}
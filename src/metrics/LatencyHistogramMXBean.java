@@ -0,0 +1,55 @@
+package metrics;
+
+/**
+ * The JMX view of a {@link LatencyHistogram}.
+ */
+public interface LatencyHistogramMXBean {
+    /**
+     * Returns the name of the measured operation.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the count
+     */
+    long getCount();
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean in milliseconds
+     */
+    double getMeanMillis();
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return the maximum in milliseconds
+     */
+    double getMaxMillis();
+
+    /**
+     * Returns the median latency.
+     *
+     * @return the 50th percentile in milliseconds
+     */
+    double getP50Millis();
+
+    /**
+     * Returns the 95th percentile latency.
+     *
+     * @return the 95th percentile in milliseconds
+     */
+    double getP95Millis();
+
+    /**
+     * Returns the 99th percentile latency.
+     *
+     * @return the 99th percentile in milliseconds
+     */
+    double getP99Millis();
+}
@@ -0,0 +1,28 @@
+package metrics;
+
+/**
+ * The instruments of the till's hot paths, in the default {@link MetricsRegistry}.
+ */
+public final class Metrics {
+    /** Time to load the whole assortment from the database. */
+    public static final LatencyHistogram CATALOG_LOAD = MetricsRegistry.getDefault().histogram("catalog.load");
+    /** Time to build a table model from an assortment. */
+    public static final LatencyHistogram TABLE_MODEL_BUILD = MetricsRegistry.getDefault().histogram("table.model.build");
+    /** Time to write one order check on the caller's thread. */
+    public static final LatencyHistogram RECEIPT_WRITE = MetricsRegistry.getDefault().histogram("receipt.write");
+    /** Time to write and flush one batch of receipts on the writer thread. */
+    public static final LatencyHistogram RECEIPT_BATCH = MetricsRegistry.getDefault().histogram("receipt.batch");
+    /** Number of receipts written. */
+    public static final Counter RECEIPTS_WRITTEN = MetricsRegistry.getDefault().counter("receipts.written");
+    /** Number of receipts that could not be written. */
+    public static final Counter RECEIPTS_FAILED = MetricsRegistry.getDefault().counter("receipts.failed");
+    /** Number of products in the last loaded catalog. */
+    public static final Gauge CATALOG_SIZE = MetricsRegistry.getDefault().gauge("catalog.size");
+    /** Number of products in the cart of the last selection. */
+    public static final Gauge CART_SIZE = MetricsRegistry.getDefault().gauge("cart.size");
+    /** Number of receipts waiting to be written. */
+    public static final Gauge RECEIPT_QUEUE_DEPTH = MetricsRegistry.getDefault().gauge("receipt.queue.depth");
+
+    private Metrics() {
+    }
+}
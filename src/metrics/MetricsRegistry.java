@@ -0,0 +1,159 @@
+package metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A named set of histograms, counters and gauges.
+ *
+ * Instruments are created once, when they are first asked for, and are then recorded to directly, so the
+ * registry itself is never on a hot path. The registry can publish its instruments as JMX MXBeans under
+ * the {@code till} domain and print a snapshot of all of them at a fixed rate.
+ */
+public class MetricsRegistry {
+    private static final String JMX_DOMAIN = "till";
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, Counter> counters;
+    private final Map<String, Gauge> gauges;
+
+    /**
+     * Constructs an empty registry.
+     */
+    public MetricsRegistry() {
+        histograms = new ConcurrentHashMap<>();
+        counters = new ConcurrentHashMap<>();
+        gauges = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the registry shared by the whole application.
+     *
+     * @return the default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it if necessary.
+     *
+     * @param name the name of the histogram
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Returns the counter with the given name, creating it if necessary.
+     *
+     * @param name the name of the counter
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Returns the gauge with the given name, creating it if necessary.
+     *
+     * @param name the name of the gauge
+     * @return the gauge
+     */
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, Gauge::new);
+    }
+
+    /**
+     * Registers all instruments of this registry with the platform MBean server.
+     * Instruments that are already registered are skipped, so this method can be called again
+     * after new instruments were created.
+     *
+     * @throws IllegalStateException if an instrument cannot be registered
+     */
+    public void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (LatencyHistogram histogram : histograms.values()) {
+                register(server, "Histogram", histogram.getName(), histogram);
+            }
+            for (Counter counter : counters.values()) {
+                register(server, "Counter", counter.getName(), counter);
+            }
+            for (Gauge gauge : gauges.values()) {
+                register(server, "Gauge", gauge.getName(), gauge);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics MBeans", e);
+        }
+    }
+
+    /**
+     * Prints a snapshot of all instruments to the stream at a fixed rate, on a daemon thread.
+     *
+     * @param out the stream to print to
+     * @param period the time between two snapshots
+     * @param unit the unit of the period
+     * @return the scheduled dump; cancel it to stop dumping
+     * @throws IllegalArgumentException if the stream is null or the period is not positive
+     */
+    public ScheduledFuture<?> startPeriodicDump(PrintStream out, long period, TimeUnit unit) {
+        if (out == null) throw new IllegalArgumentException("Output stream cannot be null");
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive");
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledFuture<?> dump = scheduler.scheduleAtFixedRate(() -> out.print(snapshot()), period, period, unit);
+        scheduler.shutdown();
+        return dump;
+    }
+
+    /**
+     * Renders the current values of all instruments, one line per instrument, sorted by name.
+     *
+     * @return the snapshot text
+     */
+    public String snapshot() {
+        StringBuilder text = new StringBuilder();
+        for (LatencyHistogram histogram : new TreeMap<>(histograms).values()) {
+            text.append(String.format("%-24s count=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms%n",
+                    histogram.getName(), histogram.getCount(), histogram.getMeanMillis(), histogram.getP50Millis(),
+                    histogram.getP95Millis(), histogram.getP99Millis(), histogram.getMaxMillis()));
+        }
+        for (Counter counter : new TreeMap<>(counters).values()) {
+            text.append(String.format("%-24s count=%d%n", counter.getName(), counter.getCount()));
+        }
+        for (Gauge gauge : new TreeMap<>(gauges).values()) {
+            text.append(String.format("%-24s value=%d%n", gauge.getName(), gauge.getValue()));
+        }
+        return text.toString();
+    }
+
+    private static void register(MBeanServer server, String type, String name, Object instrument) throws JMException {
+        ObjectName objectName = new ObjectName(JMX_DOMAIN, new Hashtable<>(Map.of("type", type, "name", ObjectName.quote(name))));
+        if (server.isRegistered(objectName)) return;
+
+        try {
+            server.registerMBean(instrument, objectName);
+        } catch (InstanceAlreadyExistsException ignored) {
+            // registered by a concurrent call
+        }
+    }
+}
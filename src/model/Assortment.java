@@ -1,16 +1,41 @@
 package model;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 public class Assortment {
-    private Map<Product, Integer> productList;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NOT_FOUND = -1;
+    private static final StockChangeListener[] NO_LISTENERS = new StockChangeListener[0];
+
+    private IntIntHashMap positionsById;
+    private Product[] products;
+    private int[] amounts;
+    private int size;
+    private Map<String, Product> productsByName;
+    private Map<String, List<Product>> namesakesByName;
+    private Map<Product, Integer> assortmentView;
+    private volatile ProductSearchIndex searchIndex;
+    private volatile StockChangeListener[] listeners = NO_LISTENERS;
 
     /**
      * Constructs a new Assortment instance with an empty product list.
      */
     public Assortment() {
-        productList = new HashMap<Product, Integer>();
+        positionsById = new IntIntHashMap(INITIAL_CAPACITY);
+        products = new Product[INITIAL_CAPACITY];
+        amounts = new int[INITIAL_CAPACITY];
+        productsByName = new HashMap<String, Product>();
+        namesakesByName = new HashMap<String, List<Product>>();
     }
 
     /**
@@ -28,12 +53,211 @@ public class Assortment {
         if (product == null) throw new IllegalArgumentException("Product is null");
         if (amount < 0) throw new IllegalArgumentException("Amount cannot be negative");
 
-        if (productList.containsKey(product)) {
-            productList.put(product, productList.get(product) + amount);
+        int position = positionsById.get(product.getId(), NOT_FOUND);
+        if (position != NOT_FOUND) {
+            int oldAmount = amounts[position];
+            amounts[position] += amount;
+            amountChanged(position, products[position], oldAmount, amounts[position]);
+            if (amount != 0) {
+                fireStockChanged(StockChangeEvent.Type.CHANGED, products[position], oldAmount, amounts[position]);
+            }
             return;
         }
 
-        productList.put(product, amount);
+        insertProduct(product, amount);
+    }
+
+    /**
+     * Sets the amount of a product in the assortment, replacing any previous amount.
+     * If the product does not exist in the assortment, it is added with the specified amount.
+     *
+     * @param product The product whose amount is to be set.
+     * @param amount  The new amount of the product.
+     * @throws IllegalArgumentException if the provided product is null or the amount is negative.
+     */
+    public void setAmount(Product product, int amount) {
+        if (product == null) throw new IllegalArgumentException("Product is null");
+        if (amount < 0) throw new IllegalArgumentException("Amount cannot be negative");
+
+        int position = positionsById.get(product.getId(), NOT_FOUND);
+        if (position != NOT_FOUND) {
+            int oldAmount = amounts[position];
+            amounts[position] = amount;
+            amountChanged(position, products[position], oldAmount, amount);
+            if (oldAmount != amount) {
+                fireStockChanged(StockChangeEvent.Type.CHANGED, products[position], oldAmount, amount);
+            }
+            return;
+        }
+
+        insertProduct(product, amount);
+    }
+
+    /**
+     * Returns the amount of the product with the specified ID.
+     *
+     * @param productID the ID of the product
+     * @return the amount of the product, or 0 if the product is not in the assortment
+     */
+    public int getAmount(int productID) {
+        int position = positionsById.get(productID, NOT_FOUND);
+        return position == NOT_FOUND ? 0 : amounts[position];
+    }
+
+    /**
+     * Checks if the product with the specified ID is in the assortment.
+     *
+     * @param productID the ID of the product
+     * @return true if the product is in the assortment, false otherwise
+     */
+    public boolean containsProduct(int productID) {
+        return positionsById.containsKey(productID);
+    }
+
+    /**
+     * Returns the product with the specified ID.
+     *
+     * @param productID the ID of the product
+     * @return the product with the specified ID, or null if it is not in the assortment
+     */
+    public Product getProductById(int productID) {
+        int position = positionsById.get(productID, NOT_FOUND);
+        return position == NOT_FOUND ? null : products[position];
+    }
+
+    /**
+     * Returns the product with exactly the specified name.
+     *
+     * @param name the name of the product
+     * @return the product with the specified name, or null if it is not in the assortment
+     */
+    public Product getProductByName(String name) {
+        if (name == null) return null;
+
+        return productsByName.get(name);
+    }
+
+    /**
+     * Renames the product with the specified ID and updates the name index.
+     * The product is replaced by a renamed copy, so other assortments sharing the product instance,
+     * for example through a {@link ProductRegistry}, keep a name index that matches their instance.
+     *
+     * @param productID the ID of the product
+     * @param newName the new product name
+     * @return true if the product was renamed, false if it is not in the assortment
+     * @throws IllegalArgumentException if the new name is null or empty
+     */
+    public boolean renameProduct(int productID, String newName) {
+        if (newName == null || newName.isEmpty()) throw new IllegalArgumentException("Product name cannot be null or empty");
+
+        int position = positionsById.get(productID, NOT_FOUND);
+        if (position == NOT_FOUND) return false;
+
+        Product renamed = new Product(products[position]);
+        renamed.setName(newName);
+        replaceAt(position, renamed);
+        return true;
+    }
+
+    /**
+     * Replaces the product with the same ID by the given instance, keeping its amount and position,
+     * for example with the canonical instance of a renamed product from a {@link ProductRegistry}.
+     *
+     * @param product the new instance of the product
+     * @return true if the product was replaced, false if no product with its ID is in the assortment
+     * @throws IllegalArgumentException if the product is null
+     */
+    public boolean replaceProduct(Product product) {
+        if (product == null) throw new IllegalArgumentException("Product is null");
+
+        int position = positionsById.get(product.getId(), NOT_FOUND);
+        if (position == NOT_FOUND) return false;
+        if (products[position] != product) {
+            replaceAt(position, product);
+        }
+        return true;
+    }
+
+    private void replaceAt(int position, Product replacement) {
+        Product replaced = products[position];
+        products[position] = replacement;
+        if (replaced.getName().equals(replacement.getName())) {
+            replaceInNameIndex(replaced, replacement);
+        } else {
+            unindexName(replaced);
+            indexName(replacement);
+        }
+        if (searchIndex != null) {
+            searchIndex.add(replacement.getId(), replacement.getName());
+        }
+        fireStockChanged(StockChangeEvent.Type.CHANGED, replacement, amounts[position], amounts[position]);
+    }
+
+    /**
+     * Returns the name search index of this assortment.
+     * The index is built on the first call and then kept up to date on every change of the assortment.
+     * Building the index is synchronized, so readers sharing an assortment that is no longer changed may
+     * call this method from several threads at once.
+     *
+     * @return the search index over the product names
+     */
+    public ProductSearchIndex getSearchIndex() {
+        ProductSearchIndex index = searchIndex;
+        if (index != null) return index;
+
+        synchronized (this) {
+            if (searchIndex == null) {
+                ProductSearchIndex built = new ProductSearchIndex();
+                for (int i = 0; i < size; i++) {
+                    built.add(products[i].getId(), products[i].getName());
+                }
+                searchIndex = built;
+            }
+            return searchIndex;
+        }
+    }
+
+    /**
+     * Returns the number of distinct products in the assortment.
+     *
+     * @return the number of products
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the product stored at the given position.
+     * Positions are dense, run from 0 to {@link #size()} - 1 and may change when a product is removed.
+     *
+     * @param position the position of the product
+     * @return the product at the given position
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public Product getProductAt(int position) {
+        return products[checkPosition(position)];
+    }
+
+    /**
+     * Returns the amount of the product stored at the given position.
+     *
+     * @param position the position of the product
+     * @return the amount of the product at the given position
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public int getAmountAt(int position) {
+        return amounts[checkPosition(position)];
+    }
+
+    /**
+     * Passes every product and its amount to the given action without boxing the amounts.
+     *
+     * @param action the action to be performed for each product
+     */
+    public void forEachProduct(ObjIntConsumer<Product> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(products[i], amounts[i]);
+        }
     }
 
     /**
@@ -42,7 +266,7 @@ public class Assortment {
      * @return true if there are no products in the assortment, false otherwise.
      */
     public boolean isEmpty() {
-        return productList.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -55,23 +279,27 @@ public class Assortment {
     public String toString() {
         StringBuilder resultString = new StringBuilder("Assortment:\n");
 
-        for (Map.Entry<Product, Integer> entry : productList.entrySet()) {
-            Product product = entry.getKey();
-            Integer amount = entry.getValue();
-            resultString.append(product.toString()).append("amount: ").append(amount).append("\n-----------\n");
+        for (int i = 0; i < size; i++) {
+            resultString.append(products[i].toString()).append("amount: ").append(amounts[i]).append("\n-----------\n");
         }
         return resultString.toString();
     }
 
     /**
      * Retrieves the current assortment of products and their quantities.
-     * This method returns a map where each key is a {@link Product} object and each value is an integer
-     * representing the quantity of that product in the assortment.
+     * This method returns a read-only map where each key is a {@link Product} object and each value is an integer
+     * representing the quantity of that product in the assortment. The map is a lazy view over the
+     * primitive storage, so amounts are only boxed when a caller reads them through the view. Changes
+     * must go through {@link #addProduct(Product, int)}, {@link #setAmount(Product, int)} and the remove
+     * methods so that the id and name indexes stay consistent.
      *
-     * @return A {@link Map} of {@link Product} to {@link Integer} mapping each product to its quantity.
+     * @return A read-only {@link Map} of {@link Product} to {@link Integer} mapping each product to its quantity.
      */
     public Map<Product, Integer> getAssortment() {
-        return productList;
+        if (assortmentView == null) {
+            assortmentView = new AssortmentView();
+        }
+        return assortmentView;
     }
 
     /**
@@ -80,13 +308,312 @@ public class Assortment {
      * @param productID the ID of the product to be removed
      */
     public void removeProductByProductID(int productID) {
-        for (Product product : productList.keySet()) {
-            if (product.getId() == productID) {
-                productList.remove(product);
-                System.out.println("Product with ID " + productID + " has been removed from the selected assortment.");
+        if (!removeProduct(productID)) {
+            System.out.println("Product with ID " + productID + " not found in the assortment.");
+            return;
+        }
+
+        System.out.println("Product with ID " + productID + " has been removed from the selected assortment.");
+    }
+
+    /**
+     * Removes the product with the specified ID from the assortment without reporting it to the console.
+     *
+     * @param productID the ID of the product to be removed
+     * @return true if a product was removed, false if no product has this ID
+     */
+    public boolean removeProduct(int productID) {
+        int position = positionsById.get(productID, NOT_FOUND);
+        if (position == NOT_FOUND) return false;
+
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Removes the product with exactly the specified name from the assortment.
+     *
+     * @param name the name of the product to be removed
+     * @return true if a product was removed, false if no product has this name
+     */
+    public boolean removeProductByName(String name) {
+        Product product = getProductByName(name);
+        if (product == null) return false;
+
+        removeAt(positionsById.get(product.getId(), NOT_FOUND));
+        return true;
+    }
+
+    /**
+     * Appends a new product to the dense arrays and adds it to the id and name indexes
+     * and, once it has been built, to the search index.
+     * If another product already uses the same name, the first one stays indexed.
+     *
+     * @param product the product to insert
+     * @param amount the amount of the product
+     */
+    private void insertProduct(Product product, int amount) {
+        if (size == products.length) {
+            products = Arrays.copyOf(products, size << 1);
+            amounts = Arrays.copyOf(amounts, size << 1);
+        }
+
+        products[size] = product;
+        amounts[size] = amount;
+        positionsById.put(product.getId(), size);
+        indexName(product);
+        size++;
+        if (searchIndex != null) {
+            searchIndex.add(product.getId(), product.getName());
+        }
+        amountChanged(size - 1, product, 0, amount);
+        fireStockChanged(StockChangeEvent.Type.ADDED, product, 0, amount);
+    }
+
+    /**
+     * Removes the product at the given position by moving the last product into its place,
+     * and removes it from both indexes.
+     *
+     * @param position the position of the product to remove
+     */
+    private void removeAt(int position) {
+        Product product = products[position];
+        int oldAmount = amounts[position];
+        int last = --size;
+
+        if (position != last) {
+            products[position] = products[last];
+            amounts[position] = amounts[last];
+            positionsById.put(products[position].getId(), position);
+        }
+        products[last] = null;
+        amounts[last] = 0;
+        positionsById.remove(product.getId());
+        unindexName(product);
+        if (searchIndex != null) {
+            searchIndex.remove(product.getId());
+        }
+        productRemoved(position, product, oldAmount);
+        fireStockChanged(StockChangeEvent.Type.REMOVED, product, oldAmount, 0);
+    }
+
+    /**
+     * Returns the position of the product with the specified ID, as used by {@link #getProductAt(int)}.
+     *
+     * @param productID the ID of the product
+     * @return the position, or -1 if the product is not in the assortment
+     */
+    protected int positionOf(int productID) {
+        return positionsById.get(productID, NOT_FOUND);
+    }
+
+    /**
+     * Called after a product was added to the assortment or its amount changed.
+     * Subclasses such as {@link Cart} override it to keep derived values per position current; the default does nothing.
+     * A product that was just added is at the last position.
+     *
+     * @param position the position of the product
+     * @param product the product whose amount changed
+     * @param oldAmount the previous amount, 0 if the product was just added
+     * @param newAmount the new amount
+     */
+    protected void amountChanged(int position, Product product, int oldAmount, int newAmount) {
+    }
+
+    /**
+     * Called after a product was removed from the assortment. Unless the removed product was the last one,
+     * the product that was last has been moved into its position. The default does nothing.
+     *
+     * @param position the position the product was removed from
+     * @param product the removed product
+     * @param oldAmount the amount the product had before it was removed
+     */
+    protected void productRemoved(int position, Product product, int oldAmount) {
+    }
+
+    /**
+     * Registers a listener that is told about every product added to, changed in or removed from the assortment.
+     * Listeners are called synchronously on the thread that changes the assortment; to update the UI,
+     * wrap them in a {@code controller.StockChangeCoalescer}.
+     *
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public synchronized void addStockChangeListener(StockChangeListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener is null");
+
+        StockChangeListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Removes a listener registered with {@link #addStockChangeListener(StockChangeListener)}.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was registered, false otherwise
+     */
+    public synchronized boolean removeStockChangeListener(StockChangeListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                StockChangeListener[] updated = new StockChangeListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells the listeners about a change. Nothing is allocated while there are no listeners.
+     */
+    private void fireStockChanged(StockChangeEvent.Type type, Product product, int oldAmount, int newAmount) {
+        StockChangeListener[] current = listeners;
+        if (current.length == 0) return;
+
+        StockChangeEvent event = new StockChangeEvent(this, type, product, oldAmount, newAmount);
+        for (StockChangeListener listener : current) {
+            listener.stockChanged(event);
+        }
+    }
+
+    /**
+     * Adds the product to the name index. If another product already owns the name, the product waits
+     * in the list of its namesakes, so removing the owner never has to search the assortment.
+     *
+     * @param product the product to add to the name index
+     */
+    private void indexName(Product product) {
+        String name = product.getName();
+        if (productsByName.putIfAbsent(name, product) != null) {
+            namesakesByName.computeIfAbsent(name, key -> new ArrayList<>(2)).add(product);
+        }
+    }
+
+    /**
+     * Removes the product from the name index. When the product owned its name,
+     * the next product added with the same name (if any) takes its place. Only the products sharing the
+     * name are looked at, so the cost does not depend on the size of the assortment.
+     *
+     * @param product the product to remove from the name index
+     */
+    private void unindexName(Product product) {
+        String name = product.getName();
+        List<Product> namesakes = namesakesByName.get(name);
+        if (productsByName.get(name) == product) {
+            if (namesakes == null) {
+                productsByName.remove(name);
                 return;
             }
+            productsByName.put(name, namesakes.remove(0));
+        } else if (namesakes == null || !removeSame(namesakes, product)) {
+            return;
+        }
+        if (namesakes.isEmpty()) {
+            namesakesByName.remove(name);
+        }
+    }
+
+    /**
+     * Puts a new instance with the same name in the place of a product in the name index.
+     */
+    private void replaceInNameIndex(Product replaced, Product replacement) {
+        String name = replaced.getName();
+        if (productsByName.get(name) == replaced) {
+            productsByName.put(name, replacement);
+            return;
+        }
+        List<Product> namesakes = namesakesByName.get(name);
+        if (namesakes == null) return;
+
+        for (int i = 0; i < namesakes.size(); i++) {
+            if (namesakes.get(i) == replaced) {
+                namesakes.set(i, replacement);
+                return;
+            }
+        }
+    }
+
+    private static boolean removeSame(List<Product> namesakes, Product product) {
+        for (int i = 0; i < namesakes.size(); i++) {
+            if (namesakes.get(i) == product) {
+                namesakes.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        return position;
+    }
+
+    /**
+     * Read-only {@link Map} view over the dense product and amount arrays.
+     */
+    private class AssortmentView extends AbstractMap<Product, Integer> {
+        private Set<Map.Entry<Product, Integer>> entrySet;
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return positionOf(key) != NOT_FOUND;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int position = positionOf(key);
+            return position == NOT_FOUND ? null : amounts[position];
+        }
+
+        @Override
+        public Set<Map.Entry<Product, Integer>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Map.Entry<Product, Integer>>() {
+                    @Override
+                    public Iterator<Map.Entry<Product, Integer>> iterator() {
+                        return new Iterator<Map.Entry<Product, Integer>>() {
+                            private int next = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < size;
+                            }
+
+                            @Override
+                            public Map.Entry<Product, Integer> next() {
+                                if (next >= size) throw new NoSuchElementException();
+
+                                Map.Entry<Product, Integer> entry =
+                                        new AbstractMap.SimpleImmutableEntry<>(products[next], amounts[next]);
+                                next++;
+                                return entry;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        private int positionOf(Object key) {
+            if (!(key instanceof Product)) return NOT_FOUND;
+
+            return positionsById.get(((Product) key).getId(), NOT_FOUND);
         }
-        System.out.println("Product with ID " + productID + " not found in the assortment.");
     }
 }
@@ -0,0 +1,134 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * An assortment of selected products that keeps its totals up to date.
+ *
+ * Every add, quantity change and removal updates the running total, the item count and the subtotal of the
+ * changed line, so {@link #getTotalMinor()} and {@link #getItemCount()} are O(1) however many lines the cart
+ * has. A cart can be passed wherever the selected assortment is expected, for example to
+ * {@link controller.SelectProductController#fillAssortmentWithSelectedProduct} and
+ * {@link controller.TableController#deleteSelectedRow}.
+ *
+ * The unit price of a line is taken when the product is added to the cart, and {@link Receipt#of} prints these
+ * captured prices, so the printed check always matches {@link #getTotalMinor()}. After products were repriced,
+ * {@link #repriceLines()} takes the current prices. The captured prices and subtotals are kept per position of
+ * the assortment, so the cart needs no index of its own.
+ */
+public class Cart extends Assortment {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] unitPricesMinor;
+    private long[] subtotalsMinor;
+    private int lineCount;
+    private long totalMinor;
+    private long itemCount;
+
+    /**
+     * Constructs an empty cart.
+     */
+    public Cart() {
+        unitPricesMinor = new long[INITIAL_CAPACITY];
+        subtotalsMinor = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the total price of the cart.
+     *
+     * @return the total price in minor units
+     */
+    public long getTotalMinor() {
+        return totalMinor;
+    }
+
+    /**
+     * Returns the total price of the cart, formatted as by {@link Money#format(long)}.
+     *
+     * @return the formatted total price
+     */
+    public String getFormattedTotal() {
+        return Money.format(totalMinor);
+    }
+
+    /**
+     * Returns the number of items in the cart, counting every unit of every product.
+     *
+     * @return the number of items
+     */
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Returns the subtotal of the line of a product.
+     *
+     * @param productID the ID of the product
+     * @return the subtotal in minor units, or 0 if the product is not in the cart
+     */
+    public long getLineSubtotalMinor(int productID) {
+        int position = positionOf(productID);
+        return position < 0 ? 0 : subtotalsMinor[position];
+    }
+
+    /**
+     * Returns the unit price captured for the line at the given position.
+     *
+     * @param position the position of the line, as used by {@link #getProductAt(int)}
+     * @return the unit price in minor units
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public long getUnitPriceMinorAt(int position) {
+        if (position < 0 || position >= lineCount) throw new IndexOutOfBoundsException("Position " + position + " out of bounds");
+
+        return unitPricesMinor[position];
+    }
+
+    /**
+     * Takes the current price of every product in the cart and recalculates the totals.
+     */
+    public void repriceLines() {
+        totalMinor = 0;
+        for (int position = 0; position < lineCount; position++) {
+            unitPricesMinor[position] = getProductAt(position).getPriceMinor();
+            subtotalsMinor[position] = Math.multiplyExact(unitPricesMinor[position], getAmountAt(position));
+            totalMinor = Math.addExact(totalMinor, subtotalsMinor[position]);
+        }
+    }
+
+    @Override
+    protected void amountChanged(int position, Product product, int oldAmount, int newAmount) {
+        if (position == lineCount) {
+            appendLine(product);
+        }
+
+        long subtotal = Math.multiplyExact(unitPricesMinor[position], newAmount);
+        totalMinor = Math.addExact(totalMinor, subtotal - subtotalsMinor[position]);
+        subtotalsMinor[position] = subtotal;
+        itemCount += newAmount - oldAmount;
+    }
+
+    @Override
+    protected void productRemoved(int position, Product product, int oldAmount) {
+        totalMinor -= subtotalsMinor[position];
+        itemCount -= oldAmount;
+
+        int last = --lineCount;
+        if (position != last) {
+            unitPricesMinor[position] = unitPricesMinor[last];
+            subtotalsMinor[position] = subtotalsMinor[last];
+        }
+    }
+
+    private void appendLine(Product product) {
+        if (lineCount == unitPricesMinor.length) {
+            int capacity = lineCount << 1;
+            unitPricesMinor = Arrays.copyOf(unitPricesMinor, capacity);
+            subtotalsMinor = Arrays.copyOf(subtotalsMinor, capacity);
+        }
+
+        unitPricesMinor[lineCount] = product.getPriceMinor();
+        subtotalsMinor[lineCount] = 0;
+        lineCount++;
+    }
+}
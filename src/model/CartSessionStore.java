@@ -0,0 +1,432 @@
+package model;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the carts of many tills or sessions, with stock reserved in a shared {@link StockEngine}.
+ *
+ * A cart is only two small arrays of product ids and amounts, so thousands of open carts stay cheap;
+ * product details are read from the engine when they are needed. A cart that has not been used for the
+ * idle timeout is expired: its reserved stock is released and its session ID stops working. Expiry uses a
+ * hashed timer wheel: every session sits in the slot of its deadline, and each tick only looks at one slot.
+ * Using a cart only moves its deadline; the session is moved to its new slot when its old slot comes up.
+ *
+ * All methods are thread-safe. Operations on different sessions do not block each other.
+ */
+public class CartSessionStore implements AutoCloseable {
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int MIN_TICKS_PER_TIMEOUT = 64;
+    private static final int INITIAL_LINES = 4;
+
+    private final StockEngine stockEngine;
+    private final long idleTimeoutNanos;
+    private final long tickNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<Long, Session> sessions;
+    private final Queue<Session>[] wheel;
+    private long nextSessionId;
+    private long processedTick;
+    private long expiredCount;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructs a store whose idle carts expire only when {@link #expireIdleSessions()} is called.
+     *
+     * @param stockEngine the stock the carts reserve from
+     * @param idleTimeoutNanos how long a cart may stay unused, in nanoseconds
+     * @param tickNanos the resolution of the expiry, in nanoseconds
+     * @param nanoClock the source of the current time in nanoseconds, such as {@link System#nanoTime()}
+     * @throws IllegalArgumentException if the engine or clock is null or a duration is not positive
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CartSessionStore(StockEngine stockEngine, long idleTimeoutNanos, long tickNanos, LongSupplier nanoClock) {
+        if (stockEngine == null) throw new IllegalArgumentException("Stock engine cannot be null");
+        if (nanoClock == null) throw new IllegalArgumentException("Clock cannot be null");
+        if (idleTimeoutNanos <= 0 || tickNanos <= 0) throw new IllegalArgumentException("Timeout and tick must be positive");
+
+        this.stockEngine = stockEngine;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.tickNanos = tickNanos;
+        this.nanoClock = nanoClock;
+        this.sessions = new ConcurrentHashMap<>();
+        this.wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.processedTick = nanoClock.getAsLong() / tickNanos;
+    }
+
+    /**
+     * Creates a store that expires idle carts on a background daemon thread until it is closed.
+     *
+     * @param stockEngine the stock the carts reserve from
+     * @param idleTimeout how long a cart may stay unused
+     * @return the started store
+     */
+    public static CartSessionStore start(StockEngine stockEngine, Duration idleTimeout) {
+        long timeoutNanos = idleTimeout.toNanos();
+        long tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), timeoutNanos / MIN_TICKS_PER_TIMEOUT);
+        CartSessionStore store = new CartSessionStore(stockEngine, timeoutNanos, tickNanos, System::nanoTime);
+
+        store.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        store.ticker.scheduleWithFixedDelay(store::expireIdleSessions, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        return store;
+    }
+
+    /**
+     * Returns the stock engine the carts reserve from.
+     *
+     * @return the stock engine
+     */
+    public StockEngine getStockEngine() {
+        return stockEngine;
+    }
+
+    /**
+     * Opens a new, empty cart.
+     *
+     * @return the session ID of the cart
+     */
+    public long open() {
+        Session session;
+        synchronized (this) {
+            session = new Session(++nextSessionId, nanoClock.getAsLong() + idleTimeoutNanos);
+            sessions.put(session.id, session);
+            schedule(session);
+        }
+        return session.id;
+    }
+
+    /**
+     * Reserves an amount of a product and adds it to the cart.
+     *
+     * @param sessionId the session ID of the cart
+     * @param productID the ID of the product
+     * @param amount the amount to add
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     * @throws IllegalArgumentException if the product is unknown, the amount is not positive
+     *                                  or not enough stock is available
+     */
+    public void add(long sessionId, int productID, int amount) {
+        Session session = openSession(sessionId);
+        synchronized (session) {
+            checkOpen(session);
+            if (!stockEngine.reserve(productID, amount)) {
+                throw new IllegalArgumentException("Кількість товару у доступі: " + stockEngine.getAvailable(productID));
+            }
+            session.add(productID, amount);
+            touch(session);
+        }
+    }
+
+    /**
+     * Removes a product from the cart and releases its reserved amount.
+     *
+     * @param sessionId the session ID of the cart
+     * @param productID the ID of the product
+     * @return true if the product was in the cart, false otherwise
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public boolean remove(long sessionId, int productID) {
+        Session session = openSession(sessionId);
+        synchronized (session) {
+            checkOpen(session);
+            touch(session);
+            int amount = session.remove(productID);
+            if (amount < 0) return false;
+
+            stockEngine.release(productID, amount);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the amount of a product in the cart.
+     *
+     * @param sessionId the session ID of the cart
+     * @param productID the ID of the product
+     * @return the amount, or 0 if the product is not in the cart
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public int getAmount(long sessionId, int productID) {
+        Session session = openSession(sessionId);
+        synchronized (session) {
+            checkOpen(session);
+            int line = session.lineOf(productID);
+            return line < 0 ? 0 : session.amounts[line];
+        }
+    }
+
+    /**
+     * Returns the total price of the cart at the current product prices.
+     *
+     * @param sessionId the session ID of the cart
+     * @return the total price in minor units
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public long getTotalMinor(long sessionId) {
+        Session session = openSession(sessionId);
+        synchronized (session) {
+            checkOpen(session);
+            long totalMinor = 0;
+            for (int i = 0; i < session.lineCount; i++) {
+                long priceMinor = stockEngine.getProductById(session.productIds[i]).getPriceMinor();
+                totalMinor = Math.addExact(totalMinor, Math.multiplyExact(priceMinor, session.amounts[i]));
+            }
+            return totalMinor;
+        }
+    }
+
+    /**
+     * Copies the cart into a new {@link Cart}, for example to show it in a table or take a receipt of it.
+     *
+     * @param sessionId the session ID of the cart
+     * @return a new cart with the products and amounts of the session
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public Cart toCart(long sessionId) {
+        Session session = openSession(sessionId);
+        synchronized (session) {
+            checkOpen(session);
+            return session.toCart(stockEngine);
+        }
+    }
+
+    /**
+     * Sells the cart: commits its reserved stock and closes the session.
+     *
+     * @param sessionId the session ID of the cart
+     * @return the sold products and amounts
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     * @throws IllegalArgumentException if the cart is empty
+     */
+    public Cart checkout(long sessionId) {
+        Session session = openSession(sessionId);
+        synchronized (session) {
+            checkOpen(session);
+            if (session.lineCount == 0) throw new IllegalArgumentException("Selected assortment is empty");
+
+            Cart sold = session.toCart(stockEngine);
+            for (int i = 0; i < session.lineCount; i++) {
+                stockEngine.commit(session.productIds[i], session.amounts[i]);
+            }
+            close(session);
+            return sold;
+        }
+    }
+
+    /**
+     * Closes the cart and releases all of its reserved stock.
+     *
+     * @param sessionId the session ID of the cart
+     * @return true if the cart was open, false if it does not exist or has expired
+     */
+    public boolean cancel(long sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) return false;
+
+        synchronized (session) {
+            if (session.closed) return false;
+
+            releaseAll(session);
+            close(session);
+            return true;
+        }
+    }
+
+    /**
+     * Checks if a cart is open.
+     *
+     * @param sessionId the session ID of the cart
+     * @return true if the cart exists and has not expired
+     */
+    public boolean isOpen(long sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    /**
+     * Returns the number of open carts.
+     *
+     * @return the number of carts
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the number of carts that expired so far.
+     *
+     * @return the number of expired carts
+     */
+    public synchronized long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * Expires the carts whose idle timeout has passed and releases their stock. Called on every tick by a
+     * store created with {@link #start(StockEngine, Duration)}.
+     *
+     * @return the number of carts expired by this call
+     */
+    public synchronized int expireIdleSessions() {
+        long now = nanoClock.getAsLong();
+        long currentTick = now / tickNanos;
+        if (currentTick - processedTick > WHEEL_SIZE) {
+            processedTick = currentTick - WHEEL_SIZE;
+        }
+
+        int expired = 0;
+        while (processedTick < currentTick) {
+            processedTick++;
+            Queue<Session> slot = wheel[(int) (processedTick & WHEEL_MASK)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                Session session = slot.poll();
+                if (session == null) break;
+                if (expire(session, now)) expired++;
+            }
+        }
+        expiredCount += expired;
+        return expired;
+    }
+
+    /**
+     * Stops the background expiry. Open carts keep their reservations.
+     */
+    @Override
+    public void close() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    /**
+     * Expires the session if its deadline has passed, otherwise puts it into the slot of its new deadline.
+     *
+     * @return true if the session was expired
+     */
+    private boolean expire(Session session, long now) {
+        synchronized (session) {
+            if (session.closed) return false;
+            if (session.deadlineNanos - now > 0) {
+                schedule(session);
+                return false;
+            }
+
+            releaseAll(session);
+            close(session);
+            return true;
+        }
+    }
+
+    /**
+     * Puts the session into the slot of its deadline, never into a slot that was already processed.
+     * Must be called while holding the store's lock, which guards {@code processedTick}.
+     */
+    private void schedule(Session session) {
+        long tick = Math.max(Math.ceilDiv(session.deadlineNanos, tickNanos), processedTick + 1);
+        wheel[(int) (tick & WHEEL_MASK)].add(session);
+    }
+
+    private void touch(Session session) {
+        session.deadlineNanos = nanoClock.getAsLong() + idleTimeoutNanos;
+    }
+
+    private void releaseAll(Session session) {
+        for (int i = 0; i < session.lineCount; i++) {
+            if (session.amounts[i] > 0) stockEngine.release(session.productIds[i], session.amounts[i]);
+        }
+    }
+
+    private void close(Session session) {
+        session.closed = true;
+        sessions.remove(session.id);
+    }
+
+    private Session openSession(long sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) throw new NoSuchElementException("Cart session " + sessionId + " not found");
+        return session;
+    }
+
+    private static void checkOpen(Session session) {
+        if (session.closed) throw new NoSuchElementException("Cart session " + session.id + " not found");
+    }
+
+    /**
+     * The lines of one cart. Guarded by its own monitor; the deadline is also read by the expiry.
+     */
+    private static class Session {
+        private final long id;
+        private int[] productIds;
+        private int[] amounts;
+        private int lineCount;
+        private volatile long deadlineNanos;
+        private boolean closed;
+
+        Session(long id, long deadlineNanos) {
+            this.id = id;
+            this.deadlineNanos = deadlineNanos;
+            this.productIds = new int[INITIAL_LINES];
+            this.amounts = new int[INITIAL_LINES];
+        }
+
+        int lineOf(int productID) {
+            for (int i = 0; i < lineCount; i++) {
+                if (productIds[i] == productID) return i;
+            }
+            return -1;
+        }
+
+        void add(int productID, int amount) {
+            int line = lineOf(productID);
+            if (line >= 0) {
+                amounts[line] += amount;
+                return;
+            }
+
+            if (lineCount == productIds.length) {
+                productIds = Arrays.copyOf(productIds, lineCount << 1);
+                amounts = Arrays.copyOf(amounts, lineCount << 1);
+            }
+            productIds[lineCount] = productID;
+            amounts[lineCount] = amount;
+            lineCount++;
+        }
+
+        /**
+         * Removes the line of the product by moving the last line into its place.
+         *
+         * @return the amount of the removed line, or -1 if the product is not in the cart
+         */
+        int remove(int productID) {
+            int line = lineOf(productID);
+            if (line < 0) return -1;
+
+            int amount = amounts[line];
+            lineCount--;
+            productIds[line] = productIds[lineCount];
+            amounts[line] = amounts[lineCount];
+            return amount;
+        }
+
+        Cart toCart(StockEngine stockEngine) {
+            Cart cart = new Cart();
+            for (int i = 0; i < lineCount; i++) {
+                cart.addProduct(stockEngine.getProductById(productIds[i]), amounts[i]);
+            }
+            return cart;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package model;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * An exact amount of money stored as a whole number of minor units (kopecks).
+ *
+ * Prices are converted to minor units once, so totals are sums of longs and never drift the way sums of
+ * doubles do on large orders. The static methods work on raw {@code long} minor units, so hot paths such as
+ * {@link controller.OrderController#getOrderPriceMinor(Assortment)} need not allocate a {@code Money} at all.
+ * {@link #format(long)} renders an amount like {@code String.format("%.2f", ...)} does, without parsing a
+ * format string on every call.
+ */
+public final class Money implements Comparable<Money> {
+    /** The number of minor units in one major unit. */
+    public static final int MINOR_PER_MAJOR = 100;
+    /** A zero amount. */
+    public static final Money ZERO = new Money(0);
+
+    private static volatile LocaleSeparator localeSeparator;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Returns the amount of the given minor units.
+     *
+     * @param minorUnits the amount in minor units
+     * @return the amount
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Returns the amount of a price given in major units, rounded half up to whole minor units.
+     *
+     * @param price the price in major units
+     * @return the amount
+     * @throws IllegalArgumentException if the price is not finite or too large
+     */
+    public static Money of(double price) {
+        return ofMinor(toMinor(price));
+    }
+
+    /**
+     * Converts a price given in major units to minor units, rounding half up.
+     *
+     * @param price the price in major units
+     * @return the price in minor units
+     * @throws IllegalArgumentException if the price is not finite or too large
+     */
+    public static long toMinor(double price) {
+        if (!Double.isFinite(price) || Math.abs(price) >= Long.MAX_VALUE / MINOR_PER_MAJOR) {
+            throw new IllegalArgumentException("Price " + price + " cannot be represented");
+        }
+
+        return Math.round(price * MINOR_PER_MAJOR);
+    }
+
+    /**
+     * Returns the amount in minor units.
+     *
+     * @return the minor units
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * Returns the sum of this amount and another one.
+     *
+     * @param other the amount to add
+     * @return the sum
+     * @throws ArithmeticException if the sum overflows
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Returns the difference between this amount and another one.
+     *
+     * @param other the amount to subtract
+     * @return the difference
+     * @throws ArithmeticException if the difference overflows
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * Returns this amount multiplied by a quantity.
+     *
+     * @param quantity the quantity
+     * @return the product
+     * @throws ArithmeticException if the product overflows
+     */
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    /**
+     * Returns the amount in major units, for display code that needs a double.
+     *
+     * @return the amount in major units
+     */
+    public double toDouble() {
+        return (double) minorUnits / MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Formats an amount with two decimals and the decimal separator of the default locale,
+     * the same text as {@code String.format("%.2f", minorUnits / 100.0)}.
+     *
+     * @param minorUnits the amount in minor units
+     * @return the formatted amount
+     */
+    public static String format(long minorUnits) {
+        return appendTo(new StringBuilder(24), minorUnits).toString();
+    }
+
+    /**
+     * Appends an amount formatted as by {@link #format(long)} to a builder.
+     *
+     * @param builder the builder to append to
+     * @param minorUnits the amount in minor units
+     * @return the builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long minorUnits) {
+        long major = minorUnits / MINOR_PER_MAJOR;
+        int minor = (int) Math.abs(minorUnits % MINOR_PER_MAJOR);
+        if (minorUnits < 0) {
+            builder.append('-');
+            major = -major;
+        }
+
+        builder.append(major).append(decimalSeparator());
+        if (minor < 10) builder.append('0');
+        return builder.append(minor);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Returns the amount formatted as by {@link #format(long)}.
+     *
+     * @return the formatted amount
+     */
+    @Override
+    public String toString() {
+        return format(minorUnits);
+    }
+
+    private static char decimalSeparator() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleSeparator cached = localeSeparator;
+        if (cached == null || cached.locale != locale) {
+            cached = new LocaleSeparator(locale, DecimalFormatSymbols.getInstance(locale).getDecimalSeparator());
+            localeSeparator = cached;
+        }
+        return cached.separator;
+    }
+
+    /**
+     * The decimal separator of the locale it was looked up for.
+     */
+    private static class LocaleSeparator {
+        private final Locale locale;
+        private final char separator;
+
+        LocaleSeparator(Locale locale, char separator) {
+            this.locale = locale;
+            this.separator = separator;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of unique, increasing order ids.
+ *
+ * An id packs the milliseconds since {@link #EPOCH_MILLIS} (41 bits), the terminal's node id (10 bits) and a
+ * per-millisecond sequence (12 bits) into a positive long. The timestamp and sequence live in one
+ * {@link AtomicLong} and are advanced with a single compare-and-set, so ids never repeat and never decrease,
+ * even when many threads ask at once or the clock goes back. When more than 4096 ids are needed within one
+ * millisecond, the generator moves on to the next millisecond ahead of the clock instead of waiting.
+ * Terminals that share a receipt journal must use different node ids.
+ */
+public class OrderIdGenerator {
+    /** The start of the id timestamps, 2024-01-01T00:00:00Z. */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+    /** The largest allowed node id. */
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ORDER_NUMBER_LENGTH = 14 + 3 + 4 + 4;
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    private final ZoneId zone;
+    private final AtomicLong lastState;
+    private volatile SecondPrefix secondPrefix;
+
+    /**
+     * Constructs a generator for the node using the system clock and time zone.
+     *
+     * @param nodeId the id of this terminal, from 0 to {@link #MAX_NODE_ID}
+     * @throws IllegalArgumentException if the node id is out of range
+     */
+    public OrderIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis, ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructs a generator for the node.
+     *
+     * @param nodeId the id of this terminal, from 0 to {@link #MAX_NODE_ID}
+     * @param clock the source of the current time in milliseconds since the Unix epoch
+     * @param zone the time zone of the order numbers
+     * @throws IllegalArgumentException if the node id is out of range or the clock or zone is null
+     */
+    public OrderIdGenerator(int nodeId, LongSupplier clock, ZoneId zone) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        if (clock == null) throw new IllegalArgumentException("Clock cannot be null");
+        if (zone == null) throw new IllegalArgumentException("Time zone cannot be null");
+
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.zone = zone;
+        this.lastState = new AtomicLong();
+    }
+
+    /**
+     * Returns the next order id. Each id is greater than every id returned before by this generator.
+     *
+     * @return a unique order id
+     */
+    public long nextId() {
+        while (true) {
+            long current = lastState.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+
+            if (lastState.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | ((long) nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Returns the next order number: the local date and time of the order as "yyyyMMddHHmmssSSS",
+     * followed by four digits of the node id and four digits of the sequence.
+     *
+     * @return a unique order number consisting only of digits
+     */
+    public String nextOrderNumber() {
+        return toOrderNumber(nextId());
+    }
+
+    /**
+     * Renders an order id created by this generator as an order number.
+     *
+     * @param orderId the order id
+     * @return the order number consisting only of digits
+     */
+    public String toOrderNumber(long orderId) {
+        long millis = timestampOf(orderId);
+        long second = Math.floorDiv(millis, 1000);
+
+        SecondPrefix prefix = secondPrefix;
+        if (prefix == null || prefix.second != second) {
+            prefix = new SecondPrefix(second, zone);
+            secondPrefix = prefix;
+        }
+
+        char[] digits = new char[ORDER_NUMBER_LENGTH];
+        prefix.text.getChars(0, 14, digits, 0);
+        writeDigits(digits, 14, 3, Math.floorMod(millis, 1000));
+        writeDigits(digits, 17, 4, nodeOf(orderId));
+        writeDigits(digits, 21, 4, orderId & SEQUENCE_MASK);
+        return new String(digits);
+    }
+
+    /**
+     * Returns the node id of this generator.
+     *
+     * @return the node id
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the time an order id was created at.
+     *
+     * @param orderId the order id
+     * @return the time in milliseconds since the Unix epoch
+     */
+    public static long timestampOf(long orderId) {
+        return (orderId >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Returns the node id of the terminal that created an order id.
+     *
+     * @param orderId the order id
+     * @return the node id
+     */
+    public static int nodeOf(long orderId) {
+        return (int) ((orderId >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    private static void writeDigits(char[] digits, int start, int count, long value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * The "yyyyMMddHHmmss" text of one second, reused for all ids created within that second.
+     */
+    private static class SecondPrefix {
+        private final long second;
+        private final String text;
+
+        SecondPrefix(long second, ZoneId zone) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone);
+            this.second = second;
+            this.text = String.format("%04d%02d%02d%02d%02d%02d", time.getYear(), time.getMonthValue(),
+                    time.getDayOfMonth(), time.getHour(), time.getMinute(), time.getSecond());
+        }
+    }
+}
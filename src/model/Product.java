@@ -1,12 +1,11 @@
 package model;
 
 
-import java.util.Objects;
-
 public class Product {
     private int id;
-    private String name;
-    private double price;
+    private int hash;
+    private volatile String name;
+    private volatile double price;
 
     /**
      * Copy constructor. Initializes a new product using another product's details.
@@ -18,6 +17,7 @@ public class Product {
         if(other == null) throw new NullPointerException();
 
         this.id = other.id;
+        this.hash = other.hash;
         this.name = other.name;
         this.price = other.price;
     }
@@ -36,6 +36,7 @@ public class Product {
         if(name == null || name.isEmpty()) throw new IllegalArgumentException("Product name cannot be null or empty");
 
         this.id = id;
+        this.hash = hashOf(id);
         this.name = name;
         this.price = price;
     }
@@ -51,11 +52,14 @@ public class Product {
 
     /**
      * Sets the product id.
+     * The id is the identity of the product, so it must not be changed while the product
+     * is held by an {@link Assortment} or a {@link ProductRegistry}.
      *
      * @param id the product id to set
      */
     public void setId(int id) {
         this.id = id;
+        this.hash = hashOf(id);
     }
 
     /**
@@ -69,6 +73,9 @@ public class Product {
 
     /**
      * Sets the product name.
+     * A product held by an {@link Assortment} must be renamed through
+     * {@link Assortment#renameProduct(int, String)}, which replaces it by a renamed copy,
+     * so that the name index of every assortment holding it stays current.
      *
      * @param name the product name to set
      */
@@ -85,8 +92,20 @@ public class Product {
         return price;
     }
 
+    /**
+     * Returns the product price in minor units, rounded half up.
+     *
+     * @return the product price in minor units
+     * @throws IllegalArgumentException if the price is not finite or too large
+     */
+    public long getPriceMinor() {
+        return Money.toMinor(price);
+    }
+
     /**
      * Sets the product price.
+     * The price is not part of the product identity, so a product can be repriced while it is
+     * used as a map key. Shared products should be repriced through {@link ProductRegistry#reprice(int, double)}.
      *
      * @param price the product price to set
      */
@@ -108,6 +127,8 @@ public class Product {
 
     /**
      * Indicates whether some other object is "equal to" this one.
+     * Two products are equal when they have the same id; the name and price are mutable
+     * attributes and do not take part in equality.
      *
      * @param o the reference object with which to compare
      * @return true if this object is the same as the o argument; false otherwise
@@ -118,17 +139,23 @@ public class Product {
         if (o == null || getClass() != o.getClass()) return false;
 
         Product product = (Product) o;
-        return id == product.id && Double.compare(price, product.price) == 0 && Objects.equals(name, product.name);
+        return id == product.id;
     }
 
     /**
      * Returns a hash code value for the object.
+     * The hash is derived from the id only and is computed once when the id is set.
      *
      * @return a hash code value for this object
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, price);
+        return hash;
+    }
+
+    private static int hashOf(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 }
 
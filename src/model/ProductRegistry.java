@@ -0,0 +1,107 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one canonical {@link Product} instance per product id.
+ *
+ * Products loaded from different sources (database rows, snapshots, receipts) are interned here,
+ * so every {@link Assortment} shares the same object for the same id. Because product identity is
+ * the id alone, a price change made through {@link #reprice(int, double)} is visible everywhere at
+ * once and never requires rehashing or re-inserting map entries. The registry is thread-safe.
+ */
+public class ProductRegistry {
+    private static final ProductRegistry DEFAULT = new ProductRegistry();
+
+    private final ConcurrentHashMap<Integer, Product> productsById;
+
+    /**
+     * Constructs an empty registry.
+     */
+    public ProductRegistry() {
+        productsById = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the registry shared by the application.
+     *
+     * @return the default registry
+     */
+    public static ProductRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the canonical product for the id, creating it if necessary.
+     * If the product is already registered, its price is updated in place. Names are never changed in place,
+     * because every {@link Assortment} holding the product indexes it by name: when the name differs, a new
+     * canonical instance is registered and returned, and the assortments that should show the new name take it
+     * with {@link Assortment#replaceProduct(Product)}.
+     *
+     * @param id the product id
+     * @param name the product name
+     * @param price the product price
+     * @return the canonical product for the id
+     * @throws IllegalArgumentException if the name is null or empty
+     */
+    public Product intern(int id, String name, double price) {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("Product name cannot be null or empty");
+
+        return productsById.compute(id, (key, product) -> {
+            if (product == null) return new Product(key, name, price);
+
+            product.setPrice(price);
+            return product.getName().equals(name) ? product : new Product(key, name, price);
+        });
+    }
+
+    /**
+     * Returns the canonical product equal to the given one, registering the given product if its id is new.
+     *
+     * @param product the product to intern
+     * @return the canonical product with the same id
+     * @throws IllegalArgumentException if the product is null
+     */
+    public Product intern(Product product) {
+        if (product == null) throw new IllegalArgumentException("Product is null");
+
+        Product canonical = productsById.putIfAbsent(product.getId(), product);
+        return canonical == null ? product : canonical;
+    }
+
+    /**
+     * Returns the registered product with the specified id.
+     *
+     * @param id the product id
+     * @return the canonical product, or null if no product with this id is registered
+     */
+    public Product get(int id) {
+        return productsById.get(id);
+    }
+
+    /**
+     * Changes the price of the registered product with the specified id.
+     * The product stays in place in every map that holds it.
+     *
+     * @param id the product id
+     * @param price the new price
+     * @return the repriced canonical product
+     * @throws IllegalArgumentException if no product with this id is registered
+     */
+    public Product reprice(int id, double price) {
+        Product product = productsById.get(id);
+        if (product == null) throw new IllegalArgumentException("Product with ID " + id + " is not registered");
+
+        product.setPrice(price);
+        return product;
+    }
+
+    /**
+     * Returns the number of registered products.
+     *
+     * @return the number of products
+     */
+    public int size() {
+        return productsById.size();
+    }
+}
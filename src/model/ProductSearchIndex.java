@@ -0,0 +1,256 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A substring search index over product names.
+ *
+ * Every name is normalized to lower case once, when the product is added, and split into
+ * bigrams and trigrams (two- and three-character substrings). Each n-gram keeps a posting list
+ * with the ids of the products whose name contains it. A two-character query is answered directly
+ * from its bigram list. A longer query only checks the products in the shortest posting list among
+ * its trigrams, instead of scanning the whole catalog. Single-character queries fall back to a scan
+ * over the pre-normalized names.
+ *
+ * The n-grams are packed into long keys of a {@link LongObjectHashMap}, so lookups never box.
+ * Every product remembers where it sits in each of its posting lists, so removing it swaps the last
+ * entry of each list into its place instead of scanning the list. The index is updated incrementally
+ * through {@link #add(int, String)} and {@link #remove(int)}. It is not thread-safe.
+ */
+public class ProductSearchIndex {
+    private static final int BIGRAM = 2;
+    private static final int TRIGRAM = 3;
+    private static final long BIGRAM_TAG = 1L << 48;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NOT_FOUND = -1;
+    private static final int[] NO_IDS = new int[0];
+
+    private final IntIntHashMap slotsById;
+    private int[] ids;
+    private String[] normalizedNames;
+    private int[][] postingPositions;
+    private int size;
+    private final LongObjectHashMap<Posting> postings;
+
+    /**
+     * Constructs an empty search index.
+     */
+    public ProductSearchIndex() {
+        slotsById = new IntIntHashMap(INITIAL_CAPACITY);
+        ids = new int[INITIAL_CAPACITY];
+        normalizedNames = new String[INITIAL_CAPACITY];
+        postingPositions = new int[INITIAL_CAPACITY][];
+        postings = new LongObjectHashMap<>();
+    }
+
+    /**
+     * Normalizes a product name or a search text for matching.
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     */
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a product name to the index, replacing the previous name of the same product.
+     *
+     * @param productID the ID of the product
+     * @param name the product name
+     * @throws IllegalArgumentException if the name is null
+     */
+    public void add(int productID, String name) {
+        if (name == null) throw new IllegalArgumentException("Product name cannot be null");
+
+        remove(productID);
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size << 1);
+            normalizedNames = Arrays.copyOf(normalizedNames, size << 1);
+            postingPositions = Arrays.copyOf(postingPositions, size << 1);
+        }
+        String normalizedName = normalize(name);
+        int[] positions = new int[Math.max(0, 2 * (normalizedName.length() - 1))];
+        ids[size] = productID;
+        normalizedNames[size] = normalizedName;
+        postingPositions[size] = positions;
+        slotsById.put(productID, size);
+        size++;
+
+        for (int i = 0; i + BIGRAM <= normalizedName.length(); i++) {
+            positions[bigramOrdinal(i)] = posting(bigram(normalizedName, i)).addOnce(productID, bigramOrdinal(i));
+            if (i + TRIGRAM <= normalizedName.length()) {
+                positions[trigramOrdinal(i)] = posting(trigram(normalizedName, i)).addOnce(productID, trigramOrdinal(i));
+            }
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param productID the ID of the product
+     * @return true if the product was indexed, false otherwise
+     */
+    public boolean remove(int productID) {
+        int slot = slotsById.get(productID, NOT_FOUND);
+        if (slot == NOT_FOUND) return false;
+
+        String normalizedName = normalizedNames[slot];
+        int[] positions = postingPositions[slot];
+        for (int i = 0; i + BIGRAM <= normalizedName.length(); i++) {
+            removePosting(bigram(normalizedName, i), positions[bigramOrdinal(i)]);
+            if (i + TRIGRAM <= normalizedName.length()) {
+                removePosting(trigram(normalizedName, i), positions[trigramOrdinal(i)]);
+            }
+        }
+
+        int last = --size;
+        slotsById.remove(productID);
+        if (slot != last) {
+            ids[slot] = ids[last];
+            normalizedNames[slot] = normalizedNames[last];
+            postingPositions[slot] = postingPositions[last];
+            slotsById.put(ids[slot], slot);
+        }
+        normalizedNames[last] = null;
+        postingPositions[last] = null;
+        return true;
+    }
+
+    /**
+     * Finds the products whose names contain the search text, ignoring case.
+     *
+     * @param searchText the text to search for
+     * @return the IDs of the matching products
+     * @throws IllegalArgumentException if the search text is null
+     */
+    public int[] search(String searchText) {
+        if (searchText == null) throw new IllegalArgumentException("Search text cannot be null");
+
+        String query = normalize(searchText);
+        if (query.length() < BIGRAM) {
+            return scan(query);
+        }
+        if (query.length() == BIGRAM) {
+            Posting posting = postings.get(bigram(query, 0));
+            return posting == null ? NO_IDS : Arrays.copyOf(posting.ids, posting.size);
+        }
+
+        Posting candidates = null;
+        for (int i = 0; i + TRIGRAM <= query.length(); i++) {
+            Posting posting = postings.get(trigram(query, i));
+            if (posting == null) return NO_IDS;
+            if (candidates == null || posting.size < candidates.size) candidates = posting;
+        }
+
+        if (query.length() == TRIGRAM) {
+            return Arrays.copyOf(candidates.ids, candidates.size);
+        }
+
+        int[] result = new int[candidates.size];
+        int found = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            int productID = candidates.ids[i];
+            if (normalizedNames[slotsById.get(productID, NOT_FOUND)].contains(query)) {
+                result[found++] = productID;
+            }
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return the number of products
+     */
+    public int size() {
+        return size;
+    }
+
+    private int[] scan(String query) {
+        int[] result = new int[size];
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            if (normalizedNames[i].contains(query)) {
+                result[found++] = ids[i];
+            }
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    private Posting posting(long key) {
+        Posting posting = postings.get(key);
+        if (posting == null) {
+            posting = new Posting();
+            postings.put(key, posting);
+        }
+        return posting;
+    }
+
+    /**
+     * Removes the entry at the given position of the posting list by moving the last entry into its place
+     * and telling the moved product its new position.
+     */
+    private void removePosting(long key, int position) {
+        if (position == NOT_FOUND) return;
+
+        Posting posting = postings.get(key);
+        int last = --posting.size;
+        if (position != last) {
+            int movedID = posting.ids[last];
+            int movedOrdinal = posting.ordinals[last];
+            posting.ids[position] = movedID;
+            posting.ordinals[position] = movedOrdinal;
+            postingPositions[slotsById.get(movedID, NOT_FOUND)][movedOrdinal] = position;
+        }
+        if (posting.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    private static int bigramOrdinal(int start) {
+        return start << 1;
+    }
+
+    private static int trigramOrdinal(int start) {
+        return (start << 1) + 1;
+    }
+
+    private static long bigram(String text, int start) {
+        return BIGRAM_TAG | ((long) text.charAt(start) << 16) | text.charAt(start + 1);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Growable list of product ids that contain one n-gram. Next to each id it keeps the ordinal of the
+     * n-gram within that product's name, so the product's position can be updated when the entry moves.
+     */
+    private static class Posting {
+        private int[] ids = new int[4];
+        private int[] ordinals = new int[4];
+        private int size;
+
+        /**
+         * Appends the id unless it was the last one appended. All n-grams of one name are added
+         * together, so this is enough to keep a name with a repeated n-gram from being listed twice.
+         *
+         * @return the position of the appended id, or {@link #NOT_FOUND} if it was already listed
+         */
+        int addOnce(int productID, int ordinal) {
+            if (size > 0 && ids[size - 1] == productID) return NOT_FOUND;
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+                ordinals = Arrays.copyOf(ordinals, size << 1);
+            }
+            ids[size] = productID;
+            ordinals[size] = ordinal;
+            return size++;
+        }
+    }
+}
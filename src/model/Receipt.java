@@ -0,0 +1,186 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of an order: its number, creation time and product lines.
+ *
+ * A receipt is taken from the selected assortment at checkout, so it can be written or stored
+ * later, on another thread, while the till goes on changing the assortment.
+ */
+public class Receipt {
+    private static final String LINE_SEPARATOR = "\n----------------------\n";
+
+    private final String orderNumber;
+    private final long createdAt;
+    private final int[] productIds;
+    private final String[] names;
+    private final int[] amounts;
+    private final double[] prices;
+
+    /**
+     * Constructs a receipt from its product lines.
+     *
+     * @param orderNumber the order number
+     * @param createdAt the creation time in milliseconds since the epoch
+     * @param productIds the product ids of the lines
+     * @param names the product names of the lines
+     * @param amounts the amounts of the lines
+     * @param prices the unit prices of the lines
+     * @throws IllegalArgumentException if the order number is null or the line arrays differ in length
+     */
+    public Receipt(String orderNumber, long createdAt, int[] productIds, String[] names, int[] amounts, double[] prices) {
+        if (orderNumber == null) throw new IllegalArgumentException("Order number cannot be null");
+        if (names.length != productIds.length || amounts.length != productIds.length || prices.length != productIds.length) {
+            throw new IllegalArgumentException("Receipt lines must have the same length");
+        }
+
+        this.orderNumber = orderNumber;
+        this.createdAt = createdAt;
+        this.productIds = productIds;
+        this.names = names;
+        this.amounts = amounts;
+        this.prices = prices;
+    }
+
+    /**
+     * Takes a receipt of the selected assortment at the current time.
+     * The lines of a {@link Cart} are printed with the unit prices the cart captured, so the receipt total
+     * equals {@link Cart#getTotalMinor()} even if products were repriced since.
+     *
+     * @param orderNumber the order number
+     * @param selectedAssortment the assortment of selected products
+     * @return a new receipt
+     * @throws IllegalArgumentException if the order number or assortment is null
+     */
+    public static Receipt of(String orderNumber, Assortment selectedAssortment) {
+        if (selectedAssortment == null) throw new IllegalArgumentException("Assortment cannot be null");
+
+        Cart cart = selectedAssortment instanceof Cart ? (Cart) selectedAssortment : null;
+        int size = selectedAssortment.size();
+        int[] productIds = new int[size];
+        String[] names = new String[size];
+        int[] amounts = new int[size];
+        double[] prices = new double[size];
+        for (int i = 0; i < size; i++) {
+            Product product = selectedAssortment.getProductAt(i);
+            productIds[i] = product.getId();
+            names[i] = product.getName();
+            amounts[i] = selectedAssortment.getAmountAt(i);
+            prices[i] = cart == null ? product.getPrice() : (double) cart.getUnitPriceMinorAt(i) / Money.MINOR_PER_MAJOR;
+        }
+        return new Receipt(orderNumber, System.currentTimeMillis(), productIds, names, amounts, prices);
+    }
+
+    /**
+     * Returns the order number.
+     *
+     * @return the order number
+     */
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    /**
+     * Returns the creation time.
+     *
+     * @return the creation time in milliseconds since the epoch
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns the number of product lines.
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return productIds.length;
+    }
+
+    /**
+     * Returns the product id of a line.
+     *
+     * @param line the line index
+     * @return the product id
+     */
+    public int getProductId(int line) {
+        return productIds[line];
+    }
+
+    /**
+     * Returns the product name of a line.
+     *
+     * @param line the line index
+     * @return the product name
+     */
+    public String getName(int line) {
+        return names[line];
+    }
+
+    /**
+     * Returns the amount of a line.
+     *
+     * @param line the line index
+     * @return the amount
+     */
+    public int getAmount(int line) {
+        return amounts[line];
+    }
+
+    /**
+     * Returns the unit price of a line.
+     *
+     * @param line the line index
+     * @return the unit price
+     */
+    public double getPrice(int line) {
+        return prices[line];
+    }
+
+    /**
+     * Returns the exact total price of all lines.
+     *
+     * @return the total price in minor units
+     * @throws ArithmeticException if the total overflows
+     */
+    public long getTotalMinor() {
+        long totalMinor = 0;
+        for (int i = 0; i < productIds.length; i++) {
+            totalMinor = Math.addExact(totalMinor, getLineTotalMinor(i));
+        }
+        return totalMinor;
+    }
+
+    /**
+     * Returns the exact price of one line: the unit price rounded to minor units times the amount.
+     *
+     * @param line the line index
+     * @return the line price in minor units
+     * @throws ArithmeticException if the line price overflows
+     */
+    public long getLineTotalMinor(int line) {
+        return Math.multiplyExact(Money.toMinor(prices[line]), amounts[line]);
+    }
+
+    /**
+     * Renders the receipt in the text format of the check files.
+     *
+     * @return the receipt text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder(64 + productIds.length * 48);
+        text.append(orderNumber).append('\n').append(System.lineSeparator());
+        for (int i = 0; i < productIds.length; i++) {
+            text.append(names[i]).append('\n').append(amounts[i]).append(" x ").append(prices[i]).append(LINE_SEPARATOR);
+        }
+        Money.appendTo(text.append("Всього: "), getTotalMinor()).append('\n');
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "Receipt " + orderNumber + " " + Arrays.toString(productIds);
+    }
+}
@@ -0,0 +1,152 @@
+package model;
+
+/**
+ * Describes a change of one product in an {@link Assortment}: the product was added, its amount or name
+ * changed, or it was removed. Events are immutable: the product's name and price are captured when the event
+ * is created, so an event can be read on another thread while the product keeps changing.
+ */
+public class StockChangeEvent {
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        /** The product was not in the assortment before and is now. */
+        ADDED,
+        /** The product stayed in the assortment, but its amount or name changed. */
+        CHANGED,
+        /** The product was in the assortment before and is not any more. */
+        REMOVED
+    }
+
+    private final Assortment source;
+    private final Type type;
+    private final Product product;
+    private final int oldAmount;
+    private final int newAmount;
+    private final String productName;
+    private final double price;
+
+    /**
+     * Constructs a stock change event.
+     *
+     * @param source the assortment that changed
+     * @param type the kind of change
+     * @param product the product that changed
+     * @param oldAmount the amount before the change, 0 if the product was added
+     * @param newAmount the amount after the change, 0 if the product was removed
+     * @throws IllegalArgumentException if the source, type or product is null
+     */
+    public StockChangeEvent(Assortment source, Type type, Product product, int oldAmount, int newAmount) {
+        if (source == null || type == null || product == null) throw new IllegalArgumentException("Invalid input");
+
+        this.source = source;
+        this.type = type;
+        this.product = product;
+        this.oldAmount = oldAmount;
+        this.newAmount = newAmount;
+        this.productName = product.getName();
+        this.price = product.getPrice();
+    }
+
+    private StockChangeEvent(StockChangeEvent last, Type type, int oldAmount) {
+        this.source = last.source;
+        this.type = type;
+        this.product = last.product;
+        this.oldAmount = oldAmount;
+        this.newAmount = last.newAmount;
+        this.productName = last.productName;
+        this.price = last.price;
+    }
+
+    /**
+     * Returns a copy of this event with another type and old amount, keeping the captured product state.
+     * Used to merge a run of changes of one product into its last change.
+     *
+     * @param type the kind of the merged change
+     * @param oldAmount the amount before the first change
+     * @return the merged event
+     * @throws IllegalArgumentException if the type is null
+     */
+    public StockChangeEvent withStart(Type type, int oldAmount) {
+        if (type == null) throw new IllegalArgumentException("Invalid input");
+
+        return new StockChangeEvent(this, type, oldAmount);
+    }
+
+    /**
+     * Returns the assortment that changed.
+     *
+     * @return the source assortment
+     */
+    public Assortment getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the kind of change.
+     *
+     * @return the type of the change
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the product that changed.
+     *
+     * @return the product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Returns the ID of the product that changed.
+     *
+     * @return the product ID
+     */
+    public int getProductId() {
+        return product.getId();
+    }
+
+    /**
+     * Returns the name of the product when the event was created.
+     *
+     * @return the product name
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * Returns the price of the product when the event was created.
+     *
+     * @return the product price
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Returns the amount before the change.
+     *
+     * @return the old amount, 0 if the product was added
+     */
+    public int getOldAmount() {
+        return oldAmount;
+    }
+
+    /**
+     * Returns the amount after the change.
+     *
+     * @return the new amount, 0 if the product was removed
+     */
+    public int getNewAmount() {
+        return newAmount;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + product.getId() + ": " + oldAmount + " -> " + newAmount;
+    }
+}
@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * Receives the changes of an {@link Assortment}.
+ */
+@FunctionalInterface
+public interface StockChangeListener {
+    /**
+     * Called after a product of the assortment was added, changed or removed, on the thread that changed it.
+     *
+     * @param event the change
+     */
+    void stockChanged(StockChangeEvent event);
+}
@@ -0,0 +1,196 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe stock reservation engine built from an {@link Assortment}.
+ *
+ * Each product gets its own lock-free counter that packs the available amount and the reserved
+ * amount into one long, so {@link #reserve(int, int)}, {@link #release(int, int)} and
+ * {@link #commit(int, int)} are single compare-and-set operations that can never oversell.
+ * Counters are padded to separate cache lines, so checkouts of unrelated products never contend.
+ * The set of products is fixed when the engine is created.
+ */
+public class StockEngine {
+    private static final int STRIDE = 8;
+    private static final int NOT_FOUND = -1;
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+
+    private final IntIntHashMap cellsById;
+    private final Map<String, Product> productsByName;
+    private final Product[] products;
+    private final AtomicLongArray counters;
+
+    /**
+     * Constructs a stock engine with the products and amounts of the given assortment as available stock.
+     *
+     * @param assortment the assortment to take the stock from
+     * @throws IllegalArgumentException if the assortment is null
+     */
+    public StockEngine(Assortment assortment) {
+        if (assortment == null) throw new IllegalArgumentException("Assortment is null");
+
+        int size = assortment.size();
+        cellsById = new IntIntHashMap(size);
+        productsByName = new HashMap<>();
+        products = new Product[size];
+        counters = new AtomicLongArray(size * STRIDE);
+
+        for (int i = 0; i < size; i++) {
+            Product product = assortment.getProductAt(i);
+            products[i] = product;
+            cellsById.put(product.getId(), i);
+            productsByName.putIfAbsent(product.getName(), product);
+            counters.set(i * STRIDE, pack(assortment.getAmountAt(i), 0));
+        }
+    }
+
+    /**
+     * Atomically moves the amount of the product from available to reserved stock.
+     *
+     * @param productID the ID of the product
+     * @param amount the amount to reserve
+     * @return true if the amount was reserved, false if not enough stock is available
+     * @throws IllegalArgumentException if the product is unknown or the amount is not positive
+     */
+    public boolean reserve(int productID, int amount) {
+        int index = counterIndex(productID, amount);
+
+        while (true) {
+            long current = counters.get(index);
+            int available = available(current);
+            if (available < amount) return false;
+
+            if (counters.compareAndSet(index, current, pack(available - amount, reserved(current) + amount))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically returns the reserved amount of the product to available stock.
+     *
+     * @param productID the ID of the product
+     * @param amount the amount to release
+     * @throws IllegalArgumentException if the product is unknown, the amount is not positive
+     *                                  or more than the reserved amount
+     */
+    public void release(int productID, int amount) {
+        int index = counterIndex(productID, amount);
+
+        while (true) {
+            long current = counters.get(index);
+            int reserved = reserved(current);
+            if (reserved < amount) throw new IllegalArgumentException("Reserved amount is " + reserved);
+
+            if (counters.compareAndSet(index, current, pack(available(current) + amount, reserved - amount))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically removes the reserved amount of the product from stock, for example after a checkout.
+     *
+     * @param productID the ID of the product
+     * @param amount the amount to commit
+     * @throws IllegalArgumentException if the product is unknown, the amount is not positive
+     *                                  or more than the reserved amount
+     */
+    public void commit(int productID, int amount) {
+        int index = counterIndex(productID, amount);
+
+        while (true) {
+            long current = counters.get(index);
+            int reserved = reserved(current);
+            if (reserved < amount) throw new IllegalArgumentException("Reserved amount is " + reserved);
+
+            if (counters.compareAndSet(index, current, pack(available(current), reserved - amount))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of the product that can still be reserved.
+     *
+     * @param productID the ID of the product
+     * @return the available amount, or 0 if the product is unknown
+     */
+    public int getAvailable(int productID) {
+        int cell = cellsById.get(productID, NOT_FOUND);
+        return cell == NOT_FOUND ? 0 : available(counters.get(cell * STRIDE));
+    }
+
+    /**
+     * Returns the amount of the product that is reserved but not yet committed.
+     *
+     * @param productID the ID of the product
+     * @return the reserved amount, or 0 if the product is unknown
+     */
+    public int getReserved(int productID) {
+        int cell = cellsById.get(productID, NOT_FOUND);
+        return cell == NOT_FOUND ? 0 : reserved(counters.get(cell * STRIDE));
+    }
+
+    /**
+     * Returns the product with the specified ID.
+     *
+     * @param productID the ID of the product
+     * @return the product, or null if it is not managed by this engine
+     */
+    public Product getProductById(int productID) {
+        int cell = cellsById.get(productID, NOT_FOUND);
+        return cell == NOT_FOUND ? null : products[cell];
+    }
+
+    /**
+     * Returns the product with exactly the specified name.
+     *
+     * @param name the name of the product
+     * @return the product, or null if it is not managed by this engine
+     */
+    public Product getProductByName(String name) {
+        if (name == null) return null;
+
+        return productsByName.get(name);
+    }
+
+    /**
+     * Creates an assortment with the currently available amount of every product.
+     * The amounts of different products are read one by one, so the result is not an atomic snapshot
+     * while reservations are in progress.
+     *
+     * @return a new assortment with the available stock
+     */
+    public Assortment toAvailableAssortment() {
+        Assortment assortment = new Assortment();
+        for (int i = 0; i < products.length; i++) {
+            assortment.setAmount(products[i], available(counters.get(i * STRIDE)));
+        }
+        return assortment;
+    }
+
+    private int counterIndex(int productID, int amount) {
+        if (amount < 1) throw new IllegalArgumentException("Amount must be positive");
+
+        int cell = cellsById.get(productID, NOT_FOUND);
+        if (cell == NOT_FOUND) throw new IllegalArgumentException("Product with ID " + productID + " not found in the stock");
+
+        return cell * STRIDE;
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & LOW_MASK);
+    }
+
+    private static int available(long counter) {
+        return (int) (counter >>> 32);
+    }
+
+    private static int reserved(long counter) {
+        return (int) counter;
+    }
+}
@@ -0,0 +1,271 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Assortment;
+import model.Money;
+import model.Product;
+import model.Receipt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves an {@link OrderService} over HTTP with JSON responses, one virtual thread per request.
+ *
+ * <pre>
+ * GET    /catalog?q=text                          matching products with available amounts
+ * POST   /carts                                   opens a cart, returns its ID
+ * GET    /carts/{id}                              lines and total of the cart
+ * POST   /carts/{id}/items?productId=1&amp;quantity=2  reserves and adds a product
+ * DELETE /carts/{id}/items/{productId}            removes a product and releases its stock
+ * POST   /carts/{id}/checkout                     sells the cart; answers once the check is written or has failed
+ * DELETE /carts/{id}                              cancels the cart
+ * </pre>
+ *
+ * Prices are sent as whole minor units. Invalid requests are answered with 400, unknown carts with 404 and
+ * unexpected failures with 500. Checkout commits the stock before the check is written, so a check that could
+ * not be written is still answered with 200: the sale stands, and {@code "checkStatus":"failed"} tells the
+ * terminal to print the check again.
+ * Start the JVM with {@code -Dsun.net.httpserver.nodelay=true}: without it, small responses on kept-alive
+ * connections wait for the client's delayed acknowledgement, which limits a terminal to a few dozen requests
+ * per second.
+ */
+public class OrderHttpServer implements AutoCloseable {
+    private final OrderService orderService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for the order service and starts it.
+     *
+     * @param orderService the service to serve
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IllegalArgumentException if the service is null
+     * @throws IOException if the port cannot be bound
+     */
+    public OrderHttpServer(OrderService orderService, int port) throws IOException {
+        if (orderService == null) throw new IllegalArgumentException("Order service cannot be null");
+
+        this.orderService = orderService;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/catalog", this::handleCatalog);
+        this.server.createContext("/carts", this::handleCarts);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, waiting at most one second for running requests.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handleCatalog(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if (!exchange.getRequestMethod().equals("GET")) return Response.methodNotAllowed();
+
+            String searchText = queryParameters(exchange).getOrDefault("q", "");
+            return Response.ok(catalogJson(orderService.searchCatalog(searchText)));
+        });
+    }
+
+    private void handleCarts(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().substring("/carts".length()).split("/");
+            // path[0] is empty; path[1] is the cart ID, path[2] the sub-resource
+            if (path.length <= 1) {
+                if (!method.equals("POST")) return Response.methodNotAllowed();
+                return Response.ok("{\"cartId\":" + quote(orderService.createCart()) + "}");
+            }
+
+            String cartId = path[1];
+            if (path.length == 2) {
+                if (method.equals("GET")) return Response.ok(cartJson(orderService.getCart(cartId)));
+                if (method.equals("DELETE")) {
+                    if (!orderService.cancelCart(cartId)) throw new NoSuchElementException("Cart " + cartId + " not found");
+                    return Response.ok("{}");
+                }
+                return Response.methodNotAllowed();
+            }
+
+            if (path[2].equals("items") && path.length == 3 && method.equals("POST")) {
+                Map<String, String> parameters = queryParameters(exchange);
+                orderService.addToCart(cartId, intParameter(parameters, "productId"), intParameter(parameters, "quantity"));
+                return Response.ok(cartJson(orderService.getCart(cartId)));
+            }
+            if (path[2].equals("items") && path.length == 4 && method.equals("DELETE")) {
+                orderService.removeFromCart(cartId, parseInt(path[3], "productId"));
+                return Response.ok(cartJson(orderService.getCart(cartId)));
+            }
+            if (path[2].equals("checkout") && path.length == 3 && method.equals("POST")) {
+                CompletableFuture<Receipt> written = orderService.checkout(cartId);
+                Receipt receipt;
+                try {
+                    receipt = written.get();
+                } catch (ExecutionException e) {
+                    return Response.ok("{\"checkStatus\":\"failed\",\"error\":"
+                            + quote("Check could not be written: " + e.getCause().getMessage()) + "}");
+                }
+                return Response.ok("{\"orderNumber\":" + quote(receipt.getOrderNumber())
+                        + ",\"totalMinor\":" + receipt.getTotalMinor() + ",\"checkStatus\":\"written\"}");
+            }
+            return Response.notFound("Unknown resource");
+        });
+    }
+
+    private static void handle(HttpExchange exchange, RequestHandler handler) throws IOException {
+        Response response;
+        try {
+            response = handler.handle();
+        } catch (IllegalArgumentException e) {
+            response = new Response(400, errorJson(e.getMessage()));
+        } catch (NoSuchElementException e) {
+            response = Response.notFound(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = new Response(503, errorJson("Interrupted"));
+        } catch (RuntimeException e) {
+            System.out.println("Помилка обробки запиту " + exchange.getRequestURI() + ": " + e);
+            response = new Response(500, errorJson("Internal error"));
+        }
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String catalogJson(Assortment assortment) {
+        StringBuilder json = new StringBuilder(32 + assortment.size() * 64).append('[');
+        for (int i = 0; i < assortment.size(); i++) {
+            Product product = assortment.getProductAt(i);
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(product.getId())
+                    .append(",\"name\":").append(quote(product.getName()))
+                    .append(",\"available\":").append(assortment.getAmountAt(i))
+                    .append(",\"priceMinor\":").append(product.getPriceMinor()).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String cartJson(Receipt cart) {
+        StringBuilder json = new StringBuilder(64 + cart.getLineCount() * 64)
+                .append("{\"cartId\":").append(quote(cart.getOrderNumber())).append(",\"lines\":[");
+        for (int i = 0; i < cart.getLineCount(); i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"productId\":").append(cart.getProductId(i))
+                    .append(",\"name\":").append(quote(cart.getName(i)))
+                    .append(",\"quantity\":").append(cart.getAmount(i))
+                    .append(",\"priceMinor\":").append(Money.toMinor(cart.getPrice(i))).append('}');
+        }
+        return json.append("],\"totalMinor\":").append(cart.getTotalMinor()).append('}').toString();
+    }
+
+    private static String errorJson(String message) {
+        return "{\"error\":" + quote(message == null ? "" : message) + "}";
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return parameters;
+
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing parameter " + name);
+        return parseInt(value, name);
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number");
+        }
+    }
+
+    /**
+     * Handles one request and returns its response.
+     */
+    @FunctionalInterface
+    private interface RequestHandler {
+        Response handle() throws InterruptedException;
+    }
+
+    /**
+     * The status and JSON body of a response.
+     */
+    private static class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response notFound(String message) {
+            return new Response(404, errorJson(message));
+        }
+
+        static Response methodNotAllowed() {
+            return new Response(405, errorJson("Method not allowed"));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package service;
+
+import controller.ReceiptWriter;
+import database.CachedAssortmentLoader;
+import model.Assortment;
+import model.Cart;
+import model.CartSessionStore;
+import model.OrderIdGenerator;
+import model.Product;
+import model.Receipt;
+import model.StockEngine;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The till's business operations without any Swing types: catalog search, cart changes, pricing and checkout.
+ *
+ * Products are identified by id and carts by the id returned from {@link #createCart()}, so one service can
+ * serve many terminals at once, for example through {@link OrderHttpServer}. Stock is reserved in a shared
+ * {@link StockEngine} when a product is added to a cart, released when it is removed or the cart is cancelled,
+ * and committed at checkout. The carts are kept in a {@link CartSessionStore}, so a cart that is left alone for
+ * the idle timeout expires and its stock becomes available again. All methods are thread-safe; operations on
+ * different carts do not block each other.
+ */
+public class OrderService implements AutoCloseable {
+    /**
+     * How long a cart may stay unused before it expires, unless another timeout is given.
+     */
+    public static final Duration DEFAULT_CART_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final Assortment catalog;
+    private final StockEngine stockEngine;
+    private final OrderIdGenerator orderIdGenerator;
+    private final ReceiptWriter receiptWriter;
+    private final CartSessionStore cartStore;
+
+    /**
+     * Constructs an order service selling the products of the catalog.
+     *
+     * @param catalog the available products and their amounts; only read when the service is created
+     *                and by {@link #searchCatalog(String)}
+     * @param orderIdGenerator the generator of order numbers
+     * @param receiptWriter the writer of the checks, or null to skip writing checks
+     * @throws IllegalArgumentException if the catalog or generator is null
+     */
+    public OrderService(Assortment catalog, OrderIdGenerator orderIdGenerator, ReceiptWriter receiptWriter) {
+        this(catalog, orderIdGenerator, receiptWriter, DEFAULT_CART_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Constructs an order service selling the products of the catalog, with the given idle timeout for carts.
+     *
+     * @param catalog the available products and their amounts; only read when the service is created
+     *                and by {@link #searchCatalog(String)}
+     * @param orderIdGenerator the generator of order numbers
+     * @param receiptWriter the writer of the checks, or null to skip writing checks
+     * @param cartIdleTimeout how long a cart may stay unused before it expires
+     * @throws IllegalArgumentException if the catalog or generator is null or the timeout is not positive
+     */
+    public OrderService(Assortment catalog, OrderIdGenerator orderIdGenerator, ReceiptWriter receiptWriter,
+                        Duration cartIdleTimeout) {
+        if (catalog == null) throw new IllegalArgumentException("Catalog cannot be null");
+        if (orderIdGenerator == null) throw new IllegalArgumentException("Order ID generator cannot be null");
+
+        this.catalog = catalog;
+        this.stockEngine = new StockEngine(catalog);
+        this.orderIdGenerator = orderIdGenerator;
+        this.receiptWriter = receiptWriter;
+        this.cartStore = CartSessionStore.start(stockEngine, cartIdleTimeout);
+    }
+
+    /**
+     * Finds the products whose names contain the search text, with their currently available amounts.
+     *
+     * @param searchText the text to search for; an empty text matches all products
+     * @return a new assortment of the matching products
+     * @throws IllegalArgumentException if the search text is null
+     */
+    public Assortment searchCatalog(String searchText) {
+        if (searchText == null) throw new IllegalArgumentException("Search text cannot be null");
+
+        int[] productIds;
+        synchronized (catalog) {
+            productIds = catalog.getSearchIndex().search(searchText);
+        }
+        Assortment result = new Assortment();
+        for (int productID : productIds) {
+            Product product = stockEngine.getProductById(productID);
+            if (product != null) result.setAmount(product, stockEngine.getAvailable(productID));
+        }
+        return result;
+    }
+
+    /**
+     * Opens a new, empty cart.
+     *
+     * @return the ID of the cart
+     */
+    public String createCart() {
+        return Long.toString(cartStore.open(), Character.MAX_RADIX);
+    }
+
+    /**
+     * Reserves an amount of a product and adds it to the cart.
+     *
+     * @param cartId the ID of the cart
+     * @param productID the ID of the product
+     * @param amount the amount to add
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     * @throws IllegalArgumentException if the product is unknown, the amount is not positive
+     *                                  or not enough stock is available
+     */
+    public void addToCart(String cartId, int productID, int amount) {
+        if (amount < 1) throw new IllegalArgumentException("Некоректна кіл-сть");
+        if (stockEngine.getProductById(productID) == null) {
+            throw new IllegalArgumentException("Product with ID " + productID + " not found");
+        }
+
+        cartStore.add(sessionId(cartId), productID, amount);
+    }
+
+    /**
+     * Removes a product from the cart and releases its reserved amount.
+     *
+     * @param cartId the ID of the cart
+     * @param productID the ID of the product
+     * @return true if the product was in the cart, false otherwise
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public boolean removeFromCart(String cartId, int productID) {
+        return cartStore.remove(sessionId(cartId), productID);
+    }
+
+    /**
+     * Returns a snapshot of the cart's lines. The order number of the snapshot is the cart ID.
+     *
+     * @param cartId the ID of the cart
+     * @return the snapshot of the cart
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public Receipt getCart(String cartId) {
+        return Receipt.of(cartId, cartStore.toCart(sessionId(cartId)));
+    }
+
+    /**
+     * Returns the total price of the cart.
+     *
+     * @param cartId the ID of the cart
+     * @return the total price in minor units
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     */
+    public long getCartTotalMinor(String cartId) {
+        return cartStore.getTotalMinor(sessionId(cartId));
+    }
+
+    /**
+     * Sells the contents of the cart: commits the reserved stock, closes the cart and queues the check.
+     * Caching assortment loaders are told about the sale, so the catalog does not show the sold stock.
+     * The sale is committed before the check is written; if the check cannot be written, the future
+     * fails but the stock stays sold.
+     *
+     * @param cartId the ID of the cart
+     * @return a future completed with the receipt once the check has been written, or failed if it could not be
+     * @throws NoSuchElementException if the cart does not exist or has expired
+     * @throws IllegalArgumentException if the cart is empty
+     */
+    public CompletableFuture<Receipt> checkout(String cartId) {
+        Cart sold = cartStore.checkout(sessionId(cartId));
+        CachedAssortmentLoader.localWriteCommitted();
+        Receipt receipt = Receipt.of(orderIdGenerator.nextOrderNumber(), sold);
+
+        if (receiptWriter == null) return CompletableFuture.completedFuture(receipt);
+        try {
+            return receiptWriter.submit(receipt);
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Closes the cart and releases all of its reserved stock.
+     *
+     * @param cartId the ID of the cart
+     * @return true if the cart was open, false if it does not exist or has expired
+     */
+    public boolean cancelCart(String cartId) {
+        try {
+            return cartStore.cancel(sessionId(cartId));
+        } catch (NoSuchElementException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the amount of a product that can still be added to carts.
+     *
+     * @param productID the ID of the product
+     * @return the available amount, or 0 if the product is unknown
+     */
+    public int getAvailable(int productID) {
+        return stockEngine.getAvailable(productID);
+    }
+
+    /**
+     * Returns the number of open carts.
+     *
+     * @return the number of carts
+     */
+    public int getOpenCartCount() {
+        return cartStore.size();
+    }
+
+    /**
+     * Stops expiring idle carts. Open carts keep their reservations.
+     */
+    @Override
+    public void close() {
+        cartStore.close();
+    }
+
+    private static long sessionId(String cartId) {
+        if (cartId == null) throw new NoSuchElementException("Cart null not found");
+        try {
+            return Long.parseLong(cartId, Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            throw new NoSuchElementException("Cart " + cartId + " not found");
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package service;
+
+import database.ReceiptJournal;
+import model.Assortment;
+import model.IntIntHashMap;
+import model.Receipt;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Aggregates the sales recorded in a {@link ReceiptJournal}: revenue per period, top products and sell-through.
+ *
+ * Receipts are read incrementally: the analytics remember the journal position they have read up to, and each
+ * report only reads the receipts written since then. Those receipts are read in parallel, one task per journal
+ * segment, and their sales are added to running totals per period and product. A period that has ended is
+ * sealed: its totals are frozen into a {@link SalesReport.PeriodSales} once and reused by later reports. If a
+ * receipt of a sealed period arrives late, that period is frozen again. All methods are thread-safe.
+ */
+public class SalesAnalytics {
+    private final ReceiptJournal journal;
+    private final ZoneId zone;
+    private final Granularity granularity;
+    private final LongSupplier clock;
+    private final TreeMap<Long, PeriodTotals> periods;
+    private final Map<Long, SalesReport.PeriodSales> sealedPeriods;
+    private long readPosition;
+
+    /**
+     * The length of the periods revenue is reported for.
+     */
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        /**
+         * Returns the start of the period containing a point in time.
+         *
+         * @param epochMillis the point in time in milliseconds since the epoch
+         * @param zone the time zone the periods are counted in
+         * @return the start of the period in milliseconds since the epoch
+         */
+        public long periodStart(long epochMillis, ZoneId zone) {
+            ZonedDateTime day = Instant.ofEpochMilli(epochMillis).atZone(zone).truncatedTo(ChronoUnit.DAYS);
+            switch (this) {
+                case WEEK:
+                    day = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                    break;
+                case MONTH:
+                    day = day.withDayOfMonth(1);
+                    break;
+                default:
+                    break;
+            }
+            return day.toInstant().toEpochMilli();
+        }
+
+        /**
+         * Returns the start of the period following the period starting at the given time.
+         *
+         * @param periodStart the start of a period in milliseconds since the epoch
+         * @param zone the time zone the periods are counted in
+         * @return the start of the next period in milliseconds since the epoch
+         */
+        public long nextPeriodStart(long periodStart, ZoneId zone) {
+            ZonedDateTime start = Instant.ofEpochMilli(periodStart).atZone(zone);
+            switch (this) {
+                case WEEK:
+                    return start.plusWeeks(1).toInstant().toEpochMilli();
+                case MONTH:
+                    return start.plusMonths(1).toInstant().toEpochMilli();
+                default:
+                    return start.plusDays(1).toInstant().toEpochMilli();
+            }
+        }
+    }
+
+    /**
+     * Constructs analytics over the journal that report revenue per period of the given length.
+     *
+     * @param journal the journal of receipts
+     * @param zone the time zone the periods are counted in
+     * @param granularity the length of the periods
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public SalesAnalytics(ReceiptJournal journal, ZoneId zone, Granularity granularity) {
+        this(journal, zone, granularity, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs analytics over the journal with the given clock, used to decide which periods have ended.
+     *
+     * @param journal the journal of receipts
+     * @param zone the time zone the periods are counted in
+     * @param granularity the length of the periods
+     * @param clock the source of the current time in milliseconds since the epoch
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public SalesAnalytics(ReceiptJournal journal, ZoneId zone, Granularity granularity, LongSupplier clock) {
+        if (journal == null) throw new IllegalArgumentException("Journal cannot be null");
+        if (zone == null || granularity == null || clock == null) throw new IllegalArgumentException("Invalid input");
+
+        this.journal = journal;
+        this.zone = zone;
+        this.granularity = granularity;
+        this.clock = clock;
+        this.periods = new TreeMap<>();
+        this.sealedPeriods = new HashMap<>();
+    }
+
+    /**
+     * Reads the receipts written to the journal since the last refresh and adds them to the totals.
+     *
+     * @return the number of receipts read
+     */
+    public synchronized int refresh() {
+        long endPosition = journal.getEndPosition();
+        if (endPosition == readPosition) return 0;
+
+        int firstSegment = ReceiptJournal.segmentOfPosition(readPosition);
+        int lastSegment = ReceiptJournal.segmentOfPosition(endPosition);
+        long startPosition = readPosition;
+
+        Map<Long, PeriodTotals> read = IntStream.rangeClosed(firstSegment, lastSegment).parallel()
+                .mapToObj(segment -> readRange(
+                        segment == firstSegment ? startPosition : ReceiptJournal.segmentStartPosition(segment),
+                        segment == lastSegment ? endPosition : ReceiptJournal.segmentStartPosition(segment + 1)))
+                .reduce(SalesAnalytics::merge)
+                .orElseGet(HashMap::new);
+
+        int receiptCount = 0;
+        for (Map.Entry<Long, PeriodTotals> entry : read.entrySet()) {
+            PeriodTotals totals = periods.get(entry.getKey());
+            if (totals == null) {
+                periods.put(entry.getKey(), entry.getValue());
+            } else {
+                totals.addAll(entry.getValue());
+            }
+            sealedPeriods.remove(entry.getKey());
+            receiptCount += (int) entry.getValue().receiptCount;
+        }
+        readPosition = endPosition;
+        return receiptCount;
+    }
+
+    /**
+     * Reports the sales of the periods overlapping a time range, after reading any new receipts.
+     *
+     * Periods are reported as a whole, so the range is widened to the start of the period containing
+     * {@code from}. The sell-through rates compare the units sold with the current stock in the assortment,
+     * which is only read by this call.
+     *
+     * @param from the start of the range
+     * @param to the exclusive end of the range
+     * @param topN how many of the products with the highest revenue to report
+     * @param stock the current stock of the products
+     * @return the report
+     * @throws IllegalArgumentException if an argument is null, the range is empty or topN is negative
+     */
+    public synchronized SalesReport report(Instant from, Instant to, int topN, Assortment stock) {
+        if (from == null || to == null || stock == null) throw new IllegalArgumentException("Invalid input");
+        if (!from.isBefore(to)) throw new IllegalArgumentException("Range is empty");
+        if (topN < 0) throw new IllegalArgumentException("topN cannot be negative");
+
+        refresh();
+
+        long rangeStart = granularity.periodStart(from.toEpochMilli(), zone);
+        long currentPeriodStart = granularity.periodStart(clock.getAsLong(), zone);
+        NavigableMap<Long, PeriodTotals> inRange = periods.subMap(rangeStart, true, to.toEpochMilli(), false);
+
+        List<SalesReport.PeriodSales> periodSales = new ArrayList<>(inRange.size());
+        PeriodTotals rangeTotals = new PeriodTotals();
+        for (Map.Entry<Long, PeriodTotals> entry : inRange.entrySet()) {
+            long start = entry.getKey();
+            SalesReport.PeriodSales sales = start < currentPeriodStart
+                    ? sealedPeriods.computeIfAbsent(start, key -> freeze(key, entry.getValue()))
+                    : freeze(start, entry.getValue());
+            periodSales.add(sales);
+            rangeTotals.addAll(sales);
+        }
+
+        long stockTotal = 0;
+        for (int i = 0; i < stock.size(); i++) {
+            stockTotal += stock.getAmountAt(i);
+        }
+        long sellable = rangeTotals.unitCount + stockTotal;
+        double sellThroughRate = sellable == 0 ? 0 : (double) rangeTotals.unitCount / sellable;
+
+        return new SalesReport(Instant.ofEpochMilli(rangeStart), to, periodSales, topProducts(rangeTotals, topN, stock),
+                rangeTotals.receiptCount, rangeTotals.unitCount, rangeTotals.revenueMinor, sellThroughRate);
+    }
+
+    private Map<Long, PeriodTotals> readRange(long fromPosition, long toPosition) {
+        Map<Long, PeriodTotals> read = new HashMap<>();
+        journal.forEachInRange(fromPosition, toPosition, receipt -> read
+                .computeIfAbsent(granularity.periodStart(receipt.getCreatedAt(), zone), key -> new PeriodTotals())
+                .addReceipt(receipt));
+        return read;
+    }
+
+    private static Map<Long, PeriodTotals> merge(Map<Long, PeriodTotals> first, Map<Long, PeriodTotals> second) {
+        for (Map.Entry<Long, PeriodTotals> entry : second.entrySet()) {
+            first.merge(entry.getKey(), entry.getValue(), (totals, more) -> {
+                totals.addAll(more);
+                return totals;
+            });
+        }
+        return first;
+    }
+
+    private SalesReport.PeriodSales freeze(long start, PeriodTotals totals) {
+        int size = totals.size;
+        return new SalesReport.PeriodSales(Instant.ofEpochMilli(start),
+                Instant.ofEpochMilli(granularity.nextPeriodStart(start, zone)),
+                totals.receiptCount, totals.unitCount, totals.revenueMinor,
+                Arrays.copyOf(totals.productIds, size), Arrays.copyOf(totals.names, size),
+                Arrays.copyOf(totals.productUnits, size), Arrays.copyOf(totals.productRevenueMinor, size));
+    }
+
+    /**
+     * Selects the products with the highest revenue, and then the most units, with a heap of size topN.
+     */
+    private static List<SalesReport.ProductSales> topProducts(PeriodTotals totals, int topN, Assortment stock) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, topN), (first, second) -> {
+            int result = Long.compare(totals.productRevenueMinor[first], totals.productRevenueMinor[second]);
+            if (result == 0) result = Long.compare(totals.productUnits[first], totals.productUnits[second]);
+            return result != 0 ? result : Integer.compare(totals.productIds[second], totals.productIds[first]);
+        });
+        for (int slot = 0; slot < totals.size && topN > 0; slot++) {
+            heap.add(slot);
+            if (heap.size() > topN) heap.poll();
+        }
+
+        SalesReport.ProductSales[] top = new SalesReport.ProductSales[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            int slot = heap.poll();
+            int productID = totals.productIds[slot];
+            top[i] = new SalesReport.ProductSales(productID, totals.names[slot], totals.productUnits[slot],
+                    totals.productRevenueMinor[slot], stock.getAmount(productID));
+        }
+        return Arrays.asList(top);
+    }
+
+    /**
+     * The running totals of one period, with the units and revenue of every product in parallel arrays.
+     */
+    private static class PeriodTotals {
+        private final IntIntHashMap slotsById = new IntIntHashMap();
+        private int[] productIds = new int[16];
+        private String[] names = new String[16];
+        private long[] productUnits = new long[16];
+        private long[] productRevenueMinor = new long[16];
+        private int size;
+        private long receiptCount;
+        private long unitCount;
+        private long revenueMinor;
+
+        void addReceipt(Receipt receipt) {
+            receiptCount++;
+            for (int line = 0; line < receipt.getLineCount(); line++) {
+                long lineMinor = receipt.getLineTotalMinor(line);
+                unitCount += receipt.getAmount(line);
+                revenueMinor += lineMinor;
+                addProduct(receipt.getProductId(line), receipt.getName(line), receipt.getAmount(line), lineMinor);
+            }
+        }
+
+        void addAll(PeriodTotals other) {
+            receiptCount += other.receiptCount;
+            unitCount += other.unitCount;
+            revenueMinor += other.revenueMinor;
+            for (int slot = 0; slot < other.size; slot++) {
+                addProduct(other.productIds[slot], other.names[slot], other.productUnits[slot], other.productRevenueMinor[slot]);
+            }
+        }
+
+        void addAll(SalesReport.PeriodSales sales) {
+            receiptCount += sales.getReceiptCount();
+            unitCount += sales.getUnitCount();
+            revenueMinor += sales.getRevenueMinor();
+            for (int slot = 0; slot < sales.productIds.length; slot++) {
+                addProduct(sales.productIds[slot], sales.names[slot], sales.productUnits[slot], sales.productRevenueMinor[slot]);
+            }
+        }
+
+        private void addProduct(int productID, String name, long units, long lineMinor) {
+            int slot = slotsById.get(productID, -1);
+            if (slot == -1) {
+                if (size == productIds.length) {
+                    int capacity = size << 1;
+                    productIds = Arrays.copyOf(productIds, capacity);
+                    names = Arrays.copyOf(names, capacity);
+                    productUnits = Arrays.copyOf(productUnits, capacity);
+                    productRevenueMinor = Arrays.copyOf(productRevenueMinor, capacity);
+                }
+                slot = size++;
+                productIds[slot] = productID;
+                names[slot] = name;
+                slotsById.put(productID, slot);
+            }
+            productUnits[slot] += units;
+            productRevenueMinor[slot] += lineMinor;
+        }
+    }
+}
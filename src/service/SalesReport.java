@@ -0,0 +1,261 @@
+package service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The result of {@link SalesAnalytics#report(Instant, Instant, int, model.Assortment)}: revenue per period,
+ * the best-selling products and the sell-through rate for a time range. Reports are immutable.
+ */
+public class SalesReport {
+    private final Instant from;
+    private final Instant to;
+    private final List<PeriodSales> periods;
+    private final List<ProductSales> topProducts;
+    private final long receiptCount;
+    private final long unitCount;
+    private final long revenueMinor;
+    private final double sellThroughRate;
+
+    SalesReport(Instant from, Instant to, List<PeriodSales> periods, List<ProductSales> topProducts,
+                long receiptCount, long unitCount, long revenueMinor, double sellThroughRate) {
+        this.from = from;
+        this.to = to;
+        this.periods = List.copyOf(periods);
+        this.topProducts = List.copyOf(topProducts);
+        this.receiptCount = receiptCount;
+        this.unitCount = unitCount;
+        this.revenueMinor = revenueMinor;
+        this.sellThroughRate = sellThroughRate;
+    }
+
+    /**
+     * Returns the start of the reported range, rounded down to the start of its period.
+     *
+     * @return the start of the range
+     */
+    public Instant getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the exclusive end of the reported range.
+     *
+     * @return the end of the range
+     */
+    public Instant getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the sales of every period of the range that had any receipts, oldest first.
+     *
+     * @return the sales per period
+     */
+    public List<PeriodSales> getPeriods() {
+        return periods;
+    }
+
+    /**
+     * Returns the products with the highest revenue in the range, highest first.
+     *
+     * @return the top products
+     */
+    public List<ProductSales> getTopProducts() {
+        return topProducts;
+    }
+
+    /**
+     * Returns the number of receipts in the range.
+     *
+     * @return the number of receipts
+     */
+    public long getReceiptCount() {
+        return receiptCount;
+    }
+
+    /**
+     * Returns the number of units sold in the range.
+     *
+     * @return the number of units
+     */
+    public long getUnitCount() {
+        return unitCount;
+    }
+
+    /**
+     * Returns the revenue of the range.
+     *
+     * @return the revenue in minor units
+     */
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+
+    /**
+     * Returns the share of the units that were sold: units sold divided by units sold plus the current stock
+     * of all products.
+     *
+     * @return the sell-through rate between 0 and 1, or 0 if nothing was sold or in stock
+     */
+    public double getSellThroughRate() {
+        return sellThroughRate;
+    }
+
+    /**
+     * The sales of one period.
+     */
+    public static final class PeriodSales {
+        private final Instant start;
+        private final Instant end;
+        private final long receiptCount;
+        private final long unitCount;
+        private final long revenueMinor;
+        final int[] productIds;
+        final String[] names;
+        final long[] productUnits;
+        final long[] productRevenueMinor;
+
+        PeriodSales(Instant start, Instant end, long receiptCount, long unitCount, long revenueMinor,
+                    int[] productIds, String[] names, long[] productUnits, long[] productRevenueMinor) {
+            this.start = start;
+            this.end = end;
+            this.receiptCount = receiptCount;
+            this.unitCount = unitCount;
+            this.revenueMinor = revenueMinor;
+            this.productIds = productIds;
+            this.names = names;
+            this.productUnits = productUnits;
+            this.productRevenueMinor = productRevenueMinor;
+        }
+
+        /**
+         * Returns the start of the period.
+         *
+         * @return the start of the period
+         */
+        public Instant getStart() {
+            return start;
+        }
+
+        /**
+         * Returns the exclusive end of the period.
+         *
+         * @return the end of the period
+         */
+        public Instant getEnd() {
+            return end;
+        }
+
+        /**
+         * Returns the number of receipts in the period.
+         *
+         * @return the number of receipts
+         */
+        public long getReceiptCount() {
+            return receiptCount;
+        }
+
+        /**
+         * Returns the number of units sold in the period.
+         *
+         * @return the number of units
+         */
+        public long getUnitCount() {
+            return unitCount;
+        }
+
+        /**
+         * Returns the revenue of the period.
+         *
+         * @return the revenue in minor units
+         */
+        public long getRevenueMinor() {
+            return revenueMinor;
+        }
+
+        @Override
+        public String toString() {
+            return start + ".." + end + ": " + receiptCount + " receipts, " + revenueMinor + " minor";
+        }
+    }
+
+    /**
+     * The sales of one product in the reported range.
+     */
+    public static final class ProductSales {
+        private final int productId;
+        private final String name;
+        private final long unitsSold;
+        private final long revenueMinor;
+        private final int inStock;
+
+        ProductSales(int productId, String name, long unitsSold, long revenueMinor, int inStock) {
+            this.productId = productId;
+            this.name = name;
+            this.unitsSold = unitsSold;
+            this.revenueMinor = revenueMinor;
+            this.inStock = inStock;
+        }
+
+        /**
+         * Returns the ID of the product.
+         *
+         * @return the product ID
+         */
+        public int getProductId() {
+            return productId;
+        }
+
+        /**
+         * Returns the product name printed on the receipts.
+         *
+         * @return the product name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of units sold.
+         *
+         * @return the units sold
+         */
+        public long getUnitsSold() {
+            return unitsSold;
+        }
+
+        /**
+         * Returns the revenue of the product.
+         *
+         * @return the revenue in minor units
+         */
+        public long getRevenueMinor() {
+            return revenueMinor;
+        }
+
+        /**
+         * Returns the current stock of the product.
+         *
+         * @return the amount in stock, 0 if the product is not in the assortment
+         */
+        public int getInStock() {
+            return inStock;
+        }
+
+        /**
+         * Returns the units sold divided by the units sold plus the current stock.
+         *
+         * @return the sell-through rate between 0 and 1
+         */
+        public double getSellThroughRate() {
+            long total = unitsSold + inStock;
+            return total == 0 ? 0 : (double) unitsSold / total;
+        }
+
+        @Override
+        public String toString() {
+            return productId + " " + name + ": " + unitsSold + " units, " + revenueMinor + " minor";
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package controller.AssortmentFilterPipelineTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.AssortmentFilterPipeline;
+import database.AssortmentLoader;
+import database.QueryCancellation;
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SubmitTest {
+
+    @Test
+    void testRapidInputIsDebouncedToLatestQuery() throws Exception {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        AtomicInteger loads = new AtomicInteger();
+        JTable table = new JTable();
+
+        try (AssortmentFilterPipeline pipeline = new AssortmentFilterPipeline(table, () -> {
+            loads.incrementAndGet();
+            return assortment;
+        }, 100)) {
+            // Act
+            for (String text : new String[]{"j", "je", "jea", "jean", "jeans"}) {
+                pipeline.submit(text);
+            }
+            Thread.sleep(1_000);
+            SwingUtilities.invokeAndWait(() -> { });
+
+            // Assert
+            assertEquals(1, loads.get(), "Only the latest query should load the assortment");
+            assertEquals(1, table.getModel().getRowCount(), "Table should show the latest result");
+            assertEquals("Jeans", table.getModel().getValueAt(0, 1), "Table should show the matching product");
+        }
+    }
+
+    @Test
+    void testNewInputCancelsRunningLoad() throws Exception {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        CountDownLatch firstLoadStarted = new CountDownLatch(1);
+        CountDownLatch firstLoadCancelled = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        JTable table = new JTable();
+
+        AssortmentLoader loader = new AssortmentLoader() {
+            @Override
+            public Assortment load() {
+                return assortment;
+            }
+
+            @Override
+            public Assortment load(QueryCancellation cancellation) throws SQLException {
+                if (loads.incrementAndGet() == 1) {
+                    firstLoadStarted.countDown();
+                    while (!cancellation.isCancelled()) {
+                        Thread.onSpinWait();
+                    }
+                    firstLoadCancelled.countDown();
+                    cancellation.throwIfCancelled();
+                }
+                return assortment;
+            }
+        };
+
+        try (AssortmentFilterPipeline pipeline = new AssortmentFilterPipeline(table, loader, 0)) {
+            pipeline.submit("t-shirt");
+            assertTrue(firstLoadStarted.await(5, TimeUnit.SECONDS), "First load should start");
+
+            // Act
+            pipeline.submit("jeans");
+
+            // Assert
+            assertTrue(firstLoadCancelled.await(5, TimeUnit.SECONDS), "Running load should be cancelled by newer input");
+            Thread.sleep(500);
+            SwingUtilities.invokeAndWait(() -> { });
+            assertEquals(2, loads.get(), "Only the superseded and the latest query should load");
+            assertEquals(1, table.getModel().getRowCount(), "Table should show the latest result");
+            assertEquals("Jeans", table.getModel().getValueAt(0, 1), "Table should show the matching product");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package controller.AssortmentRowSorterTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.AssortmentRowSorter;
+import controller.AssortmentTableModel;
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import java.util.List;
+
+class SortTest {
+
+    private static Assortment catalog() {
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "Socks", 2.50), 10);
+        assortment.addProduct(new Product(2, "jeans", 45.00), 2);
+        assortment.addProduct(new Product(3, "Jacket", 99.99), 7);
+        assortment.addProduct(new Product(4, "T-shirt", 15.99), 5);
+        return assortment;
+    }
+
+    /**
+     * Connects the sorter to the model the way a JTable does, without creating a table.
+     */
+    private static AssortmentRowSorter sorterFor(AssortmentTableModel model) {
+        AssortmentRowSorter sorter = new AssortmentRowSorter(model);
+        model.addTableModelListener(e -> {
+            if (e.getType() == TableModelEvent.INSERT) {
+                sorter.rowsInserted(e.getFirstRow(), e.getLastRow());
+            } else if (e.getType() == TableModelEvent.DELETE) {
+                sorter.rowsDeleted(e.getFirstRow(), e.getLastRow());
+            } else if (e.getLastRow() == Integer.MAX_VALUE) {
+                sorter.allRowsChanged();
+            } else {
+                sorter.rowsUpdated(e.getFirstRow(), e.getLastRow());
+            }
+        });
+        return sorter;
+    }
+
+    private static int[] viewIds(AssortmentRowSorter sorter, AssortmentTableModel model) {
+        int[] ids = new int[sorter.getViewRowCount()];
+        for (int view = 0; view < ids.length; view++) {
+            ids[view] = model.getProductIdAt(sorter.convertRowIndexToModel(view));
+            assertEquals(view, sorter.convertRowIndexToView(sorter.convertRowIndexToModel(view)),
+                    "Model-to-view mapping should invert view-to-model");
+        }
+        return ids;
+    }
+
+    @Test
+    void testToggleSortOrder_SortsByPrimitiveColumns() {
+        // Arrange
+        AssortmentTableModel model = new AssortmentTableModel(catalog(), 1);
+        AssortmentRowSorter sorter = sorterFor(model);
+
+        // Act
+        sorter.toggleSortOrder(3);
+        int[] byPriceAscending = viewIds(sorter, model);
+        sorter.toggleSortOrder(3);
+        int[] byPriceDescending = viewIds(sorter, model);
+        sorter.toggleSortOrder(1);
+        int[] byName = viewIds(sorter, model);
+
+        // Assert
+        assertArrayEquals(new int[]{1, 4, 2, 3}, byPriceAscending, "Rows should be sorted by price");
+        assertArrayEquals(new int[]{3, 2, 4, 1}, byPriceDescending, "Second toggle should reverse the order");
+        assertArrayEquals(new int[]{3, 2, 1, 4}, byName, "Names should be sorted ignoring case");
+    }
+
+    @Test
+    void testStockChanges_UpdateSortedOrderIncrementally() {
+        // Arrange
+        Assortment assortment = catalog();
+        AssortmentTableModel model = new AssortmentTableModel(assortment, 1);
+        AssortmentRowSorter sorter = sorterFor(model);
+        sorter.setSortKeys(List.of(new RowSorter.SortKey(2, SortOrder.ASCENDING)));
+
+        // Act
+        assortment.setAmount(assortment.getProductById(1), 1);
+        model.productChanged(1);
+        int[] afterUpdate = viewIds(sorter, model);
+
+        assortment.addProduct(new Product(5, "Cap", 9.99), 6);
+        model.productChanged(5);
+        int[] afterInsert = viewIds(sorter, model);
+
+        assortment.removeProduct(2);
+        model.productChanged(2);
+        int[] afterDelete = viewIds(sorter, model);
+
+        // Assert
+        assertArrayEquals(new int[]{1, 2, 4, 3}, afterUpdate, "Changed amount should move the row");
+        assertArrayEquals(new int[]{1, 2, 4, 5, 3}, afterInsert, "Inserted row should be placed in order");
+        assertArrayEquals(new int[]{1, 4, 5, 3}, afterDelete, "Deleted row should leave the order");
+    }
+
+    @Test
+    void testManyRows_MatchesFullSort() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        for (int id = 0; id < 5_000; id++) {
+            assortment.addProduct(new Product(id, "Product " + id, 1 + (id * 7919) % 1000 / 10.0), (id * 31) % 97);
+        }
+        AssortmentTableModel model = new AssortmentTableModel(assortment, 1);
+        AssortmentRowSorter sorter = sorterFor(model);
+        sorter.toggleSortOrder(2);
+
+        // Act
+        for (int id = 0; id < 5_000; id += 13) {
+            assortment.setAmount(assortment.getProductById(id), (id * 17) % 101);
+            model.productChanged(id);
+        }
+        for (int id = 1; id < 5_000; id += 29) {
+            assortment.removeProduct(id);
+            model.productChanged(id);
+        }
+
+        // Assert
+        int previousAmount = Integer.MIN_VALUE;
+        int previousId = Integer.MIN_VALUE;
+        for (int view = 0; view < sorter.getViewRowCount(); view++) {
+            int row = sorter.convertRowIndexToModel(view);
+            int amount = model.getAmountAt(row);
+            int id = model.getProductIdAt(row);
+            assertTrue(amount > previousAmount || (amount == previousAmount && id > previousId),
+                    "Rows should stay sorted by amount and then ID");
+            previousAmount = amount;
+            previousId = id;
+        }
+        assertEquals(model.getRowCount(), sorter.getViewRowCount(), "Every model row should be shown");
+    }
+}
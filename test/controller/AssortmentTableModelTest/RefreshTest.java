@@ -0,0 +1,106 @@
+package controller.AssortmentTableModelTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.AssortmentTableModel;
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+class RefreshTest {
+
+    @Test
+    void testRefreshFiresOnlyChangedRows() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        for (int id = 0; id < 100; id++) {
+            assortment.addProduct(new Product(id, "Product " + id, 1.00), 10);
+        }
+        AssortmentTableModel model = new AssortmentTableModel(assortment, 1);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        // Act
+        assortment.setAmount(assortment.getProductById(42), 5);
+        model.refresh();
+
+        // Assert
+        assertEquals(1, events.size(), "Only one event should be fired");
+        assertEquals(TableModelEvent.UPDATE, events.get(0).getType(), "Changed row should be updated");
+        int row = model.getRowOfProduct(42);
+        assertEquals(row, events.get(0).getFirstRow(), "Event should cover the changed row");
+        assertEquals(row, events.get(0).getLastRow(), "Event should cover only the changed row");
+        assertEquals(5, model.getValueAt(row, 2), "Row should show the new amount");
+    }
+
+    @Test
+    void testSetAssortmentInsertsAndDeletesRows() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        AssortmentTableModel model = new AssortmentTableModel(assortment, 1);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        Assortment reloaded = new Assortment();
+        reloaded.addProduct(new Product(2, "Jeans", 45.00), 2);
+        reloaded.addProduct(new Product(3, "Jacket", 99.99), 1);
+
+        // Act
+        model.setAssortment(reloaded);
+
+        // Assert
+        assertEquals(2, model.getRowCount(), "Model should show the reloaded products");
+        assertEquals(-1, model.getRowOfProduct(1), "Removed product should not be shown");
+        assertEquals("Jacket", model.getValueAt(model.getRowOfProduct(3), 1), "New product should be shown");
+        assertTrue(events.stream().anyMatch(e -> e.getType() == TableModelEvent.DELETE), "A delete event should be fired");
+        assertTrue(events.stream().anyMatch(e -> e.getType() == TableModelEvent.INSERT), "An insert event should be fired");
+    }
+
+    @Test
+    void testProductChangedRemovesRow() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        AssortmentTableModel model = new AssortmentTableModel(assortment, 2);
+
+        // Act
+        assortment.removeProductByProductID(1);
+        model.productChanged(1);
+
+        // Assert
+        assertEquals(1, model.getRowCount(), "Row should be removed");
+        assertEquals(2, model.getProductIdAt(0), "Remaining product should be shown");
+    }
+
+    @Test
+    void testRemovedRowKeepsOrderOfRemainingRows() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        assortment.addProduct(new Product(3, "Jacket", 99.99), 1);
+        AssortmentTableModel model = new AssortmentTableModel(assortment, 1);
+        List<TableModelEvent> events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+
+        // Act
+        assortment.removeProductByProductID(1);
+        model.productChanged(1);
+
+        // Assert
+        assertEquals(2, model.getProductIdAt(0), "Rows below the removed row should move up");
+        assertEquals(3, model.getProductIdAt(1), "Rows below the removed row should keep their order");
+        assertEquals(1, model.getRowOfProduct(3), "Moved rows should be found by product id");
+        assertEquals(1, events.size(), "A single event should be fired");
+        assertEquals(TableModelEvent.DELETE, events.get(0).getType(), "The event should be a delete");
+        assertEquals(0, events.get(0).getFirstRow(), "The delete should start at the removed row");
+        assertEquals(0, events.get(0).getLastRow(), "The delete should end at the removed row");
+    }
+}
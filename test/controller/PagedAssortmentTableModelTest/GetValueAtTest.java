@@ -0,0 +1,134 @@
+package controller.PagedAssortmentTableModelTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.PagedAssortmentTableModel;
+import database.AssortmentPage;
+import database.AssortmentPageSource;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class GetValueAtTest {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 100;
+
+    private final AtomicInteger loadedPages = new AtomicInteger();
+    private final CountDownLatch blockerReleased = new CountDownLatch(1);
+    private volatile int blockerPage = -1;
+
+    private final AssortmentPageSource source = new AssortmentPageSource() {
+        @Override
+        public int getPageSize() {
+            return PAGE_SIZE;
+        }
+
+        @Override
+        public int countRows() {
+            return ROWS;
+        }
+
+        @Override
+        public AssortmentPage loadPage(int pageIndex) {
+            loadedPages.incrementAndGet();
+            if (pageIndex == blockerPage) {
+                try {
+                    blockerReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            AssortmentPage page = new AssortmentPage(PAGE_SIZE);
+            for (int id = pageIndex * PAGE_SIZE; id < Math.min(ROWS, (pageIndex + 1) * PAGE_SIZE); id++) {
+                page.add(id, "Product " + id, id % 7, 9.99);
+            }
+            return page;
+        }
+
+        @Override
+        public void reset() {
+        }
+    };
+
+    @Test
+    void testPagesAreLoadedOnDemandAndBounded() throws Exception {
+        // Arrange
+        PagedAssortmentTableModel model = new PagedAssortmentTableModel(source, 3, 1);
+        awaitLoads();
+
+        // Act
+        Object[] firstRow = new Object[1];
+        Object[] placeholder = new Object[1];
+        SwingUtilities.invokeAndWait(() -> {
+            firstRow[0] = model.getValueAt(0, 1);
+            placeholder[0] = model.getValueAt(5_000, 1);
+        });
+        awaitLoads();
+        Object[] loaded = new Object[1];
+        SwingUtilities.invokeAndWait(() -> {
+            loaded[0] = model.getValueAt(5_000, 1);
+            for (int row = 6_000; row < 9_000; row += PAGE_SIZE) {
+                model.getValueAt(row, 0);
+            }
+        });
+        awaitLoads();
+
+        // Assert
+        assertEquals(ROWS, model.getRowCount(), "Row count should be known after the first load");
+        assertEquals("Product 0", firstRow[0], "First page should be loaded up front");
+        assertNull(placeholder[0], "A row of a missing page should be empty until its page arrives");
+        assertEquals("Product 5000", loaded[0], "Requested page should be loaded");
+        assertTrue(model.getResidentPageCount() <= 3, "No more than the resident limit should be kept");
+        assertTrue(loadedPages.get() < ROWS / PAGE_SIZE, "Only requested pages should be loaded");
+        model.close();
+    }
+
+    @Test
+    void testSkippedPageIsRequestedAgainWhenNearTheWantedPage() throws Exception {
+        // Arrange
+        PagedAssortmentTableModel model = new PagedAssortmentTableModel(source, 5, 1);
+        awaitLoads();
+        List<Integer> updatedRows = new ArrayList<>();
+        // like a JTable, read the updated rows again when they are repainted
+        model.addTableModelListener(event -> {
+            updatedRows.add(event.getFirstRow());
+            model.getValueAt(event.getFirstRow(), 1);
+        });
+        blockerPage = 0;
+        SwingUtilities.invokeAndWait(() -> {
+            model.reload();
+            model.getValueAt(12 * PAGE_SIZE, 1);
+            model.getValueAt(50 * PAGE_SIZE, 1);
+        });
+        blockerReleased.countDown();
+        awaitLoads();
+
+        boolean skippedPageRepainted = updatedRows.contains(12 * PAGE_SIZE);
+        int loadsBeforeScrollingBack = loadedPages.get();
+
+        // Act
+        SwingUtilities.invokeAndWait(() -> model.getValueAt(11 * PAGE_SIZE, 1));
+        awaitLoads();
+        awaitLoads();
+        Object[] retried = new Object[1];
+        SwingUtilities.invokeAndWait(() -> retried[0] = model.getValueAt(12 * PAGE_SIZE, 1));
+
+        // Assert
+        assertFalse(skippedPageRepainted, "Page far from the wanted page should have been skipped");
+        assertEquals(3, loadsBeforeScrollingBack, "Only the first page, twice, and the wanted page should have been loaded");
+        assertTrue(updatedRows.contains(12 * PAGE_SIZE), "Skipped page should be repainted once it is near the wanted page");
+        assertEquals("Product 1200", retried[0], "Repainted page should be requested and loaded again");
+        assertEquals(loadsBeforeScrollingBack + 2, loadedPages.get(), "Only the scrolled-to and the skipped page should be loaded");
+        model.close();
+    }
+
+    private static void awaitLoads() throws Exception {
+        Thread.sleep(300);
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+}
@@ -0,0 +1,114 @@
+package controller.ProductComboBoxModelTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.ProductComboBoxModel;
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+
+class ReloadTest {
+
+    private static Assortment catalog() {
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "Socks", 2.50), 10);
+        assortment.addProduct(new Product(2, "jeans", 45.00), 2);
+        assortment.addProduct(new Product(3, "Jacket", 99.99), 1);
+        assortment.addProduct(new Product(4, "T-shirt", 15.99), 5);
+        return assortment;
+    }
+
+    private static List<ListDataEvent> recordEvents(ProductComboBoxModel model) {
+        List<ListDataEvent> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+        return events;
+    }
+
+    @Test
+    void testReload_SortsNamesIgnoringCaseWithOneEvent() {
+        // Arrange
+        ProductComboBoxModel model = new ProductComboBoxModel();
+        List<ListDataEvent> events = recordEvents(model);
+
+        // Act
+        model.reload(catalog());
+
+        // Assert
+        assertEquals(1, events.size(), "Reload should fire a single event");
+        assertEquals(4, model.getSize(), "All products should be listed");
+        assertEquals("Jacket", model.getElementAt(0).toString(), "Names should be sorted ignoring case");
+        assertEquals("jeans", model.getElementAt(1).toString(), "Names should be sorted ignoring case");
+        assertEquals("Socks", model.getElementAt(2).toString(), "Names should be sorted ignoring case");
+        assertEquals("T-shirt", model.getElementAt(3).toString(), "Names should be sorted ignoring case");
+    }
+
+    @Test
+    void testIndexOfPrefix_FindsFirstMatch() {
+        // Arrange
+        ProductComboBoxModel model = new ProductComboBoxModel(catalog());
+
+        // Act & Assert
+        assertEquals(0, model.indexOfPrefix("J"), "Prefix should find the first of several matches");
+        assertEquals(1, model.indexOfPrefix("JE"), "Prefix should ignore case");
+        assertEquals(3, model.indexOfPrefix("t-"), "Prefix should match the last item");
+        assertEquals(-1, model.indexOfPrefix("x"), "Unknown prefix should not match");
+        assertEquals(-1, model.indexOfPrefix("Z"), "Prefix after all names should not match");
+    }
+
+    @Test
+    void testSetSelectedItem_ResolvesProductId() {
+        // Arrange
+        ProductComboBoxModel model = new ProductComboBoxModel(catalog());
+
+        // Act
+        model.setSelectedItem(model.getElementAt(model.indexOfPrefix("soc")));
+        int selectedByItem = model.getSelectedProductId();
+        model.setSelectedItem("jeans");
+        int selectedByName = model.getSelectedProductId();
+
+        // Assert
+        assertEquals(1, selectedByItem, "Selected item should resolve to the product ID");
+        assertEquals(2, selectedByName, "Selected name should resolve to the product ID");
+        assertEquals("jeans", model.getSelectedItem().toString(), "Selected item should show the product name");
+    }
+
+    @Test
+    void testReload_KeepsSelectionWhileProductExists() {
+        // Arrange
+        ProductComboBoxModel model = new ProductComboBoxModel(catalog());
+        model.setSelectedProductId(4);
+        Assortment reloaded = catalog();
+        reloaded.removeProduct(1);
+
+        // Act
+        model.reload(reloaded);
+        int keptSelection = model.getSelectedProductId();
+        reloaded.removeProduct(4);
+        model.reload(reloaded);
+
+        // Assert
+        assertEquals(4, keptSelection, "Selection should survive a reload");
+        assertEquals(-1, model.getSelectedProductId(), "Selection of a removed product should be cleared");
+        assertEquals(2, model.getSize(), "Removed products should not be listed");
+    }
+}
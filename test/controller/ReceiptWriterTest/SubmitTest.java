@@ -0,0 +1,160 @@
+package controller.ReceiptWriterTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.ReceiptWriter;
+import database.ReceiptFileStore;
+import database.ReceiptSink;
+import model.Assortment;
+import model.Product;
+import model.Receipt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class SubmitTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Receipt receipt(String orderNumber) {
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        return Receipt.of(orderNumber, assortment);
+    }
+
+    @Test
+    void testSubmit_WritesAllReceipts() throws Exception {
+        // Arrange
+        ReceiptFileStore store = new ReceiptFileStore(tempDir);
+        List<CompletableFuture<Receipt>> futures = new ArrayList<>();
+
+        // Act
+        try (ReceiptWriter writer = new ReceiptWriter(store, 16, 4, ReceiptWriter.FsyncPolicy.EVERY_BATCH)) {
+            for (int i = 0; i < 10; i++) {
+                futures.add(writer.submit(receipt("2024112700" + i)));
+            }
+            for (CompletableFuture<Receipt> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        // Assert
+        for (int i = 0; i < 10; i++) {
+            Path file = tempDir.resolve("2024112700" + i + ".txt");
+            assertTrue(Files.exists(file), "Every receipt should have its check file");
+            String content = Files.readString(file);
+            assertTrue(content.contains("T-shirt"), "File should contain product details");
+            assertTrue(content.contains("Всього: 137,97"), "File should contain the total price");
+        }
+    }
+
+    @Test
+    void testTrySubmit_QueueFull_Rejected() throws Exception {
+        // Arrange
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        ReceiptSink blockingSink = new ReceiptSink() {
+            @Override
+            public void write(Receipt receipt) {
+                writing.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void flush(boolean force) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (ReceiptWriter writer = new ReceiptWriter(blockingSink, 1, 1, ReceiptWriter.FsyncPolicy.NEVER)) {
+            CompletableFuture<Receipt> first = writer.submit(receipt("1"));
+            assertTrue(writing.await(5, TimeUnit.SECONDS), "Writer should start on the first receipt");
+            CompletableFuture<Receipt> queued = writer.submit(receipt("2"));
+
+            // Act
+            CompletableFuture<Receipt> rejected = writer.trySubmit(receipt("3"), 10, TimeUnit.MILLISECONDS);
+
+            // Assert
+            ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS),
+                    "Receipt should be rejected while the queue is full");
+            assertInstanceOf(RejectedExecutionException.class, error.getCause(), "Rejection should be reported");
+            assertEquals(1, writer.getQueueDepth(), "Only the queued receipt should wait");
+
+            unblock.countDown();
+            assertEquals("1", first.get(5, TimeUnit.SECONDS).getOrderNumber(), "First receipt should be written");
+            assertEquals("2", queued.get(5, TimeUnit.SECONDS).getOrderNumber(), "Queued receipt should be written");
+        }
+    }
+
+    @Test
+    void testClose_SubmitBlockedOnFullQueue_WrittenOrRejected() throws Exception {
+        // Arrange
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<String> written = new ArrayList<>();
+        ReceiptSink blockingSink = new ReceiptSink() {
+            @Override
+            public void write(Receipt receipt) {
+                writing.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (written) {
+                    written.add(receipt.getOrderNumber());
+                }
+            }
+
+            @Override
+            public void flush(boolean force) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ReceiptWriter writer = new ReceiptWriter(blockingSink, 1, 1, ReceiptWriter.FsyncPolicy.NEVER);
+        CompletableFuture<Receipt> first = writer.submit(receipt("1"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS), "Writer should start on the first receipt");
+        CompletableFuture<Receipt> queued = writer.submit(receipt("2"));
+        CompletableFuture<CompletableFuture<Receipt>> blocked =
+                CompletableFuture.supplyAsync(() -> writer.submit(receipt("3")));
+        Thread.sleep(100);
+
+        // Act
+        Thread closer = new Thread(writer::close);
+        closer.start();
+        Thread.sleep(100);
+        unblock.countDown();
+        closer.join(5_000);
+
+        // Assert
+        assertFalse(closer.isAlive(), "Close should finish");
+        assertEquals("1", first.get(1, TimeUnit.SECONDS).getOrderNumber(), "First receipt should be written");
+        assertEquals("2", queued.get(1, TimeUnit.SECONDS).getOrderNumber(), "Queued receipt should be written");
+        assertEquals("3", blocked.get(1, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS).getOrderNumber(),
+                "Receipt waiting for space when the writer closed should be written");
+        assertEquals(List.of("1", "2", "3"), written, "Every accepted receipt should reach the sink");
+        assertThrows(IllegalStateException.class, () -> writer.submit(receipt("4")),
+                "Closed writer should reject new receipts");
+    }
+}
@@ -0,0 +1,143 @@
+package controller.StockChangeCoalescerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.AssortmentTableModel;
+import controller.StockChangeCoalescer;
+import controller.TableController;
+import model.Assortment;
+import model.Product;
+import model.StockChangeEvent;
+import model.StockChangeListener;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class CoalesceTest {
+
+    @Test
+    void testStockChanged_BurstDeliveredAsOneMergedBatch() throws Exception {
+        // Arrange
+        Assortment catalog = new Assortment();
+        Product socks = new Product(1, "Socks", 2.50);
+        Product jeans = new Product(2, "Jeans", 45.00);
+        catalog.addProduct(socks, 100);
+        catalog.addProduct(jeans, 5);
+        List<List<StockChangeEvent>> batches = new ArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        // the first change is delivered at once, so keep the event dispatch thread busy until the burst is over
+        CountDownLatch burstOver = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            try {
+                burstOver.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        try (StockChangeCoalescer coalescer = new StockChangeCoalescer(catalog, Duration.ofMillis(200), batch -> {
+            assertTrue(SwingUtilities.isEventDispatchThread(), "Batches should be delivered on the event dispatch thread");
+            batches.add(batch);
+            delivered.countDown();
+        })) {
+            for (int i = 0; i < 40; i++) {
+                catalog.setAmount(socks, catalog.getAmount(1) - 1);
+            }
+            catalog.addProduct(new Product(3, "Jacket", 99.99), 3);
+            catalog.removeProduct(3);
+            catalog.removeProduct(2);
+            burstOver.countDown();
+            assertTrue(delivered.await(5, TimeUnit.SECONDS), "Batch should be delivered");
+            SwingUtilities.invokeAndWait(() -> { });
+
+            // Assert
+            assertEquals(1, batches.size(), "Burst should be delivered as a single batch");
+            List<StockChangeEvent> batch = batches.get(0);
+            assertEquals(2, batch.size(), "Changes of one product should be merged, added-and-removed dropped");
+            assertEquals(StockChangeEvent.Type.CHANGED, batch.get(0).getType(), "Socks should be changed");
+            assertEquals(100, batch.get(0).getOldAmount(), "Merged change should start at the first old amount");
+            assertEquals(60, batch.get(0).getNewAmount(), "Merged change should end at the last new amount");
+            assertEquals(StockChangeEvent.Type.REMOVED, batch.get(1).getType(), "Jeans should be removed");
+            assertEquals(1, coalescer.getDeliveredBatches(), "Only one batch should be delivered");
+        }
+    }
+
+    @Test
+    void testFollowStockChanges_UpdatesLiveModel() throws Exception {
+        // Arrange
+        Assortment catalog = new Assortment();
+        Product socks = new Product(1, "Socks", 2.50);
+        catalog.addProduct(socks, 10);
+        AssortmentTableModel model = TableController.loadLiveAssortment(catalog, 1);
+        CountDownLatch updated = new CountDownLatch(2);
+        model.addTableModelListener(e -> updated.countDown());
+
+        // Act
+        try (StockChangeCoalescer coalescer = TableController.followStockChanges(model, Duration.ofMillis(10))) {
+            catalog.addProduct(socks, 5);
+            catalog.addProduct(new Product(2, "Jeans", 45.00), 2);
+            assertTrue(updated.await(5, TimeUnit.SECONDS), "Model should be updated");
+            SwingUtilities.invokeAndWait(() -> { });
+        }
+
+        // Assert
+        assertEquals(2, model.getRowCount(), "Added product should get a row");
+        assertEquals(15, model.getAmountAt(model.getRowOfProduct(1)), "Changed amount should be shown");
+        assertEquals(2, model.getAmountAt(model.getRowOfProduct(2)), "Added amount should be shown");
+    }
+
+    @Test
+    void testApplyStockChanges_UsesEventsNotLiveAssortment() {
+        // Arrange
+        Assortment catalog = new Assortment();
+        catalog.addProduct(new Product(1, "Socks", 2.50), 10);
+        catalog.addProduct(new Product(2, "Jeans", 45.00), 2);
+        AssortmentTableModel model = new AssortmentTableModel(catalog, 1);
+        List<StockChangeEvent> events = new ArrayList<>();
+        catalog.addStockChangeListener(events::add);
+        catalog.renameProduct(1, "Wool socks");
+        catalog.addProduct(catalog.getProductById(1), 5);
+        catalog.removeProduct(2);
+
+        // Act
+        catalog.removeProduct(1);
+        model.applyStockChanges(events.subList(0, 2));
+
+        // Assert
+        assertEquals(2, model.getRowCount(), "Rows should follow the events, not the live assortment");
+        assertEquals("Wool socks", model.getNameAt(model.getRowOfProduct(1)), "Name should be taken from the event");
+        assertEquals(15, model.getAmountAt(model.getRowOfProduct(1)), "Amount should be taken from the event");
+        assertEquals("Jeans", model.getValueAt(model.getRowOfProduct(2), 1),
+                "Row of a product removed from the assortment should still render until its event arrives");
+        model.applyStockChanges(events.subList(2, 3));
+        assertEquals(-1, model.getRowOfProduct(2), "Removed event should delete the row");
+    }
+
+    @Test
+    void testRemoveStockChangeListener_StopsEvents() {
+        // Arrange
+        Assortment catalog = new Assortment();
+        List<StockChangeEvent> events = new ArrayList<>();
+        catalog.addStockChangeListener(events::add);
+        StockChangeListener second = events::add;
+        catalog.addStockChangeListener(second);
+
+        // Act
+        catalog.addProduct(new Product(1, "Socks", 2.50), 1);
+        catalog.addProduct(catalog.getProductById(1), 0);
+        boolean removed = catalog.removeStockChangeListener(second);
+        catalog.renameProduct(1, "Wool socks");
+
+        // Assert
+        assertTrue(removed, "Registered listener should be removed");
+        assertEquals(3, events.size(), "Unchanged amount should not be reported, removed listener should not be called");
+        assertEquals(StockChangeEvent.Type.ADDED, events.get(0).getType(), "New product should be reported as added");
+        assertEquals(StockChangeEvent.Type.CHANGED, events.get(2).getType(), "Rename should be reported as changed");
+    }
+}
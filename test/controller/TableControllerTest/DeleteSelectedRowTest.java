@@ -0,0 +1,66 @@
+package controller.TableControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.AssortmentTableModel;
+import controller.TableController;
+import model.Assortment;
+import model.CartSessionStore;
+import model.Product;
+import model.StockEngine;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.util.concurrent.TimeUnit;
+
+class DeleteSelectedRowTest {
+
+    private static CartSessionStore createStore() {
+        Assortment catalog = new Assortment();
+        catalog.addProduct(new Product(1, "T-shirt", 15.99), 5);
+        catalog.addProduct(new Product(2, "Jeans", 45.00), 2);
+        return new CartSessionStore(new StockEngine(catalog), TimeUnit.MINUTES.toNanos(30),
+                TimeUnit.SECONDS.toNanos(1), System::nanoTime);
+    }
+
+    @Test
+    void testDeleteSelectedRow_SortedLiveModel_RemovesProductFromSession() {
+        // Arrange
+        CartSessionStore store = createStore();
+        long sessionId = store.open();
+        store.add(sessionId, 1, 3);
+        store.add(sessionId, 2, 2);
+        JTable table = new JTable();
+        AssortmentTableModel model = TableController.loadSortedLiveAssortment(table, store.toCart(sessionId), 2);
+        table.getRowSorter().toggleSortOrder(3);
+        table.setRowSelectionInterval(1, 1);
+
+        // Act
+        TableController.deleteSelectedRow(table, store, sessionId);
+
+        // Assert
+        assertEquals(1, model.getRowCount(), "Live model should drop the deleted row");
+        assertEquals(1, model.getProductIdAt(0), "Most expensive product, last in the sorted view, should be deleted");
+        assertEquals(0, store.getAmount(sessionId, 2), "Deleted product should leave the session");
+        assertEquals(2, store.getStockEngine().getAvailable(2), "Deleted product should release its reservation");
+    }
+
+    @Test
+    void testDeleteSelectedRow_UnreadableId_KeepsRow() {
+        // Arrange
+        CartSessionStore store = createStore();
+        long sessionId = store.open();
+        store.add(sessionId, 1, 3);
+        JTable table = new JTable(new DefaultTableModel(new Object[][]{{"x", "T-shirt", 3, 15.99}},
+                new Object[]{"ID", "Назва", "Обрана кількість", "Ціна"}));
+        table.setRowSelectionInterval(0, 0);
+
+        // Act
+        TableController.deleteSelectedRow(table, store, sessionId);
+
+        // Assert
+        assertEquals(1, table.getRowCount(), "Row with an unreadable product ID should be kept");
+        assertEquals(3, store.getAmount(sessionId, 1), "Session should be unchanged");
+    }
+}
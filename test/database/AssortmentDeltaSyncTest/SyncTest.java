@@ -0,0 +1,101 @@
+package database.AssortmentDeltaSyncTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import database.AssortmentDeltaSync;
+import model.Assortment;
+import model.Product;
+import model.ProductRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Runs against an in-memory H2 database in MySQL mode standing in for MySQL.
+ * The tests are skipped when the H2 driver is not on the test classpath.
+ */
+class SyncTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        assumeTrue(isH2Available(), "H2 driver is not on the classpath");
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:delta_sync;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE avaibleassortment (id INT PRIMARY KEY, name VARCHAR(255), amount INT, "
+                    + "price DOUBLE, version BIGINT, is_deleted BOOLEAN DEFAULT FALSE)");
+            statement.execute("INSERT INTO avaibleassortment (id, name, amount, price, version) VALUES "
+                    + "(1, 'T-shirt', 3, 15.99, 1), (2, 'Jeans', 2, 45.00, 2), (3, 'Jacket', 1, 99.99, 3)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection == null) return;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE avaibleassortment");
+        }
+        connection.close();
+    }
+
+    @Test
+    void testFirstSyncLoadsAllRows() throws SQLException {
+        // Arrange
+        Assortment assortment = new Assortment();
+        AssortmentDeltaSync sync = new AssortmentDeltaSync(assortment, new ProductRegistry(), 0);
+
+        // Act
+        int applied = sync.sync(connection);
+
+        // Assert
+        assertEquals(3, applied, "All rows should be applied");
+        assertEquals(3, assortment.size(), "All products should be loaded");
+        assertEquals(3, sync.getWatermark(), "Watermark should be the highest version");
+    }
+
+    @Test
+    void testSyncAppliesOnlyChangedRowsInPlace() throws SQLException {
+        // Arrange
+        Assortment assortment = new Assortment();
+        AssortmentDeltaSync sync = new AssortmentDeltaSync(assortment, new ProductRegistry(), 0);
+        sync.sync(connection);
+        Product jeans = assortment.getProductById(2);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE avaibleassortment SET amount = 7, price = 39.99, version = 4 WHERE id = 2");
+            statement.execute("UPDATE avaibleassortment SET is_deleted = TRUE, version = 5 WHERE id = 3");
+            statement.execute("INSERT INTO avaibleassortment (id, name, amount, price, version) VALUES (4, 'Hoodie', 5, 30.00, 6)");
+        }
+
+        // Act
+        int applied = sync.sync(connection);
+
+        // Assert
+        assertEquals(3, applied, "Only the changed rows should be applied");
+        assertSame(jeans, assortment.getProductById(2), "Existing product should be updated in place");
+        assertEquals(7, assortment.getAmount(2), "Amount should be updated");
+        assertEquals(39.99, jeans.getPrice(), "Price should be updated");
+        assertFalse(assortment.containsProduct(3), "Deleted product should be removed");
+        assertEquals("Hoodie", assortment.getProductById(4).getName(), "New product should be added");
+        assertEquals(6, sync.getWatermark(), "Watermark should advance");
+        assertEquals(0, sync.sync(connection), "A sync without changes should apply nothing");
+    }
+
+    private static boolean isH2Available() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
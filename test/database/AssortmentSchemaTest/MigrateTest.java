@@ -0,0 +1,138 @@
+package database.AssortmentSchemaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import database.AssortmentDeltaSync;
+import database.AssortmentLoader;
+import database.AssortmentQueries;
+import database.AssortmentSchema;
+import model.Assortment;
+import model.ProductRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Migrates a table with the old schema in an in-memory H2 database in MySQL mode standing in for MySQL,
+ * with the triggers installed by the migration. The tests are skipped when the H2 driver is not on the
+ * test classpath.
+ */
+class MigrateTest {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        assumeTrue(isH2Available(), "H2 driver is not on the classpath");
+
+        // every test gets a new database, because the migrated state is remembered per database
+        connection = DriverManager.getConnection("jdbc:h2:mem:assortment_schema_" + DATABASES.incrementAndGet() + ";MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE avaibleassortment (id INT PRIMARY KEY, name VARCHAR(255), amount INT, price DOUBLE)");
+            statement.execute("INSERT INTO avaibleassortment (id, name, amount, price) VALUES "
+                    + "(1, 'T-shirt', 3, 15.99), (2, 'Jeans', 2, 45.00), (3, 'Jacket', 1, 99.99)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testLoadAll_OldSchema_LoadsEveryRow() throws SQLException {
+        // Act
+        Assortment assortment = AssortmentLoader.loadAll(connection);
+
+        // Assert
+        assertFalse(AssortmentSchema.isMigrated(connection), "Old table should not count as migrated");
+        assertEquals(3, assortment.size(), "Full load should work before the migration");
+        assertEquals(3, AssortmentQueries.countRows(connection), "Row count should work before the migration");
+        assertNull(AssortmentQueries.probeVersion(connection), "Old table should have no fingerprint");
+    }
+
+    @Test
+    void testMigrate_WritesAfterMigrationGetNewerVersions() throws SQLException {
+        // Arrange
+        AssortmentSchema.migrate(connection);
+        Assortment assortment = new Assortment();
+        AssortmentDeltaSync sync = new AssortmentDeltaSync(assortment, new ProductRegistry(), 0);
+        sync.sync(connection);
+        long watermark = sync.getWatermark();
+
+        // Act
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE avaibleassortment SET amount = 7 WHERE id = 2");
+            statement.execute("INSERT INTO avaibleassortment (id, name, amount, price) VALUES (4, 'Hoodie', 5, 30.00)");
+        }
+        AssortmentSchema.markDeleted(connection, 3);
+        int applied = sync.sync(connection);
+
+        // Assert
+        assertTrue(AssortmentSchema.isMigrated(connection), "Migrated table should be recognized");
+        assertTrue(minVersion() > 0, "Backfill should give every existing row a version");
+        assertEquals(3, applied, "Update, insert and deletion should all be newer than the watermark");
+        assertTrue(sync.getWatermark() > watermark, "Watermark should advance");
+        assertEquals(7, assortment.getAmount(2), "Updated amount should be synchronized");
+        assertTrue(assortment.containsProduct(4), "Inserted product should be synchronized");
+        assertFalse(assortment.containsProduct(3), "Deleted product should be removed");
+        assertEquals(3, AssortmentLoader.loadAll(connection).size(), "Full load should skip the deleted row");
+    }
+
+    @Test
+    void testMigrate_RunTwice_KeepsTriggersAndVersions() throws SQLException {
+        // Arrange
+        AssortmentSchema.migrate(connection);
+        long versionBefore = maxVersion();
+
+        // Act
+        AssortmentSchema.migrate(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE avaibleassortment SET amount = 9 WHERE id = 1");
+        }
+
+        // Assert
+        assertEquals(2, triggerCount(), "Triggers should be installed exactly once");
+        assertEquals(versionBefore + 1, maxVersion(), "Second run should not rewrite versions, the trigger should still run");
+    }
+
+    private long minVersion() throws SQLException {
+        return queryLong("SELECT MIN(version) FROM avaibleassortment");
+    }
+
+    private long maxVersion() throws SQLException {
+        return queryLong("SELECT MAX(version) FROM avaibleassortment");
+    }
+
+    private long triggerCount() throws SQLException {
+        return queryLong("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TRIGGERS WHERE UPPER(TRIGGER_NAME) LIKE 'AVAIBLEASSORTMENT_VERSION_%'");
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static boolean isH2Available() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
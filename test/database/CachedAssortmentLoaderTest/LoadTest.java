@@ -0,0 +1,101 @@
+package database.CachedAssortmentLoaderTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.CachedAssortmentLoader;
+import model.Assortment;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class LoadTest {
+
+    @Test
+    void testTtlServesCachedSnapshot() throws SQLException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CachedAssortmentLoader loader = new CachedAssortmentLoader(() -> {
+            loads.incrementAndGet();
+            return new Assortment();
+        }, null, 60_000);
+
+        // Act
+        Assortment first = loader.load();
+        Assortment second = loader.load();
+
+        // Assert
+        assertSame(first, second, "Snapshot should be reused within the time-to-live");
+        assertEquals(1, loads.get(), "Assortment should be loaded once");
+        assertEquals(1, loader.getHitCount(), "Second load should be a hit");
+        assertEquals(1, loader.getMissCount(), "First load should be a miss");
+    }
+
+    @Test
+    void testProbeRevalidatesExpiredSnapshot() throws SQLException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<String> version = new AtomicReference<>("10:1");
+        CachedAssortmentLoader loader = new CachedAssortmentLoader(() -> {
+            loads.incrementAndGet();
+            return new Assortment();
+        }, version::get, 0);
+
+        // Act
+        loader.load();
+        loader.load();
+        version.set("11:2");
+        loader.load();
+
+        // Assert
+        assertEquals(2, loads.get(), "Assortment should only be reloaded after the version changed");
+        assertEquals(1, loader.getHitCount(), "Unchanged version should be a hit");
+    }
+
+    @Test
+    void testInvalidateForcesReload() throws SQLException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CachedAssortmentLoader loader = new CachedAssortmentLoader(() -> {
+            loads.incrementAndGet();
+            return new Assortment();
+        }, () -> "1:1", 60_000);
+
+        // Act
+        loader.load();
+        loader.invalidate();
+        loader.load();
+
+        // Assert
+        assertEquals(2, loads.get(), "Invalidated snapshot should be reloaded");
+    }
+
+    @Test
+    void testLocalWriteRevalidatesWithinTtl() throws SQLException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger probes = new AtomicInteger();
+        AtomicReference<String> version = new AtomicReference<>("10:1");
+        CachedAssortmentLoader loader = new CachedAssortmentLoader(() -> {
+            loads.incrementAndGet();
+            return new Assortment();
+        }, () -> {
+            probes.incrementAndGet();
+            return version.get();
+        }, 60_000);
+        loader.load();
+
+        // Act
+        CachedAssortmentLoader.localWriteCommitted();
+        loader.load();
+        version.set("10:2");
+        CachedAssortmentLoader.localWriteCommitted();
+        loader.load();
+        loader.load();
+
+        // Assert
+        assertEquals(3, probes.get(), "Every local write should be revalidated once, despite the time-to-live");
+        assertEquals(2, loads.get(), "Only the write that changed the table should cause a reload");
+    }
+}
@@ -0,0 +1,90 @@
+package database.CatalogSnapshotTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.CatalogSnapshot;
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class ReadTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Assortment catalog() {
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "Футболка", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 0);
+        assortment.addProduct(new Product(7, "Socks", 2.50), 120);
+        return assortment;
+    }
+
+    @Test
+    void testRead_WrittenSnapshot_RestoresAssortmentAndWatermark() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, catalog(), 42);
+
+        // Act
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+
+        // Assert
+        Assortment assortment = snapshot.getAssortment();
+        assertEquals(42, snapshot.getWatermark(), "Watermark should be restored");
+        assertEquals(3, assortment.size(), "All products should be restored");
+        assertEquals("Футболка", assortment.getProductById(1).getName(), "Non-ASCII name should be restored");
+        assertEquals(15.99, assortment.getProductById(1).getPrice(), "Price should be restored exactly");
+        assertEquals(0, assortment.getAmount(2), "Zero amount should be restored");
+        assertEquals(120, assortment.getAmount(7), "Amount should be restored");
+        assertFalse(Files.exists(tempDir.resolve("catalog.snapshot.tmp")), "Temporary file should be moved into place");
+    }
+
+    @Test
+    void testRead_CorruptedBody_Rejected() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, catalog(), 42);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), channel.size() - 3);
+        }
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(file), "Damaged snapshot should fail the checksum");
+        assertNull(CatalogSnapshot.readIfPresent(file), "Damaged snapshot should be ignored");
+    }
+
+    @Test
+    void testReadIfPresent_MissingFile_ReturnsNull() {
+        // Act
+        CatalogSnapshot snapshot = CatalogSnapshot.readIfPresent(tempDir.resolve("missing.snapshot"));
+
+        // Assert
+        assertNull(snapshot, "Missing snapshot should not be an error");
+    }
+
+    @Test
+    void testWrite_ExistingSnapshot_Replaced() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, catalog(), 42);
+        Assortment smaller = new Assortment();
+        smaller.addProduct(new Product(9, "Cap", 9.99), 1);
+
+        // Act
+        CatalogSnapshot.write(file, smaller, 43);
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+
+        // Assert
+        assertEquals(43, snapshot.getWatermark(), "Newer watermark should be read");
+        assertEquals(1, snapshot.getAssortment().size(), "Previous snapshot should be replaced");
+    }
+}
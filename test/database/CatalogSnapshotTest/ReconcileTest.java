@@ -0,0 +1,86 @@
+package database.CatalogSnapshotTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import database.CatalogSnapshot;
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Runs against an in-memory H2 database in MySQL mode standing in for MySQL.
+ * The tests are skipped when the H2 driver is not on the test classpath.
+ */
+class ReconcileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        assumeTrue(isH2Available(), "H2 driver is not on the classpath");
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:catalog_snapshot;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE avaibleassortment (id INT PRIMARY KEY, name VARCHAR(255), amount INT, "
+                    + "price DOUBLE, version BIGINT, is_deleted BOOLEAN DEFAULT FALSE)");
+            statement.execute("INSERT INTO avaibleassortment (id, name, amount, price, version) VALUES "
+                    + "(1, 'T-shirt', 3, 15.99, 1), (2, 'Jeans', 2, 45.00, 2)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection == null) return;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE avaibleassortment");
+        }
+        connection.close();
+    }
+
+    @Test
+    void testReconcile_SnapshotAlreadyRead_UpdatesCopyAndRewritesFile() throws IOException, SQLException {
+        // Arrange
+        Path file = tempDir.resolve("catalog.snapshot");
+        Assortment stored = new Assortment();
+        stored.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        stored.addProduct(new Product(2, "Jeans", 45.00), 2);
+        CatalogSnapshot.write(file, stored, 2);
+        CatalogSnapshot shown = CatalogSnapshot.read(file);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE avaibleassortment SET amount = 1, version = 3 WHERE id = 2");
+        }
+
+        // Act
+        CatalogSnapshot synced = CatalogSnapshot.reconcile(file, shown, connection);
+
+        // Assert
+        assertEquals(1, synced.getAssortment().getAmount(2), "Changed row should be applied");
+        assertEquals(2, shown.getAssortment().getAmount(2), "Snapshot shown on the UI should not be changed");
+        assertEquals(3, synced.getWatermark(), "Watermark should advance");
+        assertEquals(3, CatalogSnapshot.read(file).getWatermark(), "Snapshot file should be replaced while the old one is in use");
+    }
+
+    private static boolean isH2Available() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package database.PooledDataSourceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.PooledDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class GetConnectionTest {
+
+    private final AtomicInteger openedConnections = new AtomicInteger();
+    private final AtomicInteger preparedStatements = new AtomicInteger();
+    private final AtomicInteger closedStatements = new AtomicInteger();
+    private final AtomicBoolean valid = new AtomicBoolean(true);
+
+    @Test
+    void testConnectionIsReusedAfterClose() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 2, 8, 100);
+
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(connection.isClosed(), "Borrowed connection should be open");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(connection.isClosed(), "Borrowed connection should be open");
+        }
+
+        // Assert
+        assertEquals(1, openedConnections.get(), "Returned connection should be reused");
+        assertEquals(1, dataSource.getIdleCount(), "Returned connection should be idle");
+    }
+
+    @Test
+    void testPoolSizeIsBounded() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 2, 8, 50);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLException.class, dataSource::getConnection, "Third borrow should time out");
+        first.close();
+        assertDoesNotThrow(() -> dataSource.getConnection().close(), "Returned connection should be borrowable");
+        second.close();
+        assertEquals(2, openedConnections.get(), "No more than the pool size should be opened");
+    }
+
+    @Test
+    void testPreparedStatementsAreCached() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 1, 8, 100);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                assertFalse(statement.isClosed(), "Statement should be open");
+            }
+        }
+
+        // Assert
+        assertEquals(1, preparedStatements.get(), "Statement should be prepared once");
+    }
+
+    @Test
+    void testCachedStatementSettingsAreReset() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 1, 8, 100);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            statement.setFetchSize(1000);
+            statement.setMaxRows(5);
+            statement.setQueryTimeout(30);
+        }
+
+        // Act
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+
+            // Assert
+            assertEquals(1, preparedStatements.get(), "Statement should be reused");
+            assertEquals(0, statement.getFetchSize(), "Fetch size should be restored");
+            assertEquals(0, statement.getMaxRows(), "Maximum rows should be restored");
+            assertEquals(0, statement.getQueryTimeout(), "Query timeout should be restored");
+        }
+    }
+
+    @Test
+    void testStatementInUseIsNotHandedOutTwice() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 1, 8, 100);
+
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement first = connection.prepareStatement("SELECT 1");
+            PreparedStatement second = connection.prepareStatement("SELECT 1");
+            first.setMaxRows(5);
+
+            // Assert
+            assertEquals(2, preparedStatements.get(), "Statement in use should not be shared");
+            assertEquals(0, second.getMaxRows(), "Second statement should have its own settings");
+            assertFalse(first.isClosed(), "First statement should stay open");
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            assertEquals(0, statement.getMaxRows(), "Statement left open should be reset when the connection closes");
+        }
+        assertEquals(2, preparedStatements.get(), "Cached statement should be reused by the next borrow");
+    }
+
+    @Test
+    void testDefaultResultSetOverloadIsCached() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 1, 8, 100);
+
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("SELECT 1").close();
+            connection.prepareStatement("SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY).close();
+        }
+
+        // Assert
+        assertEquals(1, preparedStatements.get(), "Both forms should share the cached statement");
+    }
+
+    @Test
+    void testStatementsLeftOpenAreClosedOnReturn() throws SQLException {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 1, 8, 100);
+        Connection connection = dataSource.getConnection();
+        Statement plain = connection.createStatement();
+        PreparedStatement cached = connection.prepareStatement("SELECT 1");
+        PreparedStatement uncached = connection.prepareStatement("SELECT 1");
+
+        // Act
+        Connection fromStatement = plain.getConnection();
+        connection.close();
+
+        // Assert
+        assertSame(connection, fromStatement, "Statement should hand out the borrowed connection");
+        assertSame(cached, cached.unwrap(PreparedStatement.class), "Statement should only unwrap to itself");
+        assertThrows(SQLException.class, () -> connection.unwrap(Runnable.class), "Physical connection should not leak");
+        assertTrue(plain.isClosed() && cached.isClosed() && uncached.isClosed(), "Returned connection should close its statements");
+        assertEquals(2, closedStatements.get(), "Uncached statements should be closed, the cached one kept for reuse");
+        assertThrows(SQLException.class, plain::getConnection, "Closed statement should not be usable");
+    }
+
+    @Test
+    void testInvalidConnectionIsReplaced() throws Exception {
+        // Arrange
+        PooledDataSource dataSource = new PooledDataSource(this::fakeConnection, 1, 8, 100);
+        dataSource.getConnection().close();
+        valid.set(false);
+        Thread.sleep(1_100);
+
+        // Act
+        dataSource.getConnection().close();
+
+        // Assert
+        assertEquals(2, openedConnections.get(), "Broken idle connection should be replaced");
+    }
+
+    private Connection fakeConnection() {
+        openedConnections.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isValid":
+                            return valid.get();
+                        case "isClosed":
+                            return closed.get();
+                        case "close":
+                            closed.set(true);
+                            return null;
+                        case "getAutoCommit":
+                            return true;
+                        case "prepareStatement":
+                            preparedStatements.incrementAndGet();
+                            return fakeStatement();
+                        case "createStatement":
+                            return fakeStatement();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private PreparedStatement fakeStatement() {
+        Map<String, Object> settings = new HashMap<>(Map.of("FetchSize", 0, "MaxRows", 0, "QueryTimeout", 0));
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("get") && settings.containsKey(name.substring(3))) {
+                        return settings.get(name.substring(3));
+                    }
+                    if (name.startsWith("set") && settings.containsKey(name.substring(3))) {
+                        settings.put(name.substring(3), args[0]);
+                        return null;
+                    }
+                    switch (name) {
+                        case "isClosed":
+                            return false;
+                        case "close":
+                            closedStatements.incrementAndGet();
+                            return null;
+                        case "clearParameters":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,87 @@
+package database.QueryCancellationTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import database.AssortmentQueries;
+import database.QueryCancellation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cancels loads of the old assortment table in an in-memory H2 database in MySQL mode standing in for MySQL.
+ * The tests are skipped when the H2 driver is not on the test classpath.
+ */
+class CancelTest {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        assumeTrue(isH2Available(), "H2 driver is not on the classpath");
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:query_cancellation_" + DATABASES.incrementAndGet() + ";MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE avaibleassortment (id INT PRIMARY KEY, name VARCHAR(255), amount INT, price DOUBLE)");
+            statement.execute("INSERT INTO avaibleassortment (id, name, amount, price) VALUES "
+                    + "(1, 'T-shirt', 3, 15.99), (2, 'Jeans', 2, 45.00), (3, 'Jacket', 1, 99.99)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testCancelDuringLoad_StopsReadingRows() throws SQLException {
+        // Arrange
+        QueryCancellation cancellation = new QueryCancellation();
+        AtomicInteger handled = new AtomicInteger();
+
+        // Act
+        SQLException exception = assertThrows(SQLException.class, () -> AssortmentQueries.streamAll(connection, 1,
+                (id, name, amount, price, deleted) -> {
+                    handled.incrementAndGet();
+                    cancellation.cancel();
+                }, cancellation));
+
+        // Assert
+        assertEquals(1, handled.get(), "No row should be handled after the cancellation");
+        assertEquals("Query was cancelled", exception.getMessage(), "Load should end with the cancellation");
+        assertEquals(3, AssortmentQueries.loadAll(connection).size(), "Connection should stay usable after the cancellation");
+    }
+
+    @Test
+    void testCancelBeforeLoad_NeverRunsQuery() {
+        // Arrange
+        QueryCancellation cancellation = new QueryCancellation();
+        cancellation.cancel();
+
+        // Act
+        assertThrows(SQLException.class, () -> AssortmentQueries.loadAll(connection, cancellation),
+                "Cancelled load should not run");
+
+        // Assert
+        assertTrue(cancellation.isCancelled(), "Cancellation should be remembered");
+    }
+
+    private static boolean isH2Available() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
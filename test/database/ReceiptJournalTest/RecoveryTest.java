@@ -0,0 +1,116 @@
+package database.ReceiptJournalTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.ReceiptExporter;
+import database.ReceiptJournal;
+import model.Assortment;
+import model.Product;
+import model.Receipt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+class RecoveryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Receipt receipt(String orderNumber) {
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "Футболка", 15.99), 3);
+        assortment.addProduct(new Product(2, "Jeans", 45.00), 2);
+        return Receipt.of(orderNumber, assortment);
+    }
+
+    @Test
+    void testRead_AfterReopen_ReturnsSameReceipt() throws IOException {
+        // Arrange
+        Receipt written = receipt("20241127000001");
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 4096)) {
+            journal.write(written);
+            journal.flush(true);
+        }
+
+        // Act
+        Receipt read;
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 4096)) {
+            read = journal.read("20241127000001");
+        }
+
+        // Assert
+        assertNotNull(read, "Receipt should be found after reopening");
+        assertEquals(written.getCreatedAt(), read.getCreatedAt(), "Creation time should be kept");
+        assertEquals(written.toText(), read.toText(), "Receipt text should be unchanged");
+    }
+
+    @Test
+    void testWrite_SegmentFull_RollsOver() throws IOException {
+        // Arrange & Act
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 1024)) {
+            for (int i = 0; i < 40; i++) {
+                journal.write(receipt("order-" + i));
+            }
+
+            // Assert
+            assertTrue(journal.getSegmentCount() > 1, "Journal should roll over to new segments");
+            assertEquals(40, journal.size(), "All receipts should be indexed");
+            assertEquals("order-0", journal.read("order-0").getOrderNumber(), "First receipt should be readable");
+            assertEquals("order-39", journal.read("order-39").getOrderNumber(), "Last receipt should be readable");
+        }
+    }
+
+    @Test
+    void testOpen_TornTail_DropsIncompleteRecord() throws IOException {
+        // Arrange
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 4096)) {
+            journal.write(receipt("1"));
+            journal.write(receipt("2"));
+        }
+        Path segment = tempDir.resolve("receipts-000000.journal");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 8);
+            int secondRecord = 8 + 8 + length.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), secondRecord + 20);
+        }
+
+        // Act
+        List<String> orderNumbers = new ArrayList<>();
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 4096)) {
+            journal.forEach(receipt -> orderNumbers.add(receipt.getOrderNumber()));
+            journal.write(receipt("3"));
+
+            // Assert
+            assertEquals(List.of("1"), orderNumbers, "Only the complete record should survive");
+            assertNull(journal.read("2"), "Torn record should not be indexed");
+            assertNotNull(journal.read("3"), "Appending should continue after the last complete record");
+        }
+    }
+
+    @Test
+    void testExportToFile_WritesCheckText() throws IOException {
+        // Arrange
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir.resolve("journal"), 4096)) {
+            journal.write(receipt("20241127"));
+
+            // Act
+            Path file = ReceiptExporter.exportToFile(journal, "20241127", tempDir);
+
+            // Assert
+            assertEquals(tempDir.resolve("20241127.txt"), file, "Check file should be named after the order number");
+            String content = Files.readString(file);
+            assertTrue(content.contains("Футболка"), "File should contain product details");
+            assertTrue(content.contains("Всього: 137,97"), "File should contain the total price");
+            assertNull(ReceiptExporter.renderText(journal, "missing"), "Unknown order should not be rendered");
+        }
+    }
+}
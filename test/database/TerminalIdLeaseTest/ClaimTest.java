@@ -0,0 +1,58 @@
+package database.TerminalIdLeaseTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.TerminalIdLease;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+class ClaimTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testClaimFree_ClaimedIds_Skipped() throws IOException {
+        // Arrange
+        try (TerminalIdLease first = TerminalIdLease.claimFree(tempDir, 1023);
+             TerminalIdLease configured = TerminalIdLease.claim(tempDir, 1)) {
+
+            // Act
+            try (TerminalIdLease next = TerminalIdLease.claimFree(tempDir, 1023)) {
+
+                // Assert
+                assertEquals(0, first.getTerminalId(), "First terminal should get the lowest ID");
+                assertEquals(1, configured.getTerminalId(), "Configured ID should be claimed");
+                assertEquals(2, next.getTerminalId(), "Next terminal should skip the IDs in use");
+            }
+        }
+    }
+
+    @Test
+    void testClaim_IdInUse_Rejected() throws IOException {
+        // Arrange
+        try (TerminalIdLease lease = TerminalIdLease.claim(tempDir, 5)) {
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class, () -> TerminalIdLease.claim(tempDir, 5),
+                    "Two terminals should not share an ID");
+        }
+        try (TerminalIdLease lease = TerminalIdLease.claim(tempDir, 5)) {
+            assertEquals(5, lease.getTerminalId(), "Released ID should be claimed again");
+        }
+    }
+
+    @Test
+    void testClaimFree_AllIdsInUse_Rejected() throws IOException {
+        // Arrange
+        try (TerminalIdLease lease = TerminalIdLease.claimFree(tempDir, 0)) {
+
+            // Act & Assert
+            assertThrows(IllegalStateException.class, () -> TerminalIdLease.claimFree(tempDir, 0),
+                    "No ID should be handed out when all are in use");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package metrics.LatencyHistogramTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+class RecordTest {
+
+    @Test
+    void testPercentiles_WithinBucketError() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram("test.percentiles");
+
+        // Act
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        // Assert
+        assertEquals(1000, histogram.getCount(), "Every latency should be counted");
+        assertEquals(0.5005, histogram.getMeanMillis(), 1e-9, "Mean should be exact");
+        assertEquals(1.0, histogram.getMaxMillis(), 1e-9, "Max should be exact");
+        assertEquals(0.5, histogram.getP50Millis(), 0.5 * 0.25, "Median should be within 25%");
+        assertEquals(0.99, histogram.getP99Millis(), 0.99 * 0.25, "99th percentile should be within 25%");
+        assertTrue(histogram.getP99Millis() <= histogram.getMaxMillis(), "Percentile should not exceed the max");
+    }
+
+    @Test
+    void testRecord_ConcurrentThreads_CountsEverything() throws InterruptedException {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram("test.concurrent");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+
+        // Act
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        // Assert
+        assertEquals(400_000, histogram.getCount(), "No recording should be lost");
+        assertEquals(99_999, histogram.getPercentileNanos(100), "Top percentile should be the max");
+    }
+
+    @Test
+    void testRegisterMBeans_PublishesInstruments() throws Exception {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.histogram("test.mbean.latency").record(2_000_000);
+        registry.counter("test.mbean.events").add(3);
+        registry.gauge("test.mbean.size").set(42);
+
+        // Act
+        registry.registerMBeans();
+        registry.registerMBeans();
+
+        // Assert
+        ObjectName gauge = new ObjectName("till:type=Gauge,name=" + ObjectName.quote("test.mbean.size"));
+        ObjectName counter = new ObjectName("till:type=Counter,name=" + ObjectName.quote("test.mbean.events"));
+        assertEquals(42L, ManagementFactory.getPlatformMBeanServer().getAttribute(gauge, "Value"), "Gauge should be readable over JMX");
+        assertEquals(3L, ManagementFactory.getPlatformMBeanServer().getAttribute(counter, "Count"), "Counter should be readable over JMX");
+        assertTrue(registry.snapshot().contains("test.mbean.latency"), "Snapshot should list the histogram");
+    }
+}
@@ -0,0 +1,72 @@
+package model.AssortmentTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class PrimitiveStorageTest {
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        // Arrange
+        Product[] catalog = new Product[500];
+        for (int id = 0; id < catalog.length; id++) {
+            catalog[id] = new Product(id, "Product " + id, id + 0.99);
+        }
+        Assortment assortment = new Assortment();
+        Map<Product, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            Product product = catalog[random.nextInt(catalog.length)];
+            int amount = random.nextInt(20);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    assortment.addProduct(product, amount);
+                    expected.merge(product, amount, Integer::sum);
+                }
+                case 1 -> {
+                    assortment.setAmount(product, amount);
+                    expected.put(product, amount);
+                }
+                default -> {
+                    assortment.removeProductByName(product.getName());
+                    expected.remove(product);
+                }
+            }
+        }
+
+        // Assert
+        assertEquals(expected, assortment.getAssortment(), "Map view should match the reference map");
+        assertEquals(expected.size(), assortment.size(), "Size should match the reference map");
+        for (Product product : catalog) {
+            assertEquals(expected.getOrDefault(product, 0), assortment.getAmount(product.getId()),
+                    "Amount should match for product " + product.getId());
+            assertEquals(expected.containsKey(product), assortment.getProductByName(product.getName()) != null,
+                    "Name index should match for product " + product.getId());
+        }
+    }
+
+    @Test
+    void testMapViewIsLive() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        Product product = new Product(1, "T-shirt", 15.99);
+        Map<Product, Integer> view = assortment.getAssortment();
+
+        // Act
+        assortment.addProduct(product, 3);
+
+        // Assert
+        assertEquals(3, view.get(product), "View should reflect later additions");
+        assertNull(view.get(new Product(2, "T-shirt", 15.99)), "View should not match a different product");
+        assertEquals(1, view.entrySet().size(), "Entry set should reflect later additions");
+    }
+}
@@ -0,0 +1,103 @@
+package model.AssortmentTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Assortment;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+class ProductIndexTest {
+
+    @Test
+    void testLookupByIdAndName() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        Product product1 = new Product(1, "T-shirt", 15.99);
+        Product product2 = new Product(2, "Jeans", 45.00);
+
+        // Act
+        assortment.addProduct(product1, 3);
+        assortment.addProduct(product2, 2);
+
+        // Assert
+        assertSame(product1, assortment.getProductById(1), "Product should be found by id");
+        assertSame(product2, assortment.getProductByName("Jeans"), "Product should be found by exact name");
+        assertNull(assortment.getProductByName("jeans"), "Name lookup should be exact");
+        assertEquals(2, assortment.getAmount(2), "Amount should be found by id");
+        assertEquals(0, assortment.getAmount(3), "Amount of a missing product should be 0");
+    }
+
+    @Test
+    void testRemoveProductByProductIDUpdatesIndexes() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        Product product = new Product(1, "T-shirt", 15.99);
+        assortment.addProduct(product, 3);
+
+        // Act
+        assortment.removeProductByProductID(1);
+
+        // Assert
+        assertTrue(assortment.isEmpty(), "Assortment should be empty after removal");
+        assertNull(assortment.getProductById(1), "Removed product should not be found by id");
+        assertNull(assortment.getProductByName("T-shirt"), "Removed product should not be found by name");
+    }
+
+    @Test
+    void testRemoveProductByNameKeepsDuplicateNameIndexed() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        Product product1 = new Product(1, "T-shirt", 15.99);
+        Product product2 = new Product(2, "T-shirt", 17.99);
+        assortment.addProduct(product1, 3);
+        assortment.addProduct(product2, 4);
+
+        // Act
+        boolean removed = assortment.removeProductByName("T-shirt");
+
+        // Assert
+        assertTrue(removed, "Product should be removed by name");
+        assertSame(product2, assortment.getProductByName("T-shirt"), "Remaining product should take over the name");
+        assertEquals(4, assortment.getAmount(2), "Remaining product amount should be unchanged");
+    }
+
+    @Test
+    void testNamesakesTakeOverInOrderAfterRemoveAndRename() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        Product first = new Product(1, "T-shirt", 15.99);
+        Product second = new Product(2, "T-shirt", 16.99);
+        Product third = new Product(3, "T-shirt", 17.99);
+        assortment.addProduct(first, 1);
+        assortment.addProduct(second, 1);
+        assortment.addProduct(third, 1);
+
+        // Act
+        assortment.removeProduct(2);
+        assortment.renameProduct(1, "Polo");
+        Product afterRename = assortment.getProductByName("T-shirt");
+        assortment.removeProduct(3);
+
+        // Assert
+        assertSame(third, afterRename, "Remaining namesake should take over the name");
+        assertNull(assortment.getProductByName("T-shirt"), "Name should be free once every namesake is gone");
+        assertEquals(1, assortment.getProductByName("Polo").getId(), "Renamed product should be found by its new name");
+    }
+
+    @Test
+    void testSetAmountReplacesAmount() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        Product product = new Product(1, "T-shirt", 15.99);
+        assortment.addProduct(product, 3);
+
+        // Act
+        assortment.setAmount(product, 7);
+
+        // Assert
+        assertEquals(7, assortment.getAmount(1), "Amount should be replaced");
+        assertThrows(UnsupportedOperationException.class, () -> {
+            assortment.getAssortment().put(product, 1);
+        }, "The map view should be read-only");
+    }
+}
@@ -0,0 +1,131 @@
+package model.CartSessionStoreTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Assortment;
+import model.Cart;
+import model.CartSessionStore;
+import model.Product;
+import model.StockEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ExpiryTest {
+    private static final long TIMEOUT = TimeUnit.MINUTES.toNanos(30);
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+
+    private CartSessionStore createStore(StockEngine stockEngine) {
+        return new CartSessionStore(stockEngine, TIMEOUT, TICK, clock::get);
+    }
+
+    private static StockEngine createStock() {
+        Assortment catalog = new Assortment();
+        catalog.addProduct(new Product(1, "T-shirt", 15.99), 5);
+        catalog.addProduct(new Product(2, "Jeans", 45.00), 2);
+        return new StockEngine(catalog);
+    }
+
+    @Test
+    void testExpireIdleSessions_IdleCart_ReleasesStock() {
+        // Arrange
+        StockEngine stockEngine = createStock();
+        CartSessionStore store = createStore(stockEngine);
+        long sessionId = store.open();
+        store.add(sessionId, 1, 3);
+        store.add(sessionId, 2, 2);
+
+        // Act
+        clock.addAndGet(TIMEOUT + TICK);
+        int expired = store.expireIdleSessions();
+
+        // Assert
+        assertEquals(1, expired, "Idle cart should expire");
+        assertEquals(5, stockEngine.getAvailable(1), "Expired cart should release its T-shirts");
+        assertEquals(2, stockEngine.getAvailable(2), "Expired cart should release its jeans");
+        assertEquals(0, store.size(), "Expired cart should be removed");
+        assertThrows(NoSuchElementException.class, () -> store.add(sessionId, 1, 1),
+                "Expired session should not accept products");
+    }
+
+    @Test
+    void testExpireIdleSessions_UsedCart_StaysOpen() {
+        // Arrange
+        StockEngine stockEngine = createStock();
+        CartSessionStore store = createStore(stockEngine);
+        long sessionId = store.open();
+        store.add(sessionId, 1, 1);
+
+        // Act
+        clock.addAndGet(TIMEOUT - TICK);
+        store.add(sessionId, 1, 1);
+        clock.addAndGet(TIMEOUT - TICK);
+        int expiredWhileUsed = store.expireIdleSessions();
+        clock.addAndGet(2 * TICK);
+        int expiredWhenIdle = store.expireIdleSessions();
+
+        // Assert
+        assertEquals(0, expiredWhileUsed, "Cart used within the timeout should stay open");
+        assertEquals(1, expiredWhenIdle, "Cart should expire one timeout after its last use");
+        assertEquals(5, stockEngine.getAvailable(1), "Both reservations should be released");
+    }
+
+    @Test
+    void testCheckout_CommitsStockAndCopiesLines() {
+        // Arrange
+        StockEngine stockEngine = createStock();
+        CartSessionStore store = createStore(stockEngine);
+        long sessionId = store.open();
+        store.add(sessionId, 1, 2);
+        store.add(sessionId, 2, 1);
+        store.add(sessionId, 1, 1);
+        store.remove(sessionId, 2);
+
+        // Act
+        long totalMinor = store.getTotalMinor(sessionId);
+        Cart sold = store.checkout(sessionId);
+        clock.addAndGet(2 * TIMEOUT);
+        store.expireIdleSessions();
+
+        // Assert
+        assertEquals(4797, totalMinor, "Total should be 3 x 15.99");
+        assertEquals(3, sold.getAmount(1), "Sold cart should contain both additions of the T-shirt");
+        assertFalse(sold.containsProduct(2), "Removed jeans should not be sold");
+        assertEquals(2, stockEngine.getAvailable(1), "Sold T-shirts should leave the stock");
+        assertEquals(0, stockEngine.getReserved(1), "Checkout should not keep reservations");
+        assertEquals(2, stockEngine.getAvailable(2), "Removed jeans should be available again");
+        assertEquals(0, store.getExpiredCount(), "Checked out cart should not expire");
+    }
+
+    @Test
+    void testExpireIdleSessions_ManyCarts_ExpiresOnlyIdleOnes() {
+        // Arrange
+        Assortment catalog = new Assortment();
+        catalog.addProduct(new Product(1, "T-shirt", 15.99), 100_000);
+        StockEngine stockEngine = new StockEngine(catalog);
+        CartSessionStore store = createStore(stockEngine);
+        long[] sessionIds = new long[10_000];
+        for (int i = 0; i < sessionIds.length; i++) {
+            sessionIds[i] = store.open();
+            store.add(sessionIds[i], 1, 1);
+            clock.addAndGet(TICK / 10);
+        }
+
+        // Act
+        clock.addAndGet(TIMEOUT - TICK * 500);
+        for (int i = 0; i < sessionIds.length; i += 2) {
+            store.add(sessionIds[i], 1, 1);
+        }
+        clock.addAndGet(TICK * 1000);
+        int expired = store.expireIdleSessions();
+
+        // Assert
+        assertEquals(5_000, expired, "Only the carts that were not used again should expire");
+        assertEquals(5_000, store.size(), "Used carts should stay open");
+        assertEquals(10_000, stockEngine.getReserved(1), "Used carts should keep two items each");
+    }
+}
@@ -0,0 +1,123 @@
+package model.CartTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.OrderController;
+import controller.SelectProductController;
+import controller.TableController;
+import model.Assortment;
+import model.Cart;
+import model.Product;
+import model.Receipt;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+
+class TotalsTest {
+
+    @Test
+    void testAddSetRemove_TotalsFollowChanges() {
+        // Arrange
+        Cart cart = new Cart();
+        Product tShirt = new Product(1, "T-shirt", 15.99);
+        Product jeans = new Product(2, "Jeans", 45.00);
+
+        // Act
+        cart.addProduct(tShirt, 2);
+        cart.addProduct(jeans, 2);
+        cart.addProduct(tShirt, 1);
+
+        // Assert
+        assertEquals(13797, cart.getTotalMinor(), "Total should be 3 x 15.99 + 2 x 45.00");
+        assertEquals(5, cart.getItemCount(), "Item count should include every unit");
+        assertEquals(4797, cart.getLineSubtotalMinor(1), "T-shirt subtotal should be 3 x 15.99");
+
+        // Act
+        cart.setAmount(jeans, 1);
+        cart.removeProduct(1);
+
+        // Assert
+        assertEquals(4500, cart.getTotalMinor(), "Total should drop with the quantity and the removed line");
+        assertEquals(1, cart.getItemCount(), "Item count should drop as well");
+        assertEquals(0, cart.getLineSubtotalMinor(1), "Removed line should have no subtotal");
+        assertEquals(OrderController.getOrderPriceMinor(cart), cart.getTotalMinor(), "Running total should match a full sum");
+    }
+
+    @Test
+    void testRepriceLines_UsesCurrentPrices() {
+        // Arrange
+        Cart cart = new Cart();
+        Product product = new Product(1, "T-shirt", 10.00);
+        cart.addProduct(product, 3);
+
+        // Act
+        product.setPrice(12.50);
+        cart.repriceLines();
+
+        // Assert
+        assertEquals(3750, cart.getTotalMinor(), "Total should use the new price");
+    }
+
+    @Test
+    void testReceipt_UsesCapturedPrices() {
+        // Arrange
+        Cart cart = new Cart();
+        Product tShirt = new Product(1, "T-shirt", 15.99);
+        Product jeans = new Product(2, "Jeans", 45.00);
+        cart.addProduct(tShirt, 2);
+        cart.addProduct(jeans, 1);
+        cart.removeProduct(1);
+        cart.addProduct(tShirt, 3);
+
+        // Act
+        tShirt.setPrice(19.99);
+        Receipt receipt = Receipt.of("1", cart);
+
+        // Assert
+        assertEquals(cart.getTotalMinor(), receipt.getTotalMinor(), "Printed total should match the cart total");
+        assertEquals(9297, receipt.getTotalMinor(), "Check should use the prices captured by the cart");
+        assertEquals(15.99, receipt.getPrice(1), "Line should print the captured unit price");
+    }
+
+    @Test
+    void testReceipt_OverflowingTotal_Rejected() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "Yacht", 1e13), 10_000);
+        assortment.addProduct(new Product(2, "Island", 9e12), 1_000);
+        Receipt receipt = Receipt.of("1", assortment);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> receipt.getLineTotalMinor(0), "Overflowing line should not wrap around");
+        assertEquals(900_000_000_000_000_000L, receipt.getLineTotalMinor(1), "Large line should still be exact");
+        assertThrows(ArithmeticException.class, receipt::getTotalMinor, "Overflowing total should not wrap around");
+    }
+
+    @Test
+    void testControllers_UpdateCartTotals() {
+        // Arrange
+        Assortment allAssortment = new Assortment();
+        allAssortment.addProduct(new Product(1, "T-shirt", 15.99), 10);
+        allAssortment.addProduct(new Product(2, "Jeans", 45.00), 10);
+        JComboBox<Object> comboBox = new JComboBox<>(new Object[]{"T-shirt", "Jeans"});
+        Cart cart = new Cart();
+
+        // Act
+        comboBox.setSelectedItem("T-shirt");
+        SelectProductController.fillAssortmentWithSelectedProduct(comboBox, 3, allAssortment, cart);
+        comboBox.setSelectedItem("Jeans");
+        SelectProductController.fillAssortmentWithSelectedProduct(comboBox, 2, allAssortment, cart);
+
+        // Assert
+        assertEquals("137,97", OrderController.getOrderPrice(cart).replace('.', ','), "Cart total should follow the selection");
+
+        // Act
+        JTable table = new JTable(TableController.loadLiveAssortment(cart, 2));
+        table.setRowSelectionInterval(0, 0);
+        TableController.deleteSelectedRow(table, cart);
+
+        // Assert
+        assertEquals(9000, cart.getTotalMinor(), "Deleting the T-shirt row should leave only the jeans");
+        assertEquals(2, cart.getItemCount(), "Two pairs of jeans should remain");
+    }
+}
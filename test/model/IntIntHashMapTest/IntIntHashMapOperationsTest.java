@@ -0,0 +1,56 @@
+package model.IntIntHashMapTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.IntIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class IntIntHashMapOperationsTest {
+
+    @Test
+    void testPutGetRemove() {
+        // Arrange
+        IntIntHashMap map = new IntIntHashMap();
+
+        // Act
+        map.put(0, 10);
+        map.put(7, 70);
+        map.put(7, 71);
+        boolean removed = map.remove(0);
+
+        // Assert
+        assertTrue(removed, "Zero key should be removable");
+        assertEquals(-1, map.get(0, -1), "Removed key should return the default value");
+        assertEquals(71, map.get(7, -1), "Put should replace the previous value");
+        assertEquals(1, map.size(), "Map should contain one key");
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        // Arrange
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act & Assert
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key), "Remove result should match for key " + key);
+            } else {
+                int value = random.nextInt();
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size(), "Sizes should match");
+        for (int key = -100; key < 1_900; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1), "Values should match for key " + key);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package model.LongObjectHashMapTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.LongObjectHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class LongObjectHashMapOperationsTest {
+
+    @Test
+    void testPutGetRemove() {
+        // Arrange
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        // Act
+        map.put(0L, "zero");
+        map.put(1L << 40, "high");
+        map.put(1L << 40, "higher");
+        boolean removed = map.remove(0L);
+
+        // Assert
+        assertTrue(removed, "Zero key should be removable");
+        assertNull(map.get(0L), "Removed key should not be found");
+        assertEquals("higher", map.get(1L << 40), "Put should replace the previous value");
+        assertEquals(1, map.size(), "Map should contain one key");
+        assertThrows(IllegalArgumentException.class, () -> map.put(5L, null), "Null value should be rejected");
+    }
+
+    @Test
+    void testRandomOperationsMatchHashMap() {
+        // Arrange
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act & Assert
+        for (int i = 0; i < 200_000; i++) {
+            // keys that differ only in their high bits, like packed n-grams
+            long key = (long) random.nextInt(2_000) << 32 | random.nextInt(4);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key), "Remove result should match for key " + key);
+            } else {
+                int value = random.nextInt();
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size(), "Size should match");
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Value should match for key " + entry.getKey());
+        }
+    }
+}
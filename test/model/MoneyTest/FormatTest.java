@@ -0,0 +1,50 @@
+package model.MoneyTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.OrderController;
+import model.Assortment;
+import model.Money;
+import model.Product;
+import org.junit.jupiter.api.Test;
+
+class FormatTest {
+
+    @Test
+    void testFormat_MatchesStringFormat() {
+        // Arrange
+        long[] amounts = {0, 5, 10, 99, 100, 13797, -5, -13797, 123456789012L};
+
+        for (long amount : amounts) {
+            // Act
+            String formatted = Money.format(amount);
+
+            // Assert
+            assertEquals(String.format("%.2f", amount / 100.0), formatted, "Amount " + amount + " should format like %.2f");
+        }
+    }
+
+    @Test
+    void testGetOrderPriceMinor_LargeOrder_IsExact() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        for (int id = 0; id < 1000; id++) {
+            assortment.addProduct(new Product(id, "Product " + id, 0.10), 3);
+        }
+
+        // Act
+        long totalMinor = OrderController.getOrderPriceMinor(assortment);
+
+        // Assert
+        assertEquals(30000, totalMinor, "Sum of 3000 items at 0.10 should be exactly 300.00");
+        assertEquals(Money.ofMinor(30000).toString(), OrderController.getOrderPrice(assortment), "Formatted total should match");
+    }
+
+    @Test
+    void testToMinor_RoundsHalfUp() {
+        // Act & Assert
+        assertEquals(1599, Money.toMinor(15.99), "Price should convert to minor units");
+        assertEquals(Money.of(0.3), Money.of(0.1).plus(Money.of(0.2)), "Sums should be exact");
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(Double.NaN), "NaN should be rejected");
+    }
+}
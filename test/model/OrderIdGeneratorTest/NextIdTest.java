@@ -0,0 +1,92 @@
+package model.OrderIdGeneratorTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.OrderIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+class NextIdTest {
+
+    @Test
+    void testNextId_ConcurrentThreads_NoDuplicates() throws InterruptedException {
+        // Arrange
+        OrderIdGenerator generator = new OrderIdGenerator(7);
+        int threadCount = 8;
+        int idsPerThread = 200_000;
+        long[][] ids = new long[threadCount][idsPerThread];
+        boolean[] increasing = new boolean[threadCount];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                boolean ordered = true;
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids[thread][i] = generator.nextId();
+                    if (i > 0 && ids[thread][i] <= ids[thread][i - 1]) ordered = false;
+                }
+                increasing[thread] = ordered;
+            });
+            threads[t].start();
+        }
+
+        // Act
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        long[] all = new long[threadCount * idsPerThread];
+        for (int t = 0; t < threadCount; t++) {
+            assertTrue(increasing[t], "Ids should increase within every thread");
+            System.arraycopy(ids[t], 0, all, t * idsPerThread, idsPerThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "Ids should never repeat");
+        }
+        assertEquals(7, OrderIdGenerator.nodeOf(all[0]), "Ids should carry the node ID");
+    }
+
+    @Test
+    void testNextId_ClockGoesBack_StillIncreasing() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(OrderIdGenerator.EPOCH_MILLIS + 10_000);
+        OrderIdGenerator generator = new OrderIdGenerator(1, clock::get, ZoneOffset.UTC);
+        long first = generator.nextId();
+
+        // Act
+        clock.addAndGet(-5_000);
+        long second = generator.nextId();
+
+        // Assert
+        assertTrue(second > first, "Id should increase even when the clock goes back");
+    }
+
+    @Test
+    void testNextOrderNumber_DifferentNodes_DifferentNumbers() {
+        // Arrange
+        long now = 1732700000123L;
+        OrderIdGenerator first = new OrderIdGenerator(1, () -> now, ZoneOffset.UTC);
+        OrderIdGenerator second = new OrderIdGenerator(2, () -> now, ZoneOffset.UTC);
+
+        // Act
+        String firstNumber = first.nextOrderNumber();
+        String secondNumber = second.nextOrderNumber();
+
+        // Assert
+        assertEquals("2024112709332012300010000", firstNumber, "Order number should show time, node and sequence");
+        assertEquals("2024112709332012300020000", secondNumber, "Order number should show the node ID");
+    }
+}
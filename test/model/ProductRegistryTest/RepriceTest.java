@@ -0,0 +1,86 @@
+package model.ProductRegistryTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Assortment;
+import model.Product;
+import model.ProductRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class RepriceTest {
+
+    @Test
+    void testInternReturnsCanonicalProduct() {
+        // Arrange
+        ProductRegistry registry = new ProductRegistry();
+
+        // Act
+        Product first = registry.intern(1, "T-shirt", 15.99);
+        Product second = registry.intern(1, "T-shirt", 17.99);
+
+        // Assert
+        assertSame(first, second, "Same id should resolve to the same product");
+        assertEquals(17.99, first.getPrice(), "Interning should update the price");
+        assertEquals(1, registry.size(), "Registry should hold one product");
+    }
+
+    @Test
+    void testRepriceKeepsMapEntries() {
+        // Arrange
+        ProductRegistry registry = new ProductRegistry();
+        Product product = registry.intern(1, "T-shirt", 15.99);
+        Assortment assortment = new Assortment();
+        assortment.addProduct(product, 3);
+        Map<Product, Integer> hashMap = new HashMap<>();
+        hashMap.put(product, 3);
+
+        // Act
+        registry.reprice(1, 19.99);
+        assortment.addProduct(product, 2);
+        hashMap.merge(product, 2, Integer::sum);
+
+        // Assert
+        assertEquals(19.99, assortment.getProductById(1).getPrice(), "Assortment should see the new price");
+        assertEquals(5, assortment.getAssortment().get(product), "Assortment entry should not be duplicated");
+        assertEquals(1, hashMap.size(), "HashMap entry should not be duplicated");
+        assertEquals(5, hashMap.get(product), "HashMap entry should still be found");
+    }
+
+    @Test
+    void testInternNewName_KeepsNameIndexOfOtherAssortments() {
+        // Arrange
+        ProductRegistry registry = new ProductRegistry();
+        Product original = registry.intern(1, "T-shirt", 15.99);
+        Assortment shop = new Assortment();
+        Assortment cart = new Assortment();
+        shop.addProduct(original, 3);
+        cart.addProduct(original, 1);
+
+        // Act
+        Product renamed = registry.intern(1, "Polo", 17.99);
+        shop.replaceProduct(renamed);
+
+        // Assert
+        assertNotSame(original, renamed, "Rename should register a new canonical instance");
+        assertEquals("T-shirt", original.getName(), "Shared instance should not be renamed in place");
+        assertEquals(17.99, original.getPrice(), "Shared instance should still be repriced");
+        assertSame(renamed, shop.getProductByName("Polo"), "Assortment taking the new instance should find the new name");
+        assertNull(shop.getProductByName("T-shirt"), "Old name should leave the replaced assortment");
+        assertArrayEquals(new int[]{1}, shop.getSearchIndex().search("polo"), "Search index should know the new name");
+        assertSame(original, cart.getProductByName("T-shirt"), "Other assortment should stay consistent with its instance");
+    }
+
+    @Test
+    void testRepriceUnknownProduct() {
+        // Arrange
+        ProductRegistry registry = new ProductRegistry();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            registry.reprice(42, 1.00);
+        }, "Repricing an unknown product should throw IllegalArgumentException");
+    }
+}
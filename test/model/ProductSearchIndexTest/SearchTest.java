@@ -0,0 +1,96 @@
+package model.ProductSearchIndexTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Assortment;
+import model.Product;
+import model.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+class SearchTest {
+
+    private static final String[] WORDS = {"Корм", "для", "котів", "Dog", "Food", "Royal", "Canin", "Іграшка", "м'ячик", "Shampoo"};
+
+    @Test
+    void testSearchMatchesLinearFilter() {
+        // Arrange
+        Random random = new Random(3);
+        Assortment assortment = new Assortment();
+        for (int id = 0; id < 2_000; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            assortment.addProduct(new Product(id, name, 1.00), 1);
+        }
+        ProductSearchIndex index = assortment.getSearchIndex();
+        for (int id = 0; id < 2_000; id += 3) {
+            assortment.removeProductByName(assortment.getProductById(id).getName());
+        }
+        assortment.addProduct(new Product(5_000, "ROYAL Canin Maxi", 1.00), 1);
+
+        // Act & Assert
+        for (String query : new String[]{"", "d", "do", "dog", "royal c", "КОРМ", "ячик", "12", "xyz", "food 1"}) {
+            int[] expected = assortment.getAssortment().keySet().stream()
+                    .filter(product -> product.getName().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)))
+                    .mapToInt(Product::getId)
+                    .sorted()
+                    .toArray();
+            int[] actual = index.search(query);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual, "Search result should match a linear scan for '" + query + "'");
+        }
+    }
+
+    @Test
+    void testRenameUpdatesIndex() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 3);
+        ProductSearchIndex index = assortment.getSearchIndex();
+
+        // Act
+        assortment.renameProduct(1, "Hoodie");
+
+        // Assert
+        assertEquals(0, index.search("shirt").length, "Old name should not be found");
+        assertArrayEquals(new int[]{1}, index.search("hood"), "New name should be found");
+    }
+
+    @Test
+    void testRandomAddAndRemoveMatchesLinearFilter() {
+        // Arrange
+        Random random = new Random(11);
+        ProductSearchIndex index = new ProductSearchIndex();
+        Map<Integer, String> names = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(names.remove(id) != null, index.remove(id), "Remove result should match for id " + id);
+            } else {
+                // repeated words give names with repeated n-grams
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                names.put(id, name);
+                index.add(id, name);
+            }
+        }
+
+        // Assert
+        assertEquals(names.size(), index.size(), "Index should contain every product left");
+        for (String query : new String[]{"do", "dog", "ро", "royal canin", "oo", "для для", "ячик д"}) {
+            int[] expected = names.entrySet().stream()
+                    .filter(entry -> entry.getValue().toLowerCase(Locale.ROOT).contains(query))
+                    .mapToInt(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+            int[] actual = index.search(query);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual, "Search result should match a linear scan for '" + query + "'");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package model.StockEngineTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Assortment;
+import model.Product;
+import model.StockEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ReserveTest {
+
+    @Test
+    void testReserveReleaseCommit() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 10);
+        StockEngine stockEngine = new StockEngine(assortment);
+
+        // Act
+        boolean reserved = stockEngine.reserve(1, 6);
+        boolean overReserved = stockEngine.reserve(1, 5);
+        stockEngine.release(1, 2);
+        stockEngine.commit(1, 4);
+
+        // Assert
+        assertTrue(reserved, "Reservation within stock should succeed");
+        assertFalse(overReserved, "Reservation above available stock should fail");
+        assertEquals(6, stockEngine.getAvailable(1), "Released amount should be available again");
+        assertEquals(0, stockEngine.getReserved(1), "Committed amount should leave the reservation");
+        assertEquals(10, assortment.getAmount(1), "Source assortment should not be changed");
+    }
+
+    @Test
+    void testReleaseMoreThanReserved() {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 10);
+        StockEngine stockEngine = new StockEngine(assortment);
+        stockEngine.reserve(1, 2);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            stockEngine.release(1, 3);
+        }, "Releasing more than reserved should throw IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> {
+            stockEngine.reserve(2, 1);
+        }, "Reserving an unknown product should throw IllegalArgumentException");
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws InterruptedException {
+        // Arrange
+        Assortment assortment = new Assortment();
+        assortment.addProduct(new Product(1, "T-shirt", 15.99), 1_000);
+        StockEngine stockEngine = new StockEngine(assortment);
+        AtomicInteger sold = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (stockEngine.reserve(1, 1)) {
+                        stockEngine.commit(1, 1);
+                        sold.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Checkouts should finish");
+
+        // Assert
+        assertEquals(1_000, sold.get(), "Exactly the available stock should be sold");
+        assertEquals(0, stockEngine.getAvailable(1), "No stock should be left");
+    }
+}
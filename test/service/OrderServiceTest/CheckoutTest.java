@@ -0,0 +1,132 @@
+package service.OrderServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import controller.ReceiptWriter;
+import database.ReceiptSink;
+import model.Assortment;
+import model.OrderIdGenerator;
+import model.Product;
+import model.Receipt;
+import org.junit.jupiter.api.Test;
+import service.OrderHttpServer;
+import service.OrderService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.NoSuchElementException;
+
+class CheckoutTest {
+
+    private static OrderService createService() {
+        Assortment catalog = new Assortment();
+        catalog.addProduct(new Product(1, "T-shirt", 15.99), 5);
+        catalog.addProduct(new Product(2, "Jeans", 45.00), 2);
+        return new OrderService(catalog, new OrderIdGenerator(3), null);
+    }
+
+    @Test
+    void testCheckout_CommitsStockAndClosesCart() throws Exception {
+        // Arrange
+        OrderService orderService = createService();
+        String cartId = orderService.createCart();
+        orderService.addToCart(cartId, 1, 3);
+        orderService.addToCart(cartId, 2, 2);
+
+        // Act
+        Receipt receipt = orderService.checkout(cartId).get();
+
+        // Assert
+        assertEquals(13797, receipt.getTotalMinor(), "Receipt total should be 3 x 15.99 + 2 x 45.00");
+        assertEquals(2, orderService.getAvailable(1), "Sold T-shirts should leave the stock");
+        assertEquals(0, orderService.getOpenCartCount(), "Checked out cart should be closed");
+        assertThrows(NoSuchElementException.class, () -> orderService.addToCart(cartId, 1, 1),
+                "Closed cart should not accept products");
+    }
+
+    @Test
+    void testAddToCart_NotEnoughStock_Rejected() {
+        // Arrange
+        OrderService orderService = createService();
+        String cartId = orderService.createCart();
+        orderService.addToCart(cartId, 2, 2);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> orderService.addToCart(orderService.createCart(), 2, 1),
+                "Reserved stock should not be sold twice");
+        assertTrue(orderService.cancelCart(cartId), "Open cart should be cancelled");
+        assertEquals(2, orderService.getAvailable(2), "Cancelling should release the reservation");
+    }
+
+    @Test
+    void testHttp_CartRoundTrip() throws Exception {
+        // Arrange
+        OrderService orderService = createService();
+        try (OrderHttpServer server = new OrderHttpServer(orderService, 0)) {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort();
+
+            // Act
+            String cart = send(client, "POST", base + "/carts").body();
+            String cartId = cart.substring(cart.indexOf(':') + 2, cart.lastIndexOf('"'));
+            HttpResponse<String> added = send(client, "POST", base + "/carts/" + cartId + "/items?productId=1&quantity=2");
+            HttpResponse<String> tooMany = send(client, "POST", base + "/carts/" + cartId + "/items?productId=2&quantity=9");
+            HttpResponse<String> unknown = send(client, "GET", base + "/carts/missing");
+            HttpResponse<String> checkout = send(client, "POST", base + "/carts/" + cartId + "/checkout");
+
+            // Assert
+            assertEquals(200, added.statusCode(), "Adding a product should succeed");
+            assertTrue(added.body().contains("\"totalMinor\":3198"), "Cart should show its total");
+            assertEquals(400, tooMany.statusCode(), "Too large amount should be a bad request");
+            assertEquals(404, unknown.statusCode(), "Unknown cart should not be found");
+            assertEquals(200, checkout.statusCode(), "Checkout should succeed");
+            assertTrue(checkout.body().contains("\"totalMinor\":3198"), "Checkout should return the total");
+        }
+    }
+
+    @Test
+    void testHttp_CheckNotWritten_SaleReportedWithFailedCheck() throws Exception {
+        // Arrange
+        ReceiptSink failingSink = new ReceiptSink() {
+            @Override
+            public void write(Receipt receipt) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void flush(boolean force) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Assortment catalog = new Assortment();
+        catalog.addProduct(new Product(1, "T-shirt", 15.99), 5);
+        try (ReceiptWriter receiptWriter = new ReceiptWriter(failingSink, 4, 4, ReceiptWriter.FsyncPolicy.NEVER);
+             OrderService orderService = new OrderService(catalog, new OrderIdGenerator(3), receiptWriter);
+             OrderHttpServer server = new OrderHttpServer(orderService, 0)) {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort();
+            String cart = send(client, "POST", base + "/carts").body();
+            String cartId = cart.substring(cart.indexOf(':') + 2, cart.lastIndexOf('"'));
+            send(client, "POST", base + "/carts/" + cartId + "/items?productId=1&quantity=2");
+
+            // Act
+            HttpResponse<String> checkout = send(client, "POST", base + "/carts/" + cartId + "/checkout");
+
+            // Assert
+            assertEquals(200, checkout.statusCode(), "Committed sale should not be reported as an error");
+            assertTrue(checkout.body().contains("\"checkStatus\":\"failed\""), "Failed check should be reported");
+            assertEquals(3, orderService.getAvailable(1), "Sold T-shirts should stay sold");
+        }
+    }
+
+    private static HttpResponse<String> send(HttpClient client, String method, String uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,101 @@
+package service.SalesAnalyticsTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import database.ReceiptJournal;
+import model.Assortment;
+import model.Product;
+import model.Receipt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.SalesAnalytics;
+import service.SalesReport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ReportTest {
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final Instant MONDAY = Instant.parse("2024-03-04T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong(MONDAY.toEpochMilli() + 10 * DAY);
+
+    private static Receipt receipt(int number, long createdAt, int productID, String name, int amount, double price) {
+        return new Receipt("R" + number, createdAt, new int[]{productID}, new String[]{name}, new int[]{amount}, new double[]{price});
+    }
+
+    private static Assortment stock() {
+        Assortment stock = new Assortment();
+        stock.addProduct(new Product(1, "T-shirt", 15.99), 40);
+        stock.addProduct(new Product(2, "Jeans", 45.00), 10);
+        stock.addProduct(new Product(3, "Socks", 2.50), 0);
+        return stock;
+    }
+
+    @Test
+    void testReport_ComputesPeriodsTopProductsAndSellThrough() throws IOException {
+        // Arrange
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 1024)) {
+            int number = 0;
+            for (int day = 0; day < 3; day++) {
+                for (int i = 0; i < 20; i++) {
+                    long createdAt = MONDAY.toEpochMilli() + day * DAY + i * 60_000L;
+                    journal.write(receipt(number++, createdAt, 1, "T-shirt", 1, 15.99));
+                    journal.write(receipt(number++, createdAt, 3, "Socks", 2, 2.50));
+                }
+                journal.write(receipt(number++, MONDAY.toEpochMilli() + day * DAY, 2, "Jeans", day + 1, 55.00));
+            }
+            SalesAnalytics analytics = new SalesAnalytics(journal, ZoneOffset.UTC, SalesAnalytics.Granularity.DAY, clock::get);
+
+            // Act
+            SalesReport report = analytics.report(MONDAY.plusSeconds(3600), MONDAY.plusMillis(3 * DAY), 2, stock());
+
+            // Assert
+            assertTrue(journal.getSegmentCount() > 3, "Journal should span several segments");
+            assertEquals(3, report.getPeriods().size(), "Every day should be a period");
+            assertEquals(MONDAY, report.getPeriods().get(0).getStart(), "Range should start at the start of its day");
+            assertEquals(20 * 1599 + 20 * 500 + 5500, report.getPeriods().get(0).getRevenueMinor(), "Monday revenue should be exact");
+            assertEquals(41, report.getPeriods().get(1).getReceiptCount(), "Tuesday should have all its receipts");
+            assertEquals(123, report.getReceiptCount(), "Range should contain all receipts");
+            assertEquals(2, report.getTopProducts().size(), "Only the top two products should be reported");
+            assertEquals(1, report.getTopProducts().get(0).getProductId(), "T-shirts should have the highest revenue");
+            assertEquals(2, report.getTopProducts().get(1).getProductId(), "Jeans should be second");
+            assertEquals(0.6, report.getTopProducts().get(0).getSellThroughRate(), 1e-9, "60 sold of 60 + 40 in stock");
+            assertEquals(6.0 / 16, report.getTopProducts().get(1).getSellThroughRate(), 1e-9, "6 sold of 6 + 10 in stock");
+            assertEquals(186.0 / 236, report.getSellThroughRate(), 1e-9, "All units sold against all stock");
+        }
+    }
+
+    @Test
+    void testRefresh_ReadsOnlyNewReceipts() throws IOException {
+        // Arrange
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir, 1024)) {
+            for (int i = 0; i < 30; i++) {
+                journal.write(receipt(i, MONDAY.toEpochMilli() + i * 1000L, 1, "T-shirt", 1, 15.99));
+            }
+            SalesAnalytics analytics = new SalesAnalytics(journal, ZoneOffset.UTC, SalesAnalytics.Granularity.WEEK, clock::get);
+            SalesReport first = analytics.report(MONDAY, MONDAY.plusMillis(7 * DAY), 5, stock());
+
+            // Act
+            for (int i = 30; i < 42; i++) {
+                journal.write(receipt(i, MONDAY.toEpochMilli() + DAY, 2, "Jeans", 1, 45.00));
+            }
+            int read = analytics.refresh();
+            SalesReport second = analytics.report(MONDAY, MONDAY.plusMillis(7 * DAY), 5, stock());
+
+            // Assert
+            assertEquals(30, first.getReceiptCount(), "First report should contain the first receipts");
+            assertEquals(12, read, "Refresh should only read the new receipts");
+            assertEquals(0, analytics.refresh(), "Nothing new should be read twice");
+            assertEquals(42, second.getReceiptCount(), "Late receipts of a sealed week should be counted");
+            assertEquals(30 * 1599 + 12 * 4500, second.getRevenueMinor(), "Revenue should include the new receipts");
+            assertEquals(2, second.getTopProducts().get(0).getProductId(), "Jeans should now have the highest revenue");
+        }
+    }
+}